@@ -1,6 +1,15 @@
 import { ref, onMounted, onUnmounted } from 'vue'
 import { useComparatorStore } from '../stores/comparator'
 
+// 把增量步骤的 {index, value} 变化应用到上一帧数组，返回新数组（供响应式更新）
+export function applyChanges(data, changes) {
+  const next = data.slice()
+  for (const change of changes) {
+    next[change.index] = change.value
+  }
+  return next
+}
+
 export function useVisualizer(svgId) {
   const svg = ref(null)
   const width = ref(0)
@@ -13,6 +22,7 @@ export function useVisualizer(svgId) {
     sorted: '#9b59b6',
     heap: '#f39c12',
     pivot: '#1abc9c',
+    equal: '#34495e',
   }
   const comparatorStore = useComparatorStore()
 
@@ -125,6 +135,15 @@ export function useVisualizer(svgId) {
     }
   }
 
+  // 高亮为平铺的左闭右开区间 [start0, end0, start1, end1, ...]
+  const inRanges = (ranges, idx) => {
+    if (!ranges) return false
+    for (let k = 0; k < ranges.length; k += 2) {
+      if (idx >= ranges[k] && idx < ranges[k + 1]) return true
+    }
+    return false
+  }
+
   const update = (data, highlight = {}) => {
     if (!svg.value) init()
     if (!data || data.length === 0) return
@@ -134,7 +153,6 @@ export function useVisualizer(svgId) {
     if (!barsGroup) { init(); return }
     barsGroup.innerHTML = ''
 
-    const sortedIndices = highlight.sorted || []
     const isPersonData =
       data.length > 0 &&
       typeof data[0] === 'object' &&
@@ -163,11 +181,12 @@ export function useVisualizer(svgId) {
       const y = height.value - margin.bottom - barHeight
 
       let color = colors.normal
-      if (highlight.swap && highlight.swap.includes(idx)) color = colors.swapping
-      else if (highlight.compare && highlight.compare.includes(idx)) color = colors.comparing
-      else if (highlight.heap && highlight.heap.includes(idx)) color = colors.heap
-      else if (highlight.pivot && highlight.pivot.includes(idx)) color = colors.pivot
-      else if (sortedIndices.includes(idx)) color = colors.sorted
+      if (inRanges(highlight.swap, idx)) color = colors.swapping
+      else if (inRanges(highlight.compare, idx)) color = colors.comparing
+      else if (inRanges(highlight.heap, idx)) color = colors.heap
+      else if (inRanges(highlight.pivot, idx)) color = colors.pivot
+      else if (inRanges(highlight.equal, idx)) color = colors.equal
+      else if (inRanges(highlight.sorted, idx)) color = colors.sorted
 
       const rect = document.createElementNS('http://www.w3.org/2000/svg', 'rect')
       rect.setAttribute('x', x)
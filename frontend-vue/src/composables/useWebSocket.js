@@ -4,11 +4,22 @@ import { useDataStore } from '../stores/data'
 import { useUiStore } from '../stores/ui'
 import { usePerformanceStore } from '../stores/performance'
 import { Utils } from '../utils/helpers'
+import { decodeFrame } from '../utils/frameDecoder'
+import { applyChanges } from './useVisualizer'
 
 const socket = ref(null)
 const isConnected = ref(false)
 let messageQueue = []
 let silentClose = false
+// 服务端在 CONNECTED 中声明支持二进制帧后，排序请求改用二进制编码接收步骤更新与性能结果
+let binaryFrames = false
+// 最近一次应用的步骤号：增量步骤的 baseStep 与之不符时请求完整快照
+let lastAppliedStep = 0
+// 流量控制：排序请求给出初始帧额度，每渲染完一帧归还一个额度，攒够半个窗口时连同平均渲染延迟一起发送 CREDIT
+const CREDIT_WINDOW = 8
+let sortRequestId = null
+let pendingCredits = 0
+let pendingRenderLag = 0
 
 export function useWebSocket() {
   const algorithmStore = useAlgorithmStore()
@@ -22,7 +33,9 @@ export function useWebSocket() {
       socket.value.close()
     }
     uiStore.showLoading('连接服务器中...')
+    binaryFrames = false
     socket.value = new WebSocket(url)
+    socket.value.binaryType = 'arraybuffer'
     socket.value.onopen = () => {
       isConnected.value = true
       Utils.logMessage('WebSocket 已连接', 'success')
@@ -30,7 +43,7 @@ export function useWebSocket() {
       console.log('WebSocket connected')
     }
     socket.value.onmessage = (event) => {
-      const data = JSON.parse(event.data)
+      const data = typeof event.data === 'string' ? JSON.parse(event.data) : decodeFrame(event.data)
       handleMessage(data)
     }
     socket.value.onerror = () => {
@@ -50,8 +63,18 @@ export function useWebSocket() {
 
   const handleMessage = (data) => {
     switch (data.type) {
-      case 'STEP_UPDATE':
+      case 'STEP_UPDATE': {
         if (!algorithmStore.isSorting) return
+        returnCredit(data.requestId, performance.now())
+        let stepData = data.data
+        if (data.changes) {
+          if (data.baseStep !== lastAppliedStep) {
+            sendControl('RESYNC')
+            return
+          }
+          stepData = applyChanges(dataStore.displayData, data.changes)
+        }
+        lastAppliedStep = data.step
         Utils.logMessage(`收到步骤更新: ${data.step}/${data.totalSteps}`, 'info')
         algorithmStore.updateStats({
           comparisons: data.stats?.comparisons || 0,
@@ -60,12 +83,13 @@ export function useWebSocket() {
           step: data.step || 0,
           totalSteps: data.totalSteps || 0,
         })
-        dataStore.updateDisplayData(data.data, data.highlight || {})
+        dataStore.updateDisplayData(stepData, data.highlight || {})
         if (data.step >= data.totalSteps) {
           algorithmStore.resetSort()
           uiStore.hideLoading()
         }
         break
+      }
       case 'PERFORMANCE_RESULT':
         Utils.logMessage(`${data.algorithm} 完成: ${data.time}ms`, 'success')
         performanceStore.addResult(data)
@@ -76,6 +100,7 @@ export function useWebSocket() {
         break
       case 'CONNECTED':
         Utils.logMessage('服务器确认连接成功', 'success')
+        binaryFrames = Array.isArray(data.encodings) && data.encodings.includes('BINARY')
         break
       case 'PAUSED':
         Utils.logMessage('排序已暂停', 'info')
@@ -108,6 +133,24 @@ export function useWebSocket() {
     }
   }
 
+  // 下一次绘制完成后归还这一帧的额度（被 RESYNC 丢弃的帧同样归还），延迟为收到帧到绘制完成的时间
+  const returnCredit = (requestId, receivedAt) => {
+    requestAnimationFrame(() => {
+      if (requestId !== sortRequestId) return
+      pendingCredits++
+      pendingRenderLag += performance.now() - receivedAt
+      if (pendingCredits >= CREDIT_WINDOW / 2) {
+        sendControl('CREDIT', {
+          requestId: sortRequestId,
+          credits: pendingCredits,
+          renderLag: Math.round(pendingRenderLag / pendingCredits),
+        })
+        pendingCredits = 0
+        pendingRenderLag = 0
+      }
+    })
+  }
+
   const send = (message) => {
     if (!isConnected.value || !socket.value) {
       uiStore.showErrorModal('未连接到服务器')
@@ -131,11 +174,18 @@ export function useWebSocket() {
   }
 
   const sendSortRequest = (request) => {
+    // type 放在最前：服务端按 type 选择请求类型，之后的字段直接解析进请求对象
     const msg = {
-      requestId: crypto.randomUUID(),
       type: 'SORT_REQUEST',
+      requestId: crypto.randomUUID(),
+      encoding: binaryFrames ? 'BINARY' : 'JSON',
+      delta: true,
+      credits: CREDIT_WINDOW,
       ...request,
     }
+    sortRequestId = msg.requestId
+    pendingCredits = 0
+    pendingRenderLag = 0
     return send(msg)
   }
 
@@ -10,6 +10,10 @@ export const useAlgorithmStore = defineStore('algorithm', {
       { id: 'quick', name: '快速排序', complexity: 'O(n log n)' },
       { id: 'heap', name: '堆排序', complexity: 'O(n log n)' },
       { id: 'merge', name: '二路归并排序', complexity: 'O(n log n)' },
+      { id: 'parallel_merge', name: '并行归并排序', complexity: 'O(n log n)' },
+      { id: 'quick3', name: '三路快速排序', complexity: 'O(n log n)' },
+      { id: 'radix', name: '基数排序', complexity: 'O(n·k)' },
+      { id: 'counting', name: '计数排序', complexity: 'O(n + k)' },
     ],
     isSorting: false,
     stats: { comparisons: 0, swaps: 0, time: 0, step: 0, totalSteps: 0 },
@@ -73,7 +77,7 @@ export const useAlgorithmStore = defineStore('algorithm', {
       )
       // 函数名
       escaped = escaped.replace(
-        /\b(insertionSort|shellSort|bubbleSort|quickSort|heapSort|mergeSort|partition|buildMaxHeap|heapify|merge|swap|floor|length)\b/gi,
+        /\b(insertionSort|shellSort|bubbleSort|quickSort|heapSort|mergeSort|partition|buildMaxHeap|heapify|merge|medianOfThree|parallelMergeSort|parallelMerge|lowerBound|quickSort3Way|radixSort|prefixSum|sortKey|doubleToRawLongBits|countingSort|bucketCount|bucketOf|swap|floor|length)\b/gi,
         '<span class="code-function">$&</span>',
       )
       // 变量名
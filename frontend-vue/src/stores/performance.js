@@ -3,7 +3,7 @@ import { defineStore } from 'pinia'
 
 export const usePerformanceStore = defineStore('performance', {
   state: () => ({
-    results: [], // 存储每个算法的结果 { algorithm, time, comparisons, swaps }
+    results: [], // 存储每个算法的结果 { algorithm, time, comparisons, swaps, runs, mergePasses, ioBytes }
   }),
   actions: {
     addResult(result) {
@@ -12,12 +12,18 @@ export const usePerformanceStore = defineStore('performance', {
         existing.time = result.time
         existing.comparisons = result.comparisons
         existing.swaps = result.swaps
+        existing.runs = result.runs
+        existing.mergePasses = result.mergePasses
+        existing.ioBytes = result.ioBytes
       } else {
         this.results.push({
           algorithm: result.algorithm,
           time: result.time,
           comparisons: result.comparisons,
           swaps: result.swaps,
+          runs: result.runs,
+          mergePasses: result.mergePasses,
+          ioBytes: result.ioBytes,
         })
       }
     },
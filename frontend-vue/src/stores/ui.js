@@ -5,6 +5,7 @@ export const useUiStore = defineStore('ui', {
     currentMode: 'teaching', // 'teaching' | 'performance'
     isLoading: false,
     loadingMessage: '正在处理...',
+    loadingCancel: null, // 可选：加载中显示停止按钮时的回调
     errorMessage: null,
     showError: false,
     isPaused: false,
@@ -13,12 +14,14 @@ export const useUiStore = defineStore('ui', {
     switchMode(mode) {
       this.currentMode = mode
     },
-    showLoading(msg) {
+    showLoading(msg, onCancel = null) {
       this.isLoading = true
       this.loadingMessage = msg
+      this.loadingCancel = onCancel
     },
     hideLoading() {
       this.isLoading = false
+      this.loadingCancel = null
     },
     showErrorModal(msg) {
       this.errorMessage = msg
@@ -0,0 +1,176 @@
+// 二进制帧解码模块（与服务端 BinaryFrameEncoder 的格式对应）
+// 帧头 8 字节：魔数 | 版本 | 消息类型 | 元素类型 | 标志位 | 保留；多字节数值均为小端
+const MAGIC = 0x53
+const VERSION = 2
+const HEADER_SIZE = 8
+
+const TYPE_STEP_UPDATE = 1
+const TYPE_PERFORMANCE_RESULT = 2
+
+const ELEMENT_NONE = 0
+const ELEMENT_INTEGER = 1
+const ELEMENT_DOUBLE = 2
+const ELEMENT_PERSON = 3
+
+const FLAG_FINAL = 1
+const FLAG_SORTED = 2
+const FLAG_DELTA = 4
+
+const HIGHLIGHT_KEYS = ['compare', 'swap', 'pivot', 'heap', 'equal', 'sorted']
+
+const textDecoder = new TextDecoder('utf-8')
+
+class FrameReader {
+  constructor(buffer) {
+    this.view = new DataView(buffer)
+    this.bytes = new Uint8Array(buffer)
+    this.pos = HEADER_SIZE
+  }
+
+  // 无符号 varint；超过 31 位时用乘法累加，避免位运算截断
+  varint() {
+    let result = 0
+    let scale = 1
+    let b
+    do {
+      b = this.bytes[this.pos++]
+      result += (b & 0x7f) * scale
+      scale *= 128
+    } while (b & 0x80)
+    return result
+  }
+
+  zigzag() {
+    const v = this.varint()
+    return v % 2 === 0 ? v / 2 : -(v + 1) / 2
+  }
+
+  // 可空整数：0 为 null，否则为 zigzag(v) + 1
+  nullable() {
+    const v = this.varint()
+    if (v === 0) return null
+    const z = v - 1
+    return z % 2 === 0 ? z / 2 : -(z + 1) / 2
+  }
+
+  float64() {
+    const v = this.view.getFloat64(this.pos, true)
+    this.pos += 8
+    return v
+  }
+
+  string() {
+    const len = this.varint()
+    if (len === 0) return null
+    const s = textDecoder.decode(this.bytes.subarray(this.pos, this.pos + len - 1))
+    this.pos += len - 1
+    return s
+  }
+
+  ranges() {
+    const count = this.varint()
+    if (count === 0) return null
+    const ranges = new Array(count - 1)
+    let prev = 0
+    for (let i = 0; i < ranges.length; i++) {
+      prev += this.zigzag()
+      ranges[i] = prev
+    }
+    return ranges
+  }
+
+  person() {
+    const mask = this.bytes[this.pos++]
+    return {
+      id: mask & 1 ? this.zigzag() : null,
+      name: mask & 2 ? this.string() : null,
+      age: mask & 4 ? this.zigzag() : null,
+      score: mask & 8 ? this.float64() : null,
+      email: mask & 16 ? this.string() : null,
+    }
+  }
+
+  element(elementType) {
+    if (elementType === ELEMENT_INTEGER) return this.zigzag()
+    if (elementType === ELEMENT_DOUBLE) return this.float64()
+    if (elementType === ELEMENT_PERSON) return this.person()
+    return null
+  }
+
+  data(elementType) {
+    if (elementType === ELEMENT_NONE) return null
+    const n = this.varint()
+    const data = new Array(n)
+    for (let i = 0; i < n; i++) {
+      data[i] = this.element(elementType)
+    }
+    return data
+  }
+
+  changes(elementType) {
+    const n = this.varint()
+    const changes = new Array(n)
+    for (let i = 0; i < n; i++) {
+      const index = this.varint()
+      changes[i] = { index, value: this.element(elementType) }
+    }
+    return changes
+  }
+}
+
+// 解码二进制帧，返回与 JSON 消息结构相同的对象
+export function decodeFrame(buffer) {
+  const reader = new FrameReader(buffer)
+  const bytes = reader.bytes
+  if (bytes[0] !== MAGIC || bytes[1] !== VERSION) {
+    throw new Error(`无法识别的二进制帧: magic=${bytes[0]}, version=${bytes[1]}`)
+  }
+  const type = bytes[2]
+  const elementType = bytes[3]
+  const flags = bytes[4]
+  const requestId = reader.string()
+  const timestamp = reader.nullable()
+
+  if (type === TYPE_STEP_UPDATE) {
+    const msg = { type: 'STEP_UPDATE', requestId, timestamp }
+    msg.step = reader.nullable()
+    msg.totalSteps = reader.nullable()
+    msg.stats = {
+      comparisons: reader.nullable(),
+      swaps: reader.nullable(),
+      time: reader.nullable(),
+    }
+    msg.highlight = {}
+    for (const key of HIGHLIGHT_KEYS) {
+      msg.highlight[key] = reader.ranges()
+    }
+    msg.description = reader.string()
+    if (flags & FLAG_DELTA) {
+      msg.data = null
+      msg.baseStep = reader.nullable()
+      msg.changes = reader.changes(elementType)
+    } else {
+      msg.data = reader.data(elementType)
+    }
+    msg.isFinal = (flags & FLAG_FINAL) !== 0
+    return msg
+  }
+
+  if (type === TYPE_PERFORMANCE_RESULT) {
+    const msg = { type: 'PERFORMANCE_RESULT', requestId, timestamp }
+    msg.algorithm = reader.string()
+    msg.distribution = reader.string()
+    msg.time = reader.nullable()
+    msg.comparisons = reader.nullable()
+    msg.swaps = reader.nullable()
+    msg.dataSize = reader.nullable()
+    msg.runs = reader.nullable()
+    msg.mergePasses = reader.nullable()
+    msg.ioBytes = reader.nullable()
+    msg.sortedData = reader.data(elementType)
+    msg.sorted = (flags & FLAG_SORTED) !== 0
+    return msg
+  }
+
+  throw new Error(`未知的二进制消息类型: ${type}`)
+}
@@ -1,8 +1,6 @@
 package com.sorting.visualization.algorithm;
 
 import com.sorting.visualization.model.Highlight;
-import com.sorting.visualization.model.response.StepUpdate;
-import lombok.Getter;
 
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -10,111 +8,107 @@ import java.util.List;
 
 /**
  * 排序算法基类
+ * <p>
+ * 算法实例无状态，每次运行的计数器与步骤时间线都放在 {@link SortContext} 中。
  *
  * @param <T> 数据类型
  */
 public abstract class AbstractSortingAlgorithm<T> implements SortingAlgorithm<T> {
 
-    protected int comparisons = 0;
-    protected int swaps = 0;
-    protected long startTime = 0;
-
-    @Getter
-    protected List<StepUpdate> steps = new ArrayList<>();
-    @Getter
-    protected StepUpdate.Statistics currentStats = new StepUpdate.Statistics();
-
     /**
-     * 初始化步骤记录
+     * 初始化教学上下文并记录初始状态，步骤记录到以输入数据创建的 timeline 中
      */
-    protected void initTeaching(List<T> data) {
-        steps.clear();
-        comparisons = 0;
-        swaps = 0;
-        startTime = System.currentTimeMillis();
-        currentStats = new StepUpdate.Statistics();
+    protected SortContext<T> initTeaching(StepTimeline<T> timeline) {
+        SortContext<T> context = SortContext.forTeaching(timeline);
 
         // 记录初始状态
-        addStep(data, new Highlight(), "算法开始");
+        addStep(context, workingList(context), new Highlight(), describe(context, StepMessage.START));
+        return context;
     }
 
     /**
-     * 添加一个步骤
+     * 教学模式的工作数组：初始内容为输入数据，写入会记录到步骤时间线的操作日志中
      */
-    protected void addStep(List<T> data, Highlight highlight, String description) {
-        StepUpdate step = new StepUpdate();
-        step.setStep(steps.size() + 1);
-        step.setTotalSteps(0); // 将在完成时设置
-        step.setData(new ArrayList<>(data));
-        step.setHighlight(highlight);
-
-        currentStats.setComparisons(comparisons);
-        currentStats.setSwaps(swaps);
-        currentStats.setTime(System.currentTimeMillis() - startTime);
-        step.setStats(currentStats);
-
-        step.setDescription(description);
-
-        steps.add(step);
+    protected List<T> workingList(SortContext<T> context) {
+        return context.getTimeline().track();
     }
 
     /**
-     * 记录比较操作
+     * 开始一条步骤描述，按模板占位符顺序追加参数后交给 {@link #addStep}
      */
-    protected void recordComparison() {
-        comparisons++;
+    protected StepDescription describe(SortContext<T> context, StepMessage message) {
+        return context.getTimeline().describe(message);
     }
 
     /**
-     * 记录交换操作
+     * 添加一个步骤（只记录日志位置、高亮、描述模板与参数、统计，不复制数组、不格式化文本）
      */
-    protected void recordSwap() {
-        swaps++;
+    protected void addStep(SortContext<T> context, List<T> data, Highlight highlight, StepDescription description) {
+        context.getTimeline().addStep(data, highlight, description,
+                context.getTeachingComparisons(), context.getTeachingSwaps(), context.getElapsedTime());
     }
 
     /**
-     * 交换列表中的两个元素
+     * 交换列表中的两个元素（时间线工作数组上记为一条 swap 操作）
      */
-    protected void swap(List<T> list, int i, int j) {
-        T temp = list.get(i);
-        list.set(i, list.get(j));
-        list.set(j, temp);
-        recordSwap();
+    protected void swap(SortContext<T> context, List<T> list, int i, int j) {
+        if (list instanceof StepTimeline.SwappableList swappable) {
+            swappable.swap(i, j);
+        } else {
+            T temp = list.get(i);
+            list.set(i, list.get(j));
+            list.set(j, temp);
+        }
+        context.recordSwap();
     }
 
     /**
      * 比较两个元素
      */
-    protected int compare(Comparator<T> comparator, T a, T b) {
-        recordComparison();
+    protected int compare(SortContext<T> context, Comparator<T> comparator, T a, T b) {
+        context.recordComparison();
         return comparator.compare(a, b);
     }
 
     /**
-     * 完成教学步骤记录
+     * 构造性能模式结果（原始类型内核使用）
      */
-    protected TeachingResult<T> completeTeaching(List<T> sortedData, int totalSteps) {
-        // 更新所有步骤的总步数
-        for (StepUpdate step : steps) {
-            step.setTotalSteps(totalSteps);
-        }
+    protected static <E> PerformanceResult<E> performanceResult(List<E> sortedData, long comparisons,
+                                                                long swaps, long time) {
+        PerformanceResult<E> result = new PerformanceResult<>();
+        result.setSortedData(sortedData);
+        result.setComparisons(comparisons);
+        result.setSwaps(swaps);
+        result.setTime(time);
+        return result;
+    }
+
+    /**
+     * 完成性能模式运行
+     */
+    protected PerformanceResult<T> completePerformance(SortContext<T> context, List<T> sortedData) {
+        long time = context.getElapsedTime();
+        return performanceResult(sortedData, context.getComparisons(), context.getSwaps(), time);
+    }
 
+    /**
+     * 完成教学步骤记录
+     */
+    protected TeachingResult<T> completeTeaching(SortContext<T> context, List<T> sortedData) {
         // 添加最终步骤
         Highlight highlight = new Highlight();
-        List<Integer> sortedIndices = new ArrayList<>();
-        for (int i = 0; i < sortedData.size(); i++) {
-            sortedIndices.add(i);
-        }
-        highlight.setSorted(sortedIndices);
+        highlight.sortedRange(0, sortedData.size());
 
-        addStep(sortedData, highlight, "排序完成");
+        context.getTimeline().addFinalStep(sortedData, highlight,
+                describe(context, StepMessage.COMPLETE),
+                context.getTeachingComparisons(), context.getTeachingSwaps(), context.getElapsedTime());
 
         TeachingResult<T> result = new TeachingResult<>();
-        result.setSteps(steps);
-        result.setSortedData(sortedData);
-        result.setTotalComparisons(comparisons);
-        result.setTotalSwaps(swaps);
-        result.setTotalTime(System.currentTimeMillis() - startTime);
+        result.setTimeline(context.getTimeline());
+        result.setSortedData(new ArrayList<>(sortedData));
+        result.setTotalComparisons(context.getTeachingComparisons());
+        result.setTotalSwaps(context.getTeachingSwaps());
+        result.setTotalTime(context.getTimeline().getLastStepTime());
 
         return result;
     }
@@ -11,7 +11,7 @@ public final class AlgorithmConstants {
 
     /** 所有支持的算法标识 */
     public static final List<String> ALGORITHM_IDS = List.of(
-            "BUBBLE", "INSERTION", "SHELL", "QUICK", "HEAP", "MERGE"
+            "BUBBLE", "INSERTION", "SHELL", "QUICK", "HEAP", "MERGE", "PARALLEL_MERGE", "QUICK3", "RADIX", "COUNTING"
     );
 
     /** 算法中文名称映射 */
@@ -23,6 +23,10 @@ public final class AlgorithmConstants {
             case "QUICK" -> "快速排序";
             case "HEAP" -> "堆排序";
             case "MERGE" -> "归并排序";
+            case "PARALLEL_MERGE" -> "并行归并排序";
+            case "QUICK3" -> "三路快速排序";
+            case "RADIX" -> "基数排序";
+            case "COUNTING" -> "计数排序";
             default -> "未知算法";
         };
     }
@@ -31,8 +35,9 @@ public final class AlgorithmConstants {
     public static String getComplexity(String algorithm) {
         return switch (algorithm.toUpperCase()) {
             case "BUBBLE", "INSERTION" -> "O(n²)";
-            case "SHELL", "HEAP", "MERGE" -> "O(n log n)";
-            case "QUICK" -> "O(n log n) - O(n²)";
+            case "SHELL", "QUICK", "HEAP", "MERGE", "PARALLEL_MERGE", "QUICK3" -> "O(n log n)";
+            case "RADIX" -> "O(n·k)";
+            case "COUNTING" -> "O(n + k)";
             default -> "未知";
         };
     }
@@ -40,12 +45,38 @@ public final class AlgorithmConstants {
     /** 算法稳定性类型 */
     public static String getStabilityType(String algorithm) {
         return switch (algorithm.toUpperCase()) {
-            case "BUBBLE", "INSERTION", "MERGE" -> "stable";
-            case "SHELL", "QUICK", "HEAP" -> "unstable";
+            case "BUBBLE", "INSERTION", "MERGE", "PARALLEL_MERGE", "RADIX", "COUNTING" -> "stable";
+            case "SHELL", "QUICK", "HEAP", "QUICK3" -> "unstable";
             default -> "unknown";
         };
     }
 
+    /** 判断算法是否支持该数据类型（数据类型需已规范化），非比较排序只支持部分数据类型 */
+    public static boolean supportsDataType(String algorithm, String dataType) {
+        return switch (algorithm.toUpperCase()) {
+            case "RADIX" -> "INTEGER".equals(dataType) || "DOUBLE".equals(dataType);
+            case "COUNTING" -> "PERSON".equals(dataType);
+            default -> true;
+        };
+    }
+
+    /** 判断算法能否用于外部排序的内存段排序（需有原始类型内核，且不是 O(n²) 算法） */
+    public static boolean supportsExternal(String algorithm) {
+        return switch (algorithm.toUpperCase()) {
+            case "SHELL", "QUICK", "HEAP", "MERGE", "PARALLEL_MERGE", "QUICK3", "RADIX" -> true;
+            default -> false;
+        };
+    }
+
+    /** 判断算法是否支持按该 Person 字段排序（计数排序只能用于有界字段 age / score，未指定时默认 score） */
+    public static boolean supportsStructField(String algorithm, String structField) {
+        return switch (algorithm.toUpperCase()) {
+            case "COUNTING" -> structField == null
+                    || "age".equalsIgnoreCase(structField) || "score".equalsIgnoreCase(structField);
+            default -> true;
+        };
+    }
+
     /** 判断是否为合法算法 */
     public static boolean isValidAlgorithm(String algorithm) {
         return algorithm != null && ALGORITHM_IDS.contains(algorithm.toUpperCase());
@@ -5,6 +5,8 @@ import com.sorting.visualization.model.request.SortRequest;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
 
 @Slf4j
 public class ComparatorFactory {
@@ -16,34 +18,159 @@ public class ComparatorFactory {
      * @param comparatorInfo 比较器信息
      * @return Comparator<Object>
      */
-    @SuppressWarnings("unchecked")
     public static Comparator<Object> createComparator(String dataType, SortRequest.ComparatorInfo comparatorInfo) {
-        if (comparatorInfo == null) {
-            comparatorInfo = new SortRequest.ComparatorInfo();
-            comparatorInfo.setDirection("ascending");
-            comparatorInfo.setMethod("numeric");
-        }
-
-        String direction = comparatorInfo.getDirection();
-        String method = comparatorInfo.getMethod();
-        boolean ascending = "ascending".equals(direction);
+        // 方向、比较方法在这里一次性解析为具体的比较器类，比较时不再做字符串判断
+        NumericComparator order = resolveOrder(comparatorInfo);
 
         // 规范化数据类型
         String normalizedType = normalizeDataType(dataType);
 
         // Person类型比较器
         if ("PERSON".equalsIgnoreCase(normalizedType)) {
-            return createPersonComparator(ascending, method, comparatorInfo.getStructField());
+            return createPersonComparator(comparatorInfo, order);
+        }
+
+        // Integer 数据直接按 int 比较
+        if ("INTEGER".equals(normalizedType)) {
+            return new IntegerComparator(order);
+        }
+
+        // 数值类型比较器（Double 等）
+        return order;
+    }
+
+    /**
+     * 创建 int 专用比较器（原始类型内核使用，语义与 createComparator 的数值比较一致）
+     */
+    public static IntComparator createIntComparator(SortRequest.ComparatorInfo comparatorInfo) {
+        return resolveOrder(comparatorInfo)::compareInt;
+    }
+
+    /**
+     * 创建 double 专用比较器（原始类型内核使用，语义与 createComparator 的数值比较一致）
+     */
+    public static DoubleComparator createDoubleComparator(SortRequest.ComparatorInfo comparatorInfo) {
+        return resolveOrder(comparatorInfo)::compareDouble;
+    }
+
+    /**
+     * 解析方向与比较方法，得到对应的数值比较器单例
+     */
+    public static NumericComparator resolveOrder(SortRequest.ComparatorInfo comparatorInfo) {
+        return NumericComparator.of(isAscending(comparatorInfo), resolveMethod(comparatorInfo));
+    }
+
+    /**
+     * 创建 Person 下标比较器（装饰-排序-去装饰）：先把每个元素的排序字段一次性取到并行数组中，
+     * 比较时只按下标读取数组，不再做类型转换、getter 调用、判空与字段名匹配。
+     * 比较结果与 createComparator 创建的 Person 比较器一致
+     */
+    public static IntComparator createPersonIndexComparator(List<?> data, SortRequest.ComparatorInfo comparatorInfo) {
+        String field = resolveStructField(comparatorInfo);
+        int n = data.size();
+
+        if ("name".equals(field)) {
+            String[] names = new String[n];
+            for (int i = 0; i < n; i++) {
+                names[i] = ((Person) data.get(i)).getName();
+            }
+            return isNameForward(comparatorInfo)
+                    ? (a, b) -> CharSequence.compare(names[a], names[b])
+                    : (a, b) -> CharSequence.compare(names[b], names[a]);
+        }
+
+        ToDoubleFunction<Person> extractor = personField(field);
+        double[] keys = new double[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = extractor.applyAsDouble((Person) data.get(i));
+        }
+        NumericComparator order = resolveOrder(comparatorInfo);
+        return (a, b) -> order.compareDouble(keys[a], keys[b]);
+    }
+
+    /**
+     * 创建 int 排序键（基数排序使用）：键的无符号顺序与 createIntComparator 的比较结果一致，
+     * 升降序通过对键取反实现
+     */
+    public static IntSortKey createIntSortKey(SortRequest.ComparatorInfo comparatorInfo) {
+        boolean ascending = isAscending(comparatorInfo);
+        return switch (resolveMethod(comparatorInfo)) {
+            // |Integer.MIN_VALUE| 按无符号解释恰好是 2^31，无需特殊处理
+            case "absolute" -> ascending
+                    ? v -> v < 0 ? -v : v
+                    : v -> ~(v < 0 ? -v : v);
+            case "reverse" -> ascending
+                    ? v -> v ^ Integer.MAX_VALUE
+                    : v -> v ^ Integer.MIN_VALUE;
+            // 翻转符号位后负数排在正数之前；降序再整体取反
+            default -> ascending
+                    ? v -> v ^ Integer.MIN_VALUE
+                    : v -> v ^ Integer.MAX_VALUE;
+        };
+    }
+
+    /**
+     * 创建 double 排序键（基数排序使用）：基于 IEEE 754 位模式做符号翻转，
+     * 键的无符号顺序与 Double.compare 一致（-0.0 在 0.0 之前，NaN 排在最后），
+     * 升降序通过对键取反实现
+     */
+    public static DoubleSortKey createDoubleSortKey(SortRequest.ComparatorInfo comparatorInfo) {
+        boolean ascending = isAscending(comparatorInfo);
+        return switch (resolveMethod(comparatorInfo)) {
+            case "absolute" -> ascending
+                    ? v -> doubleBits(v) & Long.MAX_VALUE
+                    : v -> ~(doubleBits(v) & Long.MAX_VALUE);
+            case "reverse" -> ascending
+                    ? v -> ~flipSign(doubleBits(v))
+                    : v -> flipSign(doubleBits(v));
+            default -> ascending
+                    ? v -> flipSign(doubleBits(v))
+                    : v -> ~flipSign(doubleBits(v));
+        };
+    }
+
+    /**
+     * 原始位模式；所有 NaN 统一为标准 NaN，与 Double.compare 视所有 NaN 相等一致
+     */
+    private static long doubleBits(double value) {
+        return value != value ? 0x7ff8000000000000L : Double.doubleToRawLongBits(value);
+    }
+
+    /**
+     * 负数翻转全部位、非负数只翻转符号位，使位模式的无符号顺序等于数值顺序
+     */
+    private static long flipSign(long bits) {
+        return bits ^ ((bits >> 63) | Long.MIN_VALUE);
+    }
+
+    /**
+     * 创建 Person 有界字段排序键（计数排序 / 桶排序使用），方向语义与 createComparator 一致；
+     * age / score 均非负，absolute 与 numeric 等价。未指定字段时与比较器一样默认按 score 排序
+     */
+    public static PersonRangeKey createPersonRangeKey(SortRequest.ComparatorInfo comparatorInfo,
+                                                      double min, double max) {
+        boolean ascending = isAscending(comparatorInfo);
+        if ("reverse".equals(resolveMethod(comparatorInfo))) {
+            ascending = !ascending;
         }
+        return new PersonRangeKey(resolveStructField(comparatorInfo), ascending, min, max);
+    }
 
-        // 数值类型比较器（Integer, Double）
-        return createNumericComparator(ascending, method);
+    private static boolean isAscending(SortRequest.ComparatorInfo comparatorInfo) {
+        return comparatorInfo == null || "ascending".equals(comparatorInfo.getDirection());
+    }
+
+    private static String resolveMethod(SortRequest.ComparatorInfo comparatorInfo) {
+        if (comparatorInfo == null || comparatorInfo.getMethod() == null) {
+            return "numeric";
+        }
+        return comparatorInfo.getMethod().toLowerCase();
     }
 
     /**
      * 规范化数据类型
      */
-    private static String normalizeDataType(String dataType) {
+    public static String normalizeDataType(String dataType) {
         if (dataType == null) return null;
 
         String type = dataType.toUpperCase();
@@ -54,146 +181,99 @@ public class ComparatorFactory {
     }
 
     /**
-     * 创建Person比较器
-     */
-    private static Comparator<Object> createPersonComparator(boolean ascending, String method, String structField) {
-        return switch (structField) {
-            case "age" -> (a, b) -> {
-                Person p1 = (Person) a;
-                Person p2 = (Person) b;
-
-                double value1 = p1.getAge() != null ? p1.getAge() : 0;
-                double value2 = p2.getAge() != null ? p2.getAge() : 0;
-
-                return compareValues(value1, value2, ascending, method);
-            };
-            case "id" -> (a, b) -> {
-                Person p1 = (Person) a;
-                Person p2 = (Person) b;
-                double value1 = p1.getId();
-                double value2 = p2.getId();
-                return compareValues(value1, value2, ascending, method);
-            };
-            case "name" -> (a, b) -> {
-                Person p1 = (Person) a;
-                Person p2 = (Person) b;
-                String name1 = p1.getName();
-                String name2 = p2.getName();
-                return compareValues(name1, name2, ascending, method);
-            };
-            default -> (a, b) -> {
-                Person p1 = (Person) a;
-                Person p2 = (Person) b;
-
-                // 根据 comparatorInfo.structField 动态选择排序字段，默认 score
-                String field = (structField != null) ? structField : "score";
-                double value1 = getPersonFieldValue(p1, field);
-                double value2 = getPersonFieldValue(p2, field);
-
-                return compareValues(value1, value2, ascending, method);
-            };
-        };
+     * 排序字段（统一小写），未指定时默认 score
+     */
+    private static String resolveStructField(SortRequest.ComparatorInfo comparatorInfo) {
+        if (comparatorInfo == null || comparatorInfo.getStructField() == null) {
+            return "score";
+        }
+        return comparatorInfo.getStructField().toLowerCase();
     }
 
     /**
-     * 创建数值比较器
+     * 字符串比较中 absolute 与 reverse 都表示与所选方向相反
      */
-    private static Comparator<Object> createNumericComparator(boolean ascending, String method) {
-        return (a, b) -> {
-            double value1 = convertToDouble(a);
-            double value2 = convertToDouble(b);
+    private static boolean isNameForward(SortRequest.ComparatorInfo comparatorInfo) {
+        String method = resolveMethod(comparatorInfo);
+        boolean reversed = "absolute".equals(method) || "reverse".equals(method);
+        return isAscending(comparatorInfo) != reversed;
+    }
 
-            return compareValues(value1, value2, ascending, method);
+    /**
+     * 创建Person比较器：字段读取方式与比较顺序在创建时确定
+     */
+    private static Comparator<Object> createPersonComparator(SortRequest.ComparatorInfo comparatorInfo,
+                                                             NumericComparator order) {
+        String field = resolveStructField(comparatorInfo);
+        if ("name".equals(field)) {
+            return new PersonNameComparator(isNameForward(comparatorInfo));
+        }
+        return new PersonFieldComparator(personField(field), order);
+    }
+
+    /**
+     * Person 数值字段读取函数（用于排序比较），email / name 以哈希值参与数值比较
+     */
+    private static ToDoubleFunction<Person> personField(String field) {
+        return switch (field) {
+            case "id" -> person -> person.getId();
+            case "age" -> person -> person.getAge() != null ? person.getAge() : 0;
+            case "score" -> person -> person.getScore() != null ? person.getScore() : 0;
+            case "email" -> person -> person.getEmail() != null ? person.getEmail().hashCode() : 0;
+            case "name" -> person -> person.getName() != null ? person.getName().hashCode() : 0;
+            default -> person -> 0;
         };
     }
 
     /**
-     * 比较两个值
+     * Integer 数据比较器
      */
-    private static int compareValues(double value1, double value2, boolean ascending, String method) {
-        double v1 = value1;
-        double v2 = value2;
+    private static final class IntegerComparator implements Comparator<Object> {
+        private final NumericComparator order;
 
-        // 根据比较方法处理值
-        switch (method.toLowerCase()) {
-            case "absolute":
-                v1 = Math.abs(value1);
-                v2 = Math.abs(value2);
-                break;
-            case "reverse":
-                // 反向比较：交换比较逻辑
-                if (ascending) {
-                    return Double.compare(value2, value1);
-                } else {
-                    return Double.compare(value1, value2);
-                }
+        IntegerComparator(NumericComparator order) {
+            this.order = order;
         }
 
-        // 正常比较
-        if (ascending) {
-            return Double.compare(v1, v2);
-        } else {
-            return Double.compare(v2, v1);
+        @Override
+        public int compare(Object a, Object b) {
+            return order.compareInt((Integer) a, (Integer) b);
         }
     }
 
-    //对字符串比较进行处理（Person：name）
-    private static int compareValues(String value1, String value2, boolean ascending, String method) {
-        // 根据比较方法处理值
-        switch (method.toLowerCase()) {
-            case "absolute":
-            case "reverse":
-                // 反向比较：交换比较逻辑
-                if (ascending) {
-                    return CharSequence.compare(value2, value1);
-                } else {
-                    return CharSequence.compare(value1, value2);
-                }
+    /**
+     * Person 数值字段比较器
+     */
+    private static final class PersonFieldComparator implements Comparator<Object> {
+        private final ToDoubleFunction<Person> field;
+        private final NumericComparator order;
+
+        PersonFieldComparator(ToDoubleFunction<Person> field, NumericComparator order) {
+            this.field = field;
+            this.order = order;
         }
 
-        // 正常比较
-        if (ascending) {
-            return CharSequence.compare(value1, value2);
-        } else {
-            return CharSequence.compare(value2, value1);
+        @Override
+        public int compare(Object a, Object b) {
+            return order.compareDouble(field.applyAsDouble((Person) a), field.applyAsDouble((Person) b));
         }
     }
 
     /**
-     * 将对象转换为double
+     * Person 姓名比较器
      */
-    private static double convertToDouble(Object obj) {
-        if (obj instanceof Integer) {
-            return ((Integer) obj).doubleValue();
-        } else if (obj instanceof Double) {
-            return (Double) obj;
-        } else if (obj instanceof Float) {
-            return ((Float) obj).doubleValue();
-        } else if (obj instanceof Long) {
-            return ((Long) obj).doubleValue();
-        } else if (obj instanceof String) {
-            try {
-                return Double.parseDouble((String) obj);
-            } catch (NumberFormatException e) {
-                return 0;
-            }
-        } else {
-            return 0;
+    private static final class PersonNameComparator implements Comparator<Object> {
+        private final boolean forward;
+
+        PersonNameComparator(boolean forward) {
+            this.forward = forward;
         }
-    }
 
-    /**
-     * 从 Person 对象中获取指定字段的数值（用于排序比较）
-     */
-    private static double getPersonFieldValue(Person person, String field) {
-        if (field == null) return 0;
-        return switch (field.toLowerCase()) {
-            case "id" -> (double) person.getId();
-            case "age" -> person.getAge() != null ? (double) person.getAge() : 0;
-            case "score" -> person.getScore() != null ? person.getScore() : 0;
-            case "email" -> person.getEmail() != null ? person.getEmail().hashCode() : 0;
-            case "name" -> person.getName() != null ? person.getName().hashCode() : 0;
-            default -> 0;
-        };
+        @Override
+        public int compare(Object a, Object b) {
+            String name1 = ((Person) a).getName();
+            String name2 = ((Person) b).getName();
+            return forward ? CharSequence.compare(name1, name2) : CharSequence.compare(name2, name1);
+        }
     }
-}
\ No newline at end of file
+}
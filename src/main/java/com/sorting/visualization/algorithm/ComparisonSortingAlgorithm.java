@@ -0,0 +1,29 @@
+package com.sorting.visualization.algorithm;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 基于比较的排序算法：排序顺序由通用比较器决定
+ *
+ * @param <T> 数据类型
+ */
+public interface ComparisonSortingAlgorithm<T> extends SortingAlgorithm<T> {
+
+    /**
+     * 教学模式：执行排序，步骤记录到以输入数据创建的 timeline 中
+     */
+    TeachingResult<T> teach(StepTimeline<T> timeline, Comparator<T> comparator);
+
+    /**
+     * 教学模式：以 data 新建时间线执行排序并返回步骤时间线
+     */
+    default TeachingResult<T> teach(List<T> data, Comparator<T> comparator) {
+        return teach(new StepTimeline<>(data), comparator);
+    }
+
+    /**
+     * 性能模式：执行排序并返回结果
+     */
+    PerformanceResult<T> perform(List<T> data, Comparator<T> comparator);
+}
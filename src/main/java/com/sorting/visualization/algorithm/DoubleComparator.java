@@ -0,0 +1,10 @@
+package com.sorting.visualization.algorithm;
+
+/**
+ * double 专用比较器（避免装箱与类型判断）
+ */
+@FunctionalInterface
+public interface DoubleComparator {
+
+    int compare(double a, double b);
+}
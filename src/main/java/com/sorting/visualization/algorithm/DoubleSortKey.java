@@ -0,0 +1,11 @@
+package com.sorting.visualization.algorithm;
+
+/**
+ * double 排序键：把 double 映射为按<b>无符号</b>顺序比较即符合目标排序顺序的 long 键，
+ * 供基数排序等非比较排序使用
+ */
+@FunctionalInterface
+public interface DoubleSortKey {
+
+    long key(double value);
+}
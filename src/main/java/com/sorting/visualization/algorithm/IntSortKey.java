@@ -0,0 +1,11 @@
+package com.sorting.visualization.algorithm;
+
+/**
+ * int 排序键：把 int 映射为按<b>无符号</b>顺序比较即符合目标排序顺序的键，
+ * 供基数排序等非比较排序使用
+ */
+@FunctionalInterface
+public interface IntSortKey {
+
+    int key(int value);
+}
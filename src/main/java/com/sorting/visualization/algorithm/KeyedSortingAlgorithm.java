@@ -0,0 +1,44 @@
+package com.sorting.visualization.algorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 按排序键工作的非比较排序（基数排序等）：排序顺序完全由键变换决定，不使用比较器
+ */
+public interface KeyedSortingAlgorithm extends SortingAlgorithm<Number> {
+
+    /**
+     * 教学模式：按 int 排序键排序，步骤记录到以 Integer 输入数据创建的 timeline 中
+     */
+    TeachingResult<Number> teachInt(StepTimeline<Number> timeline, IntSortKey key);
+
+    /**
+     * 教学模式：按 int 排序键排序并返回所有步骤
+     */
+    default TeachingResult<Number> teachInt(List<Integer> data, IntSortKey key) {
+        return teachInt(new StepTimeline<>(new ArrayList<Number>(data)), key);
+    }
+
+    /**
+     * 性能模式：按 int 排序键对 int[] 原地排序
+     */
+    PerformanceResult<Integer> performInt(int[] data, IntSortKey key);
+
+    /**
+     * 教学模式：按 double 排序键排序，步骤记录到以 Double 输入数据创建的 timeline 中
+     */
+    TeachingResult<Number> teachDouble(StepTimeline<Number> timeline, DoubleSortKey key);
+
+    /**
+     * 教学模式：按 double 排序键排序并返回所有步骤
+     */
+    default TeachingResult<Number> teachDouble(List<Double> data, DoubleSortKey key) {
+        return teachDouble(new StepTimeline<>(new ArrayList<Number>(data)), key);
+    }
+
+    /**
+     * 性能模式：按 double 排序键对 double[] 原地排序
+     */
+    PerformanceResult<Double> performDouble(double[] data, DoubleSortKey key);
+}
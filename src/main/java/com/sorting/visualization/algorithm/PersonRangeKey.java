@@ -0,0 +1,30 @@
+package com.sorting.visualization.algorithm;
+
+import com.sorting.visualization.model.Person;
+
+/**
+ * Person 有界数值字段的排序键（计数排序 / 桶排序使用）
+ * <p>
+ * 字段取值由 DataValidator 保证落在 [min, max] 内：age 为整数，可直接计数；score 为浮点数，按区间分桶。
+ *
+ * @param field     排序字段（age / score）
+ * @param ascending 是否升序（已合并 reverse 方法）
+ * @param min       字段下界
+ * @param max       字段上界
+ */
+public record PersonRangeKey(String field, boolean ascending, double min, double max) {
+
+    /**
+     * 字段是否为整数（整数字段使用计数排序，否则使用桶排序）
+     */
+    public boolean integral() {
+        return "age".equals(field);
+    }
+
+    /**
+     * 读取字段值
+     */
+    public double value(Person person) {
+        return integral() ? person.getAge() : person.getScore();
+    }
+}
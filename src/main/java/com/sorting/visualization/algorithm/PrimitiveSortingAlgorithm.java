@@ -0,0 +1,20 @@
+package com.sorting.visualization.algorithm;
+
+import com.sorting.visualization.algorithm.SortingAlgorithm.PerformanceResult;
+
+/**
+ * 原始类型排序内核：性能模式下 INTEGER / DOUBLE 数据直接在 int[] / double[] 上排序，
+ * 不经过装箱列表与通用比较器
+ */
+public interface PrimitiveSortingAlgorithm {
+
+    /**
+     * 性能模式：对 int[] 原地排序
+     */
+    PerformanceResult<Integer> performInt(int[] data, IntComparator comparator);
+
+    /**
+     * 性能模式：对 double[] 原地排序
+     */
+    PerformanceResult<Double> performDouble(double[] data, DoubleComparator comparator);
+}
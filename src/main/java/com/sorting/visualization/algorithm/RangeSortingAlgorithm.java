@@ -0,0 +1,28 @@
+package com.sorting.visualization.algorithm;
+
+import com.sorting.visualization.model.Person;
+
+import java.util.List;
+
+/**
+ * 按有界字段分配的线性时间排序（计数排序 / 桶排序）：排序顺序由 {@link PersonRangeKey} 决定，不使用比较器
+ */
+public interface RangeSortingAlgorithm extends SortingAlgorithm<Person> {
+
+    /**
+     * 教学模式：按有界字段排序，步骤记录到以输入数据创建的 timeline 中
+     */
+    TeachingResult<Person> teachPerson(StepTimeline<Person> timeline, PersonRangeKey key);
+
+    /**
+     * 教学模式：按有界字段排序并返回所有步骤
+     */
+    default TeachingResult<Person> teachPerson(List<Person> data, PersonRangeKey key) {
+        return teachPerson(new StepTimeline<>(data), key);
+    }
+
+    /**
+     * 性能模式：按有界字段排序
+     */
+    PerformanceResult<Person> performPerson(List<Person> data, PersonRangeKey key);
+}
@@ -0,0 +1,84 @@
+package com.sorting.visualization.algorithm;
+
+/**
+ * 单次排序运行的执行上下文
+ * <p>
+ * 比较/交换计数、计时与步骤时间线都保存在这里，每次 teach / perform 调用各自创建一个，
+ * 算法实例本身不持有可变状态，可被多个会话并发复用；运行结束后上下文随结果一起释放。
+ *
+ * @param <T> 数据类型
+ */
+public class SortContext<T> {
+
+    private final boolean teaching;
+    private final long startTime;
+    private final StepTimeline<T> timeline;
+    private long comparisons = 0;
+    private long swaps = 0;
+
+    private SortContext(boolean teaching, StepTimeline<T> timeline) {
+        this.teaching = teaching;
+        this.timeline = timeline;
+        this.startTime = teaching ? System.currentTimeMillis() : System.nanoTime();
+    }
+
+    /**
+     * 教学模式上下文（毫秒计时，步骤记录到调用方给出的时间线）
+     */
+    public static <T> SortContext<T> forTeaching(StepTimeline<T> timeline) {
+        return new SortContext<>(true, timeline);
+    }
+
+    /**
+     * 性能模式上下文（纳秒计时，不记录步骤）
+     */
+    public static <T> SortContext<T> forPerformance() {
+        return new SortContext<>(false, null);
+    }
+
+    /**
+     * 记录比较操作
+     */
+    public void recordComparison() {
+        comparisons++;
+    }
+
+    /**
+     * 记录交换（移动）操作
+     */
+    public void recordSwap() {
+        swaps++;
+    }
+
+    public long getComparisons() {
+        return comparisons;
+    }
+
+    public long getSwaps() {
+        return swaps;
+    }
+
+    /**
+     * 教学模式的比较次数：教学数据量受 max-teaching-size 限制，步骤统计按 int 存储
+     */
+    public int getTeachingComparisons() {
+        return Math.toIntExact(comparisons);
+    }
+
+    public int getTeachingSwaps() {
+        return Math.toIntExact(swaps);
+    }
+
+    public StepTimeline<T> getTimeline() {
+        return timeline;
+    }
+
+    /**
+     * 已用时间：教学模式为毫秒，性能模式为微秒
+     */
+    public long getElapsedTime() {
+        return teaching
+                ? System.currentTimeMillis() - startTime
+                : (System.nanoTime() - startTime) / 1000;
+    }
+}
@@ -1,28 +1,19 @@
 package com.sorting.visualization.algorithm;
 
-import com.sorting.visualization.model.response.StepUpdate;
 import lombok.Data;
 
-import java.util.Comparator;
 import java.util.List;
 
 /**
- * 排序算法接口
+ * 排序算法接口：只描述算法本身（名称、复杂度、稳定性、支持的数据类型）
+ * <p>
+ * 排序入口按算法种类由子接口提供：比较排序见 {@link ComparisonSortingAlgorithm}，
+ * 按排序键的非比较排序见 {@link KeyedSortingAlgorithm}，按有界字段分配的排序见 {@link RangeSortingAlgorithm}。
  *
  * @param <T> 数据类型
  */
 public interface SortingAlgorithm<T> {
 
-    /**
-     * 教学模式：执行排序并返回所有步骤
-     */
-    TeachingResult<T> teach(List<T> data, Comparator<T> comparator);
-
-    /**
-     * 性能模式：执行排序并返回结果
-     */
-    PerformanceResult<T> perform(List<T> data, Comparator<T> comparator);
-
     /**
      * 获取算法名称
      */
@@ -48,9 +39,16 @@ public interface SortingAlgorithm<T> {
      */
     boolean supportsDataType(Class<?> dataType);
 
+    /**
+     * 预估教学模式的步骤数（随机数据），在步骤生成完成前作为总步数显示
+     */
+    default long estimateTeachingSteps(int size) {
+        return size <= 1 ? 2 : (long) (2 * size * (Math.log(size) / Math.log(2)));
+    }
+
     @Data
     class TeachingResult<T> {
-        private List<StepUpdate> steps;          // 所有步骤
+        private StepTimeline<T> timeline;        // 步骤时间线（操作日志 + 关键帧）
         private List<T> sortedData;              // 排序后的数据
         private Integer totalComparisons;        // 总比较次数
         private Integer totalSwaps;              // 总交换次数
@@ -60,8 +58,8 @@ public interface SortingAlgorithm<T> {
     @Data
     class PerformanceResult<T> {
         private List<T> sortedData;              // 排序后的数据
-        private Integer comparisons;             // 比较次数
-        private Integer swaps;                   // 交换次数
+        private Long comparisons;                // 比较次数
+        private Long swaps;                      // 交换次数
         private Long time;                       // 运行时间
     }
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.sorting.visualization.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * 正在记录的步骤描述：模板加原始类型参数，由时间线复用，记录时复制进时间线的参数池
+ * <p>
+ * 参数按模板中占位符的顺序追加：{@code %d} 用 {@link #arg}，{@code %f} 用 {@link #decimal}，
+ * {@code %s} 用 {@link #value}（只保存引用，发送时才调用 toString）。
+ */
+public final class StepDescription {
+
+    private StepMessage message;
+    private long[] numbers = new long[8];
+    private int numberCount;
+    private Object[] values = new Object[4];
+    private int valueCount;
+
+    StepDescription reset(StepMessage message) {
+        this.message = message;
+        Arrays.fill(values, 0, valueCount, null);
+        numberCount = 0;
+        valueCount = 0;
+        return this;
+    }
+
+    /**
+     * 整数参数（{@code %d}）
+     */
+    public StepDescription arg(long number) {
+        if (numberCount == numbers.length) {
+            numbers = Arrays.copyOf(numbers, numberCount * 2);
+        }
+        numbers[numberCount++] = number;
+        return this;
+    }
+
+    /**
+     * 浮点参数（{@code %f}）
+     */
+    public StepDescription decimal(double number) {
+        return arg(Double.doubleToRawLongBits(number));
+    }
+
+    /**
+     * 对象参数（{@code %s}）
+     */
+    public StepDescription value(Object value) {
+        if (valueCount == values.length) {
+            values = Arrays.copyOf(values, valueCount * 2);
+        }
+        values[valueCount++] = value;
+        return this;
+    }
+
+    StepMessage getMessage() {
+        return message;
+    }
+
+    long[] getNumbers() {
+        return numbers;
+    }
+
+    int getNumberCount() {
+        return numberCount;
+    }
+
+    Object[] getValues() {
+        return values;
+    }
+
+    int getValueCount() {
+        return valueCount;
+    }
+}
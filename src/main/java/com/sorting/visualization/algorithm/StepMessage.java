@@ -0,0 +1,203 @@
+package com.sorting.visualization.algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 教学步骤描述模板
+ * <p>
+ * 算法记录步骤时只保存模板与参数（见 {@link StepDescription}），发送时才按会话语言渲染成文本。
+ * 占位符按出现顺序依次取参数：{@code %d} 为整数，{@code %f} 为浮点数（按 {@link Double#toString} 输出），
+ * {@code %s} 为对象（按 {@link String#valueOf(Object)} 输出，{@link Localized} 对象按同一语言渲染）。各语言的模板在类加载时预先拆分为
+ * 文本片段与占位符，渲染时只做拼接；同一模板在所有语言中的占位符序列必须一致。
+ */
+public enum StepMessage {
+
+    START("算法开始", "Algorithm started"),
+    COMPLETE("排序完成", "Sorting complete"),
+    SWAP("交换第%d个和第%d个元素", "Swap elements %d and %d"),
+    INSERT_AT("将元素[%s]插入到第%d个位置", "Insert element [%s] at position %d"),
+
+    // 冒泡排序
+    BUBBLE_PASS_START("第%d轮排序开始", "Pass %d started"),
+    BUBBLE_COMPARE("比较第%d个元素[%s]和第%d个元素[%s]", "Compare element %d [%s] with element %d [%s]"),
+    BUBBLE_IN_ORDER("元素顺序正确，无需交换", "Elements are in order, no swap needed"),
+    BUBBLE_PASS_END("第%d轮排序完成，第%d个元素已就位", "Pass %d complete, element %d is in place"),
+
+    // 插入排序
+    INSERTION_PICK("处理第%d个元素[%s]，将其插入到已排序序列中",
+            "Take element %d [%s] and insert it into the sorted part"),
+    INSERTION_COMPARE("比较当前元素[%s]和第%d个元素[%s]", "Compare current element [%s] with element %d [%s]"),
+    INSERTION_SHIFT("将第%d个元素向右移动", "Shift element %d to the right"),
+
+    // 希尔排序
+    SHELL_GAP("当前增量: %d", "Current gap: %d"),
+    SHELL_PICK("处理第%d个元素[%s]，增量序列索引: %d", "Take element %d [%s], subsequence index: %d"),
+    SHELL_COMPARE("比较当前元素[%s]和第%d个元素[%s]（距离为%d）",
+            "Compare current element [%s] with element %d [%s] (distance %d)"),
+    SHELL_SHIFT("将第%d个元素向后移动%d个位置", "Move element %d forward by %d positions"),
+    SHELL_GAP_DONE("增量%d的排序完成", "Pass with gap %d complete"),
+
+    // 堆排序
+    HEAP_BUILD_START("开始构建最大堆", "Building max heap"),
+    HEAP_BUILD_DONE("最大堆构建完成", "Max heap built"),
+    HEAP_EXTRACT("将堆顶元素(最大值)交换到末尾第%d位", "Move the heap top (maximum) to position %d"),
+    HEAP_RESIZE("重新调整堆，堆大小: %d", "Re-heapify, heap size: %d"),
+    HEAP_SIFT("调整以节点%d为根的堆", "Heapify the subtree rooted at node %d"),
+    HEAP_SWAP("交换节点%d和节点%d", "Swap node %d and node %d"),
+    HEAP_IN_PLACE("节点%d已在正确位置", "Node %d is in place"),
+
+    // 归并排序
+    MERGE_SPLIT("分解数组 [%d, %d] -> [%d, %d] 和 [%d, %d]", "Split [%d, %d] -> [%d, %d] and [%d, %d]"),
+    MERGE_START("合并有序子数组 [%d, %d] 和 [%d, %d]", "Merge sorted subarrays [%d, %d] and [%d, %d]"),
+    MERGE_COMPARE("比较左子数组第%d个元素[%s]和右子数组第%d个元素[%s]",
+            "Compare left element %d [%s] with right element %d [%s]"),
+    MERGE_TAKE_LEFT("取左子数组元素[%s]", "Take left element [%s]"),
+    MERGE_TAKE_RIGHT("取右子数组元素[%s]", "Take right element [%s]"),
+    MERGE_COPY_LEFT("复制左子数组剩余元素[%s]", "Copy remaining left element [%s]"),
+    MERGE_COPY_RIGHT("复制右子数组剩余元素[%s]", "Copy remaining right element [%s]"),
+    MERGE_DONE("合并完成，范围 [%d, %d] 已有序", "Merge complete, range [%d, %d] is sorted"),
+
+    // 快速排序
+    QUICK_RANGE("快速排序子数组 [%d, %d]", "Quick sort subarray [%d, %d]"),
+    QUICK_TO_INSERTION("子数组长度不超过%d，改用插入排序", "Subarray length at most %d, switching to insertion sort"),
+    QUICK_TO_HEAP("递归深度达到上限，改用堆排序", "Recursion depth limit reached, switching to heap sort"),
+    QUICK_PIVOT("选择基准元素: 第%d个元素[%s]", "Pivot: element %d [%s]"),
+    QUICK_LEFT_COMPARE("左指针: 比较第%d个元素[%s]和基准元素[%s]",
+            "Left pointer: compare element %d [%s] with pivot [%s]"),
+    QUICK_RIGHT_COMPARE("右指针: 比较第%d个元素[%s]和基准元素[%s]",
+            "Right pointer: compare element %d [%s] with pivot [%s]"),
+    QUICK_PARTITIONED("分区完成: [%d, %d] 不大于基准, [%d, %d] 不小于基准",
+            "Partition done: [%d, %d] <= pivot, [%d, %d] >= pivot"),
+    QUICK_MEDIAN3("三数取中: 比较第%d、%d、%d个元素", "Median of three: compare elements %d, %d, %d"),
+    QUICK_NINTHER("九数取中: 取三组三数中值，再取它们的中值", "Ninther: take the median of three medians of three"),
+    QUICK_INSERTION_COMPARE("比较元素[%s]和第%d个元素[%s]", "Compare element [%s] with element %d [%s]"),
+
+    // 三路快速排序
+    THREE_WAY_RANGE("三路划分子数组 [%d, %d]", "Three-way partition subarray [%d, %d]"),
+    THREE_WAY_PIVOT("选择基准元素: 第%d个元素[%s]", "Pivot: element %d [%s]"),
+    THREE_WAY_COMPARE("比较第%d个元素[%s]和基准元素[%s]", "Compare element %d [%s] with pivot [%s]"),
+    THREE_WAY_LESS("小于基准: 交换第%d个和第%d个元素，放入左段",
+            "Less than pivot: swap elements %d and %d into the left part"),
+    THREE_WAY_GREATER("大于基准: 交换第%d个和第%d个元素，放入右段",
+            "Greater than pivot: swap elements %d and %d into the right part"),
+    THREE_WAY_DONE("划分完成: 等于基准的区间 [%d, %d] 已就位",
+            "Partition done: range [%d, %d] equal to the pivot is in place"),
+
+    // 基数排序
+    RADIX_SKIP("第%d趟（第%d字节）：所有键该字节相同，跳过本趟", "Pass %d (byte %d): all keys share this byte, skipped"),
+    RADIX_COUNT("第%d趟（第%d字节）：统计各桶元素个数 %s", "Pass %d (byte %d): bucket counts %s"),
+    RADIX_BUCKET("桶%d=%d", "bucket %d=%d"),  // RADIX_COUNT 中每个非空桶的计数
+    RADIX_DISTRIBUTE("第%d个元素[%s]的键第%d字节为 %d，放入桶 %d（目标位置 %d）",
+            "Element %d [%s]: key byte %d is %d, goes to bucket %d (target position %d)"),
+    RADIX_COLLECT("收集桶 %d：%d 个元素放回位置 [%d, %d]", "Collect bucket %d: %d elements back to positions [%d, %d]"),
+
+    // 计数排序 / 桶排序
+    COUNTING_COUNT("第%d个元素 %s=%d，计数[%d] 加一", "Element %d %s=%d, count[%d] += 1"),
+    COUNTING_PREFIX_SUM("对各计数做前缀和，得到每组在结果中的起始位置",
+            "Prefix-sum the counts to get the start position of each group"),
+    COUNTING_PLACE("%s=%d 的 %d 个元素按原顺序放到位置 [%d, %d]",
+            "%s=%d: %d elements placed in original order at positions [%d, %d]"),
+    BUCKET_DISTRIBUTE("第%d个元素 %s=%f，落入桶 %d", "Element %d %s=%f falls into bucket %d"),
+    BUCKET_PREFIX_SUM("对各桶做前缀和，得到每组在结果中的起始位置",
+            "Prefix-sum the buckets to get the start position of each group"),
+    BUCKET_PLACE("桶 %d 的 %d 个元素按原顺序放到位置 [%d, %d]",
+            "Bucket %d: %d elements placed in original order at positions [%d, %d]"),
+    BUCKET_COMPARE("桶内比较第%d个元素和第%d个元素", "Compare elements %d and %d within the bucket"),
+    BUCKET_SWAP("桶内交换第%d个元素和第%d个元素", "Swap elements %d and %d within the bucket");
+
+    /**
+     * 步骤描述语言
+     */
+    public enum Language {
+        ZH, EN;
+
+        /**
+         * 按请求中的语言代码（如 zh、zh-CN、en、en-US）解析，未指定或无法识别时为中文
+         */
+        public static Language fromCode(String code) {
+            if (code != null && code.toLowerCase().startsWith("en")) {
+                return EN;
+            }
+            return ZH;
+        }
+    }
+
+    /**
+     * 需要按会话语言渲染的 {@code %s} 参数（如由其他模板拼成的列表），同样在发送时才渲染
+     */
+    public interface Localized {
+        String render(Language language);
+    }
+
+    /** 各语言的文本片段：literals[lang][k] 位于第 k 个占位符之前，最后一段位于末尾 */
+    private final String[][] literals;
+
+    /** 占位符类型序列（'d' / 'f' / 's'），各语言相同 */
+    private final char[] kinds;
+
+    StepMessage(String zh, String en) {
+        String[] patterns = {zh, en};
+        this.literals = new String[patterns.length][];
+        char[] first = null;
+        for (int lang = 0; lang < patterns.length; lang++) {
+            List<String> parts = new ArrayList<>();
+            StringBuilder kindSeq = new StringBuilder();
+            parse(patterns[lang], parts, kindSeq);
+            char[] langKinds = kindSeq.toString().toCharArray();
+            if (first != null && !Arrays.equals(first, langKinds)) {
+                throw new IllegalArgumentException("步骤模板各语言的占位符不一致: " + name());
+            }
+            first = langKinds;
+            literals[lang] = parts.toArray(new String[0]);
+        }
+        this.kinds = first;
+    }
+
+    private static void parse(String pattern, List<String> parts, StringBuilder kindSeq) {
+        int from = 0;
+        for (int i = 0; i < pattern.length() - 1; i++) {
+            char next = pattern.charAt(i + 1);
+            if (pattern.charAt(i) == '%' && (next == 'd' || next == 'f' || next == 's')) {
+                parts.add(pattern.substring(from, i));
+                kindSeq.append(next);
+                from = i + 2;
+                i++;
+            }
+        }
+        parts.add(pattern.substring(from));
+    }
+
+    /**
+     * 按指定语言渲染：整数与浮点参数从 numbers[numberFrom..] 依次读取（浮点为原始位），
+     * 对象参数从 values[valueFrom..] 依次读取
+     */
+    String render(Language language, long[] numbers, int numberFrom, Object[] values, int valueFrom) {
+        String[] parts = literals[language.ordinal()];
+        if (kinds.length == 0) {
+            return parts[0];
+        }
+        StringBuilder sb = new StringBuilder(parts[0].length() + kinds.length * 8);
+        sb.append(parts[0]);
+        for (int k = 0; k < kinds.length; k++) {
+            switch (kinds[k]) {
+                case 'd' -> sb.append(numbers[numberFrom++]);
+                case 'f' -> sb.append(Double.longBitsToDouble(numbers[numberFrom++]));
+                default -> {
+                    Object value = values[valueFrom++];
+                    sb.append(value instanceof Localized localized ? localized.render(language) : value);
+                }
+            }
+            sb.append(parts[k + 1]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 按指定语言渲染只含 {@code %d} 占位符的模板，供 {@link Localized} 参数拼接片段
+     */
+    public String format(Language language, long... numbers) {
+        return render(language, numbers, 0, null, 0);
+    }
+}
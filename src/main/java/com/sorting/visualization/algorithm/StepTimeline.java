@@ -0,0 +1,613 @@
+package com.sorting.visualization.algorithm;
+
+import com.sorting.visualization.model.Highlight;
+import com.sorting.visualization.model.response.StepUpdate;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * 教学模式的步骤时间线
+ * <p>
+ * 不为每一步保存完整数组，而是记录一份操作日志（set i←v / swap i,j），每步只记下日志位置、
+ * 高亮、描述与统计；比较操作不改变数组，体现在该步的高亮中。每累计约 n 条操作保存一次关键帧，
+ * 任意一步都可以从最近的关键帧重放不超过约 n 条操作还原，完整快照只在真正发送该步时生成。
+ * 内存占用为 O(操作数 + 步数)，而不是 O(n × 步数)。
+ * <p>
+ * 步骤描述同样只记录模板与参数（见 {@link StepMessage}），发送该步时才按 {@link #setLanguage} 设置的语言渲染，
+ * 被停止或跳过而从未发送的步骤不产生任何字符串。
+ * <p>
+ * 时间线同时是生产者（排序线程）与消费者（播放调度器）之间的缓冲区：生产者最多领先消费者请求的步骤
+ * {@code bufferSteps} 步，超出时不阻塞等待，而是在 addStep 中结束本次运行、归还线程（{@link #produce} 返回 null），
+ * 暂停或慢速播放的会话既不占用线程，也不会把整个排序提前生成出来。消费者通过 {@link #pollStep} 取已生成的步骤，
+ * 不会阻塞；缓冲消耗过半后由 {@link #claimResume} 通知调用方重新提交生产者。
+ * <p>
+ * 重新提交的生产者从头运行排序：教学排序对同一输入确定地产生同一串步骤，已记录的步骤只在副本数组上重放、
+ * 不重复记录，追上后接着记录新步骤。每次运行允许领先的步数不少于已生成的步数，重放的总量不超过生成的总量。
+ * 取消后生产者在下一次 addStep 时抛出 {@link CancellationException} 结束排序，STOP 之后不再生成剩余的步骤。
+ *
+ * @param <T> 数据类型
+ */
+public class StepTimeline<T> {
+
+    /** 关键帧之间的最少操作数 */
+    private static final int MIN_KEYFRAME_OPS = 64;
+
+    /** opOther 取该值表示 set 操作 */
+    private static final int SET = -1;
+
+    private final int size;
+    private final int keyframeOps;
+
+    // 写入端：最近一步之后的数组状态；track() 返回的列表读写 work，追上已记录的步骤后 work 即为 state
+    private final Object[] state;
+    private Object[] work;
+    private final TrackedList tracked = new TrackedList();
+
+    // 操作日志：set 为 (index, SET, value)，swap 为 (i, j, null)
+    private int[] opIndex = new int[16];
+    private int[] opOther = new int[16];
+    private Object[] opValue = new Object[16];
+    private int opCount;
+
+    // 每步记录
+    private int[] stepOpEnd = new int[16];
+    private int[] stepComparisons = new int[16];
+    private int[] stepSwaps = new int[16];
+    private long[] stepTime = new long[16];
+    private int[] stepHighlight = new int[16];
+    private StepMessage[] messages = new StepMessage[16];
+    private int[] stepNumberEnd = new int[16];
+    private int[] stepValueEnd = new int[16];
+    private int stepCount;
+
+    // 高亮池：第 k 步的高亮编码（见 Highlight#encode）从 stepHighlight[k] 开始，与上一步相同时共用一份
+    private int[] highlightPool = new int[64];
+    private int highlightCount;
+
+    // 描述参数池：第 k 步的参数为 [上一步的结束位置, 本步的结束位置)
+    private long[] numberArgs = new long[16];
+    private int numberArgCount;
+    private Object[] valueArgs = new Object[16];
+    private int valueArgCount;
+
+    // 生产者复用的描述写入器
+    private final StepDescription description = new StepDescription();
+    private StepMessage.Language language = StepMessage.Language.ZH;
+
+    // 关键帧：按步号递增
+    private final List<Keyframe> keyframes = new ArrayList<>();
+
+    // 读取游标：最近一次还原的状态与对应的日志位置，顺序播放时只需向前重放
+    private Object[] cursorState;
+    private int cursorOp = -1;
+
+    // 增量消息去重用：touchedMark[i] == touchedStamp 表示位置 i 已计入本次变化
+    private int[] touchedMark;
+    private int touchedStamp;
+
+    // 生产者 / 消费者协调，均由 this 的监视器保护
+    private int bufferSteps = Integer.MAX_VALUE;
+    private int demand;
+    private long estimatedSteps;
+    private boolean completed;
+    private boolean suspended;
+    private boolean cancelled;
+    private Throwable failure;
+
+    // 当前这次运行：已经过的步数、允许领先的步数、记录时间的修正量（扣除重放已记录步骤所用的时间）
+    private int runSteps;
+    private long runLead = Integer.MAX_VALUE;
+    private long timeShift;
+
+    private record Keyframe(int step, int opOffset, Object[] snapshot) {
+    }
+
+    /**
+     * 以输入数据创建时间线，由调用方经 {@link SortContext#forTeaching} 交给教学排序，排序开始前即可交给播放端
+     */
+    public StepTimeline(List<T> initialData) {
+        this.size = initialData.size();
+        this.state = initialData.toArray();
+        this.work = state;
+        this.keyframeOps = Math.max(size, MIN_KEYFRAME_OPS);
+        keyframes.add(new Keyframe(-1, 0, state.clone()));
+    }
+
+    /**
+     * 生产者最多领先消费者请求的步骤多少步
+     */
+    public synchronized void setBufferSteps(int bufferSteps) {
+        this.bufferSteps = Math.max(1, bufferSteps);
+    }
+
+    /**
+     * 执行一次生产：从头运行教学排序 task（步骤记录到本时间线），已记录的步骤只重放。
+     * 领先消费者达到上限时本次运行中途结束并返回 null，归还当前线程
+     */
+    public <R> R produce(Supplier<R> task) {
+        beginRun();
+        try {
+            return task.get();
+        } catch (Yield e) {
+            return null;
+        }
+    }
+
+    private synchronized void beginRun() {
+        suspended = false;
+        runSteps = 0;
+        runLead = Math.max(bufferSteps, stepCount);
+        work = stepCount == 0 ? state : keyframes.get(0).snapshot().clone();
+    }
+
+    /**
+     * 生产者已让出线程、且领先消费者请求的步骤不到缓冲的一半时返回 true（只返回一次），
+     * 调用方随后重新提交生产者；提交被拒绝时调用 {@link #resumeRejected}
+     */
+    public synchronized boolean claimResume() {
+        if (!suspended || cancelled || stepCount - 1L - demand > bufferSteps / 2) {
+            return false;
+        }
+        suspended = false;
+        return true;
+    }
+
+    /**
+     * 重新提交生产者被拒绝：保持让出状态，下次 {@link #claimResume} 时再试
+     */
+    public synchronized void resumeRejected() {
+        suspended = true;
+    }
+
+    /**
+     * 生成完成前对总步数的预估
+     */
+    public synchronized void setEstimatedSteps(long estimatedSteps) {
+        this.estimatedSteps = estimatedSteps;
+    }
+
+    /**
+     * 步骤描述的渲染语言
+     */
+    public synchronized void setLanguage(StepMessage.Language language) {
+        this.language = language;
+    }
+
+    /**
+     * 开始记录一条步骤描述（只供生产者线程使用，写入器在下一次调用时复用）
+     */
+    public StepDescription describe(StepMessage message) {
+        return description.reset(message);
+    }
+
+    /**
+     * 记录写操作的工作数组（初始内容为输入数据），算法对它的 set 直接写入操作日志
+     */
+    public List<T> track() {
+        return tracked;
+    }
+
+    /**
+     * 记录一步：data 为时间线自身的工作数组时直接使用已记录的操作，
+     * 否则与上一步状态逐项比较，把变化的位置记为 set 操作。已取消时抛出 {@link CancellationException}；
+     * 记录后已领先消费者请求的步骤超过本次运行允许的步数时结束本次运行
+     */
+    public synchronized void addStep(List<T> data, Highlight highlight, StepDescription description,
+                                     int comparisons, int swaps, long time) {
+        if (cancelled) {
+            throw new CancellationException("步骤生成已取消");
+        }
+        if (replay(data, time)) {
+            return;
+        }
+        record(data, highlight, description, comparisons, swaps, time + timeShift);
+        if (stepCount > demand + runLead) {
+            suspended = true;
+            throw Yield.INSTANCE;
+        }
+    }
+
+    /**
+     * 记录最后一步并标记生成完成；两者在同一临界区内，消费者取到最后一步时总步数已是准确值
+     */
+    public synchronized void addFinalStep(List<T> data, Highlight highlight, StepDescription description,
+                                          int comparisons, int swaps, long time) {
+        runSteps++;
+        completed = true;
+        record(data, highlight, description, comparisons, swaps, time + timeShift);
+        trimToSize();
+    }
+
+    /**
+     * 最后一步记录的已用时间（不含重放已记录步骤的时间）
+     */
+    public synchronized long getLastStepTime() {
+        return stepCount == 0 ? 0 : stepTime[stepCount - 1];
+    }
+
+    /**
+     * 本次运行仍在重放已记录的步骤时只更新副本数组并返回 true；重放到已记录的最后一步时核对状态，
+     * 之后的写入直接记录到操作日志
+     */
+    private boolean replay(List<T> data, long time) {
+        if (runSteps++ >= stepCount) {
+            return false;
+        }
+        if (data != tracked) {
+            for (int i = 0; i < size; i++) {
+                work[i] = data.get(i);
+            }
+        }
+        if (runSteps == stepCount) {
+            if (!Arrays.equals(work, state)) {
+                throw new IllegalStateException("教学排序重放的结果与已记录的步骤不一致");
+            }
+            work = state;
+            timeShift = stepTime[stepCount - 1] - time;
+        }
+        return true;
+    }
+
+    /**
+     * 生成完成后按实际大小收缩各数组，时间线在播放期间常驻内存，不保留扩容留下的空位
+     */
+    private void trimToSize() {
+        opIndex = Arrays.copyOf(opIndex, opCount);
+        opOther = Arrays.copyOf(opOther, opCount);
+        opValue = Arrays.copyOf(opValue, opCount);
+        stepOpEnd = Arrays.copyOf(stepOpEnd, stepCount);
+        stepComparisons = Arrays.copyOf(stepComparisons, stepCount);
+        stepSwaps = Arrays.copyOf(stepSwaps, stepCount);
+        stepTime = Arrays.copyOf(stepTime, stepCount);
+        stepHighlight = Arrays.copyOf(stepHighlight, stepCount);
+        messages = Arrays.copyOf(messages, stepCount);
+        stepNumberEnd = Arrays.copyOf(stepNumberEnd, stepCount);
+        stepValueEnd = Arrays.copyOf(stepValueEnd, stepCount);
+        highlightPool = Arrays.copyOf(highlightPool, highlightCount);
+        numberArgs = Arrays.copyOf(numberArgs, numberArgCount);
+        valueArgs = Arrays.copyOf(valueArgs, valueArgCount);
+    }
+
+    private void record(List<T> data, Highlight highlight, StepDescription description,
+                        int comparisons, int swaps, long time) {
+        if (data != tracked) {
+            for (int i = 0; i < size; i++) {
+                Object value = data.get(i);
+                if (value != state[i]) {
+                    state[i] = value;
+                    appendOp(i, SET, value);
+                }
+            }
+        }
+
+        if (stepCount == stepOpEnd.length) {
+            int capacity = stepCount * 2;
+            stepOpEnd = Arrays.copyOf(stepOpEnd, capacity);
+            stepComparisons = Arrays.copyOf(stepComparisons, capacity);
+            stepSwaps = Arrays.copyOf(stepSwaps, capacity);
+            stepTime = Arrays.copyOf(stepTime, capacity);
+            stepHighlight = Arrays.copyOf(stepHighlight, capacity);
+            messages = Arrays.copyOf(messages, capacity);
+            stepNumberEnd = Arrays.copyOf(stepNumberEnd, capacity);
+            stepValueEnd = Arrays.copyOf(stepValueEnd, capacity);
+        }
+        appendArgs(description);
+        stepOpEnd[stepCount] = opCount;
+        stepComparisons[stepCount] = comparisons;
+        stepSwaps[stepCount] = swaps;
+        stepTime[stepCount] = time;
+        stepHighlight[stepCount] = appendHighlight(highlight);
+        messages[stepCount] = description.getMessage();
+        stepNumberEnd[stepCount] = numberArgCount;
+        stepValueEnd[stepCount] = valueArgCount;
+
+        if (opCount - keyframes.get(keyframes.size() - 1).opOffset() >= keyframeOps) {
+            keyframes.add(new Keyframe(stepCount, opCount, state.clone()));
+        }
+        stepCount++;
+    }
+
+    /**
+     * 把高亮编码追加到高亮池，返回起始位置；与上一步的编码相同时撤回追加，共用上一步的位置
+     */
+    private int appendHighlight(Highlight highlight) {
+        int length = highlight.encodedLength();
+        if (highlightCount + length > highlightPool.length) {
+            highlightPool = Arrays.copyOf(highlightPool, Math.max(highlightPool.length * 2, highlightCount + length));
+        }
+        highlight.encode(highlightPool, highlightCount);
+        if (stepCount > 0) {
+            int previous = stepHighlight[stepCount - 1];
+            if (previous + length == highlightCount
+                    && Arrays.equals(highlightPool, previous, highlightCount, highlightPool, highlightCount, highlightCount + length)) {
+                return previous;
+            }
+        }
+        int offset = highlightCount;
+        highlightCount += length;
+        return offset;
+    }
+
+    private void appendArgs(StepDescription description) {
+        int numbers = description.getNumberCount();
+        if (numberArgCount + numbers > numberArgs.length) {
+            numberArgs = Arrays.copyOf(numberArgs, Math.max(numberArgs.length * 2, numberArgCount + numbers));
+        }
+        System.arraycopy(description.getNumbers(), 0, numberArgs, numberArgCount, numbers);
+        numberArgCount += numbers;
+
+        int values = description.getValueCount();
+        if (valueArgCount + values > valueArgs.length) {
+            valueArgs = Arrays.copyOf(valueArgs, Math.max(valueArgs.length * 2, valueArgCount + values));
+        }
+        System.arraycopy(description.getValues(), 0, valueArgs, valueArgCount, values);
+        valueArgCount += values;
+    }
+
+    /**
+     * 标记生成失败，消费者取步骤时会收到该异常
+     */
+    public synchronized void fail(Throwable cause) {
+        failure = cause;
+    }
+
+    /**
+     * 取消生成：消费者不再需要后续步骤，生产者在下一步结束
+     */
+    public synchronized void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * 已生成的步骤数
+     */
+    public synchronized int size() {
+        return stepCount;
+    }
+
+    /**
+     * 总步数：生成完成后为准确值，之前为预估值，已生成步数追上预估时按 1.25 倍上调
+     */
+    public synchronized long getTotalSteps() {
+        if (completed) {
+            return stepCount;
+        }
+        if (estimatedSteps <= stepCount) {
+            estimatedSteps = stepCount + stepCount / 4 + 1;
+        }
+        return estimatedSteps;
+    }
+
+    /**
+     * 消费者请求第 index 步（从 0 开始，不阻塞）：已生成时返回步骤消息，baseIndex 不小于 0 时尽量生成
+     * 相对第 baseIndex 步的增量消息；尚未生成时返回 null，由 {@link #isExhausted} 区分还会不会生成
+     */
+    public synchronized StepUpdate pollStep(int index, int baseIndex) {
+        if (index > demand) {
+            demand = index;
+        }
+        return index < stepCount ? getStep(index, baseIndex) : null;
+    }
+
+    /**
+     * 第 index 步是否已不会再生成（生成已结束或已取消）；生成失败时抛出 {@link CompletionException}
+     */
+    public synchronized boolean isExhausted(int index) {
+        if (index < stepCount) {
+            return false;
+        }
+        if (failure != null) {
+            throw new CompletionException(failure);
+        }
+        return completed || cancelled;
+    }
+
+    /**
+     * 生成第 index 步（从 0 开始，须已生成）的完整步骤消息
+     */
+    public synchronized StepUpdate getStep(int index) {
+        return getStep(index, -1);
+    }
+
+    /**
+     * 生成第 index 步的步骤消息：baseIndex 在 index 之前且变化位置不超过一半时为增量消息
+     * （只含相对第 baseIndex 步写过的位置及其在第 index 步的值），否则为完整快照
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized StepUpdate getStep(int index, int baseIndex) {
+        StepUpdate step = new StepUpdate();
+        step.setStep(index + 1);
+        step.setTotalSteps((int) Math.min(getTotalSteps(), Integer.MAX_VALUE));
+        List<StepUpdate.Change> changes = baseIndex >= 0 && baseIndex < index ? changesSince(baseIndex, index) : null;
+        if (changes != null) {
+            step.setBaseStep(baseIndex + 1);
+            step.setChanges(changes);
+        } else {
+            step.setData(new ArrayList<>((List<Object>) (List<?>) Arrays.asList(stateAt(index))));
+        }
+        step.setHighlight(Highlight.decode(highlightPool, stepHighlight[index]));
+
+        StepUpdate.Statistics stats = new StepUpdate.Statistics();
+        stats.setComparisons(stepComparisons[index]);
+        stats.setSwaps(stepSwaps[index]);
+        stats.setTime(stepTime[index]);
+        step.setStats(stats);
+
+        step.setDescription(describeStep(index));
+        return step;
+    }
+
+    /**
+     * 第 baseIndex 步到第 index 步之间写过的位置及其在第 index 步的值；超过一半位置时返回 null
+     */
+    private List<StepUpdate.Change> changesSince(int baseIndex, int index) {
+        int from = stepOpEnd[baseIndex];
+        int to = stepOpEnd[index];
+        if (to - from > size) {
+            return null;
+        }
+        if (touchedMark == null) {
+            touchedMark = new int[size];
+        }
+        if (++touchedStamp == 0) {
+            Arrays.fill(touchedMark, 0);
+            touchedStamp = 1;
+        }
+        int[] touched = new int[Math.min(size, 2 * (to - from))];
+        int count = 0;
+        for (int k = from; k < to; k++) {
+            count = touch(touched, count, opIndex[k]);
+            if (opOther[k] != SET) {
+                count = touch(touched, count, opOther[k]);
+            }
+            if (count > size / 2) {
+                return null;
+            }
+        }
+
+        Object[] target = stateAt(index);
+        List<StepUpdate.Change> changes = new ArrayList<>(count);
+        for (int c = 0; c < count; c++) {
+            changes.add(new StepUpdate.Change(touched[c], target[touched[c]]));
+        }
+        return changes;
+    }
+
+    private int touch(int[] touched, int count, int position) {
+        if (touchedMark[position] != touchedStamp) {
+            touchedMark[position] = touchedStamp;
+            touched[count++] = position;
+        }
+        return count;
+    }
+
+    /**
+     * 按当前语言渲染第 index 步的描述
+     */
+    private String describeStep(int index) {
+        int numberFrom = index == 0 ? 0 : stepNumberEnd[index - 1];
+        int valueFrom = index == 0 ? 0 : stepValueEnd[index - 1];
+        return messages[index].render(language, numberArgs, numberFrom, valueArgs, valueFrom);
+    }
+
+    /**
+     * 还原第 index 步的数组状态：游标在目标之前且距离不超过一个关键帧间隔时向前重放，
+     * 否则从目标之前最近的关键帧开始重放
+     */
+    private Object[] stateAt(int index) {
+        int target = stepOpEnd[index];
+        if (cursorState == null || cursorOp > target || target - cursorOp > keyframeOps) {
+            Keyframe keyframe = keyframeBefore(index);
+            cursorState = keyframe.snapshot().clone();
+            cursorOp = keyframe.opOffset();
+        }
+        for (int k = cursorOp; k < target; k++) {
+            applyOp(cursorState, k);
+        }
+        cursorOp = target;
+        return cursorState;
+    }
+
+    private Keyframe keyframeBefore(int index) {
+        int low = 0;
+        int high = keyframes.size() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (keyframes.get(mid).step() <= index) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return keyframes.get(low);
+    }
+
+    private void applyOp(Object[] target, int k) {
+        int i = opIndex[k];
+        int j = opOther[k];
+        if (j == SET) {
+            target[i] = opValue[k];
+        } else {
+            Object temp = target[i];
+            target[i] = target[j];
+            target[j] = temp;
+        }
+    }
+
+    private synchronized void appendOp(int index, int other, Object value) {
+        if (opCount == opIndex.length) {
+            int capacity = opCount * 2;
+            opIndex = Arrays.copyOf(opIndex, capacity);
+            opOther = Arrays.copyOf(opOther, capacity);
+            opValue = Arrays.copyOf(opValue, capacity);
+        }
+        opIndex[opCount] = index;
+        opOther[opCount] = other;
+        opValue[opCount] = value;
+        opCount++;
+    }
+
+    /**
+     * 让出线程的信号：沿排序调用栈抛出到 {@link #produce}，不是错误，不填充调用栈
+     */
+    private static final class Yield extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        static final Yield INSTANCE = new Yield();
+
+        private Yield() {
+            super("生产者让出线程", null, false, false);
+        }
+    }
+
+    /**
+     * 时间线的工作数组：读写 work，追上已记录的步骤后每次写入追加一条操作
+     */
+    private final class TrackedList extends AbstractList<T> implements RandomAccess, SwappableList {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            return (T) work[index];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T set(int index, T element) {
+            Object previous = work[index];
+            work[index] = element;
+            if (work == state) {
+                appendOp(index, SET, element);
+            }
+            return (T) previous;
+        }
+
+        @Override
+        public void swap(int i, int j) {
+            Object temp = work[i];
+            work[i] = work[j];
+            work[j] = temp;
+            if (work == state) {
+                appendOp(i, j, null);
+            }
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * 支持单条 swap 记录的列表
+     */
+    interface SwappableList {
+        void swap(int i, int j);
+    }
+}
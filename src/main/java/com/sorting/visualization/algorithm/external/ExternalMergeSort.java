@@ -0,0 +1,467 @@
+package com.sorting.visualization.algorithm.external;
+
+import com.sorting.visualization.algorithm.DoubleComparator;
+import com.sorting.visualization.algorithm.IntComparator;
+import com.sorting.visualization.algorithm.SortingAlgorithm.PerformanceResult;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
+
+/**
+ * 外部归并排序（INTEGER / DOUBLE）
+ * <p>
+ * 1. 从数据源依次取出不超过 runSize 个元素，用内存排序算法排好后整段写出为二进制归并段文件
+ *    （数据只有一个段时直接在内存中校验，不写文件）；
+ * 2. 每趟把至多 fanIn 个归并段用败者树做 k 路归并，段数不超过 fanIn 后做最后一趟，
+ *    最后一趟的输出只逐个校验有序并取样，不再写回磁盘。
+ * <p>
+ * 段文件通过 FileChannel 按窗口映射（MappedByteBuffer）顺序读写，堆内只保留一个内存段和各路的队首元素，
+ * 数据规模只受磁盘空间限制。所有临时文件在排序结束（包括失败）时删除。
+ * <p>
+ * 注意：JDK 没有公开的解除映射接口，映射窗口占用的虚拟内存与页缓存要等 MappedByteBuffer 被 GC 回收后才释放；
+ * 读写器关闭时只丢弃对窗口的引用。在 Windows 上仍被映射的文件无法删除，此时改为 JVM 退出时删除。
+ * <p>
+ * 每生成一个初始段前、以及归并每输出 {@value #CANCEL_CHECK_INTERVAL} 个元素检查一次取消条件与线程中断，
+ * 已取消时抛出 {@link CancellationException}。
+ */
+@Slf4j
+public class ExternalMergeSort {
+
+    /** 返回给前端的结果样本个数（结果开头的若干元素） */
+    private static final int SAMPLE_SIZE = 100;
+
+    /** 归并时检查取消的间隔（元素个数，2 的幂） */
+    private static final int CANCEL_CHECK_INTERVAL = 1 << 16;
+
+    private final Path tempDir;
+    private final int runSize;
+    private final int fanIn;
+    private final long windowBytes;
+    private final BooleanSupplier cancelled;
+
+    /**
+     * @param tempDir     段文件目录
+     * @param runSize     内存段元素个数
+     * @param fanIn       每次归并的最大路数
+     * @param windowBytes 读写映射窗口大小（字节）
+     * @param cancelled   取消条件（停止请求、会话关闭等）
+     */
+    public ExternalMergeSort(Path tempDir, int runSize, int fanIn, long windowBytes, BooleanSupplier cancelled) {
+        this.tempDir = tempDir;
+        this.cancelled = cancelled;
+        this.runSize = runSize;
+        this.fanIn = Math.max(2, fanIn);
+        // 窗口对齐到 8 字节，保证 int / double 元素不会跨窗口
+        this.windowBytes = Math.max(Double.BYTES, windowBytes / Double.BYTES * Double.BYTES);
+    }
+
+    /**
+     * 内存段排序（原地排序 int[]）
+     */
+    @FunctionalInterface
+    public interface IntRunSorter {
+        PerformanceResult<Integer> sort(int[] run);
+    }
+
+    /**
+     * 内存段排序（原地排序 double[]）
+     */
+    @FunctionalInterface
+    public interface DoubleRunSorter {
+        PerformanceResult<Double> sort(double[] run);
+    }
+
+    @Data
+    public static class Result {
+        private long elements;                   // 元素总数
+        private int runs;                        // 初始归并段个数
+        private int mergePasses;                 // 归并趟数
+        private long ioBytes;                    // 段文件读写字节数
+        private long comparisons;                // 比较次数（段内排序 + 归并）
+        private long moves;                      // 移动次数（段内排序 + 归并输出）
+        private long time;                       // 排序耗时（微秒，不含数据生成）
+        private boolean sorted = true;           // 最终结果是否有序（归并输出时逐个校验）
+        private List<Object> sample = new ArrayList<>();  // 结果开头的样本
+
+        void addIoBytes(long bytes) {
+            ioBytes += bytes;
+        }
+    }
+
+    private record Run(Path file, long length) {
+    }
+
+    /**
+     * 对 size 个 int 元素做外部排序
+     */
+    public Result sortInt(long size, IntSupplier source, IntRunSorter sorter, IntComparator comparator)
+            throws IOException {
+        Result result = new Result();
+        result.setElements(size);
+        List<Path> created = new ArrayList<>();
+        long start = System.nanoTime();
+        long generationNanos = 0;
+
+        try {
+            // 1. 生成初始归并段
+            List<Run> runs = new ArrayList<>();
+            int[] buffer = new int[(int) Math.min(runSize, size)];
+            for (long offset = 0; offset < size; offset += runSize) {
+                checkCancelled();
+                int length = (int) Math.min(runSize, size - offset);
+                int[] run = length == buffer.length ? buffer : new int[length];
+
+                long generateStart = System.nanoTime();
+                for (int i = 0; i < length; i++) {
+                    run[i] = source.getAsInt();
+                }
+                generationNanos += System.nanoTime() - generateStart;
+
+                PerformanceResult<Integer> sorted = sorter.sort(run);
+                result.setComparisons(result.getComparisons() + sorted.getComparisons());
+                result.setMoves(result.getMoves() + sorted.getSwaps());
+
+                result.setRuns(result.getRuns() + 1);
+
+                if (length == size) {
+                    // 只有一个段：内存排序结果就是最终结果，不必写出
+                    inspectInt(run, comparator, result);
+                    continue;
+                }
+
+                Path file = newRunFile(created);
+                long bytes = (long) length * Integer.BYTES;
+                try (RunWriter writer = new RunWriter(file, bytes, windowBytes)) {
+                    writer.putInts(run);
+                }
+                result.addIoBytes(bytes);
+                runs.add(new Run(file, length));
+            }
+
+            // 2. 多趟 k 路归并，段数不超过 fanIn 后做最后一趟
+            while (runs.size() > fanIn) {
+                List<Run> next = new ArrayList<>();
+                for (int from = 0; from < runs.size(); from += fanIn) {
+                    List<Run> group = runs.subList(from, Math.min(from + fanIn, runs.size()));
+                    next.add(group.size() == 1
+                            ? group.get(0)
+                            : mergeInts(group, comparator, result, false, created));
+                }
+                runs = next;
+                result.setMergePasses(result.getMergePasses() + 1);
+            }
+            if (!runs.isEmpty()) {
+                mergeInts(runs, comparator, result, true, created);
+                result.setMergePasses(result.getMergePasses() + 1);
+            }
+        } finally {
+            deleteAll(created);
+        }
+
+        result.setTime((System.nanoTime() - start - generationNanos) / 1000);
+        return result;
+    }
+
+    /**
+     * 用败者树把一组段归并为一个新段，输入段归并完即删除；最后一趟只逐个校验并取样，不写出结果，返回 null
+     */
+    private Run mergeInts(List<Run> group, IntComparator comparator, Result result,
+                          boolean finalPass, List<Path> created) throws IOException {
+        int k = group.size();
+        long total = 0;
+        RunReader[] readers = new RunReader[k];
+        IntLoserTree tree = new IntLoserTree(k, comparator);
+
+        try {
+            for (int i = 0; i < k; i++) {
+                Run run = group.get(i);
+                total += run.length();
+                readers[i] = new RunReader(run.file(), windowBytes);
+                tree.heads[i] = readers[i].nextInt();
+            }
+            tree.build();
+
+            Path file = finalPass ? null : newRunFile(created);
+            long bytes = total * Integer.BYTES;
+            try (RunWriter writer = finalPass ? null : new RunWriter(file, bytes, windowBytes)) {
+                int previous = 0;
+                for (long written = 0; written < total; written++) {
+                    int leaf = tree.winner();
+                    int value = tree.heads[leaf];
+                    if ((written & (CANCEL_CHECK_INTERVAL - 1)) == 0) {
+                        checkCancelled();
+                    }
+
+                    if (finalPass) {
+                        if (written < SAMPLE_SIZE) {
+                            result.getSample().add(value);
+                        }
+                        if (written > 0 && comparator.compare(previous, value) > 0) {
+                            result.setSorted(false);
+                        }
+                        previous = value;
+                    } else {
+                        writer.putInt(value);
+                    }
+
+                    if (readers[leaf].hasRemaining()) {
+                        tree.heads[leaf] = readers[leaf].nextInt();
+                    } else {
+                        tree.exhausted[leaf] = true;
+                    }
+                    tree.replay(leaf);
+                }
+            }
+
+            result.addIoBytes(finalPass ? bytes : bytes * 2);
+            result.setMoves(result.getMoves() + total);
+            result.setComparisons(result.getComparisons() + tree.getComparisons());
+            return finalPass ? null : new Run(file, total);
+        } finally {
+            for (int i = 0; i < k; i++) {
+                if (readers[i] != null) {
+                    readers[i].close();
+                }
+                delete(group.get(i).file());
+            }
+        }
+    }
+
+    /**
+     * 只有一个段时直接在内存中取样并校验
+     */
+    private static void inspectInt(int[] run, IntComparator comparator, Result result) {
+        for (int i = 0; i < run.length; i++) {
+            if (i < SAMPLE_SIZE) {
+                result.getSample().add(run[i]);
+            }
+            if (i > 0 && comparator.compare(run[i - 1], run[i]) > 0) {
+                result.setSorted(false);
+            }
+        }
+    }
+
+    private static final class IntLoserTree extends LoserTree {
+        private final int[] heads;
+        private final IntComparator comparator;
+
+        IntLoserTree(int k, IntComparator comparator) {
+            super(k);
+            this.heads = new int[k];
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected int compareHeads(int a, int b) {
+            return comparator.compare(heads[a], heads[b]);
+        }
+    }
+
+    /**
+     * 对 size 个 double 元素做外部排序
+     */
+    public Result sortDouble(long size, DoubleSupplier source, DoubleRunSorter sorter, DoubleComparator comparator)
+            throws IOException {
+        Result result = new Result();
+        result.setElements(size);
+        List<Path> created = new ArrayList<>();
+        long start = System.nanoTime();
+        long generationNanos = 0;
+
+        try {
+            // 1. 生成初始归并段
+            List<Run> runs = new ArrayList<>();
+            double[] buffer = new double[(int) Math.min(runSize, size)];
+            for (long offset = 0; offset < size; offset += runSize) {
+                checkCancelled();
+                int length = (int) Math.min(runSize, size - offset);
+                double[] run = length == buffer.length ? buffer : new double[length];
+
+                long generateStart = System.nanoTime();
+                for (int i = 0; i < length; i++) {
+                    run[i] = source.getAsDouble();
+                }
+                generationNanos += System.nanoTime() - generateStart;
+
+                PerformanceResult<Double> sorted = sorter.sort(run);
+                result.setComparisons(result.getComparisons() + sorted.getComparisons());
+                result.setMoves(result.getMoves() + sorted.getSwaps());
+
+                result.setRuns(result.getRuns() + 1);
+
+                if (length == size) {
+                    // 只有一个段：内存排序结果就是最终结果，不必写出
+                    inspectDouble(run, comparator, result);
+                    continue;
+                }
+
+                Path file = newRunFile(created);
+                long bytes = (long) length * Double.BYTES;
+                try (RunWriter writer = new RunWriter(file, bytes, windowBytes)) {
+                    writer.putDoubles(run);
+                }
+                result.addIoBytes(bytes);
+                runs.add(new Run(file, length));
+            }
+
+            // 2. 多趟 k 路归并，段数不超过 fanIn 后做最后一趟
+            while (runs.size() > fanIn) {
+                List<Run> next = new ArrayList<>();
+                for (int from = 0; from < runs.size(); from += fanIn) {
+                    List<Run> group = runs.subList(from, Math.min(from + fanIn, runs.size()));
+                    next.add(group.size() == 1
+                            ? group.get(0)
+                            : mergeDoubles(group, comparator, result, false, created));
+                }
+                runs = next;
+                result.setMergePasses(result.getMergePasses() + 1);
+            }
+            if (!runs.isEmpty()) {
+                mergeDoubles(runs, comparator, result, true, created);
+                result.setMergePasses(result.getMergePasses() + 1);
+            }
+        } finally {
+            deleteAll(created);
+        }
+
+        result.setTime((System.nanoTime() - start - generationNanos) / 1000);
+        return result;
+    }
+
+    /**
+     * 用败者树把一组段归并为一个新段，输入段归并完即删除；最后一趟只逐个校验并取样，不写出结果，返回 null
+     */
+    private Run mergeDoubles(List<Run> group, DoubleComparator comparator, Result result,
+                             boolean finalPass, List<Path> created) throws IOException {
+        int k = group.size();
+        long total = 0;
+        RunReader[] readers = new RunReader[k];
+        DoubleLoserTree tree = new DoubleLoserTree(k, comparator);
+
+        try {
+            for (int i = 0; i < k; i++) {
+                Run run = group.get(i);
+                total += run.length();
+                readers[i] = new RunReader(run.file(), windowBytes);
+                tree.heads[i] = readers[i].nextDouble();
+            }
+            tree.build();
+
+            Path file = finalPass ? null : newRunFile(created);
+            long bytes = total * Double.BYTES;
+            try (RunWriter writer = finalPass ? null : new RunWriter(file, bytes, windowBytes)) {
+                double previous = 0;
+                for (long written = 0; written < total; written++) {
+                    int leaf = tree.winner();
+                    double value = tree.heads[leaf];
+                    if ((written & (CANCEL_CHECK_INTERVAL - 1)) == 0) {
+                        checkCancelled();
+                    }
+
+                    if (finalPass) {
+                        if (written < SAMPLE_SIZE) {
+                            result.getSample().add(value);
+                        }
+                        if (written > 0 && comparator.compare(previous, value) > 0) {
+                            result.setSorted(false);
+                        }
+                        previous = value;
+                    } else {
+                        writer.putDouble(value);
+                    }
+
+                    if (readers[leaf].hasRemaining()) {
+                        tree.heads[leaf] = readers[leaf].nextDouble();
+                    } else {
+                        tree.exhausted[leaf] = true;
+                    }
+                    tree.replay(leaf);
+                }
+            }
+
+            result.addIoBytes(finalPass ? bytes : bytes * 2);
+            result.setMoves(result.getMoves() + total);
+            result.setComparisons(result.getComparisons() + tree.getComparisons());
+            return finalPass ? null : new Run(file, total);
+        } finally {
+            for (int i = 0; i < k; i++) {
+                if (readers[i] != null) {
+                    readers[i].close();
+                }
+                delete(group.get(i).file());
+            }
+        }
+    }
+
+    /**
+     * 只有一个段时直接在内存中取样并校验
+     */
+    private static void inspectDouble(double[] run, DoubleComparator comparator, Result result) {
+        for (int i = 0; i < run.length; i++) {
+            if (i < SAMPLE_SIZE) {
+                result.getSample().add(run[i]);
+            }
+            if (i > 0 && comparator.compare(run[i - 1], run[i]) > 0) {
+                result.setSorted(false);
+            }
+        }
+    }
+
+    private static final class DoubleLoserTree extends LoserTree {
+        private final double[] heads;
+        private final DoubleComparator comparator;
+
+        DoubleLoserTree(int k, DoubleComparator comparator) {
+            super(k);
+            this.heads = new double[k];
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected int compareHeads(int a, int b) {
+            return comparator.compare(heads[a], heads[b]);
+        }
+    }
+
+    /**
+     * 已取消或线程被中断时停止排序，已创建的段文件由调用方的 finally 删除
+     */
+    private void checkCancelled() {
+        if (Thread.currentThread().isInterrupted() || cancelled.getAsBoolean()) {
+            throw new CancellationException("外部排序已取消");
+        }
+    }
+
+    private Path newRunFile(List<Path> created) throws IOException {
+        Path file = Files.createTempFile(tempDir, "sort-run-", ".bin");
+        created.add(file);
+        return file;
+    }
+
+    private static void deleteAll(List<Path> files) {
+        for (Path file : files) {
+            delete(file);
+        }
+    }
+
+    /**
+     * 删除段文件；映射窗口尚未被回收时（Windows）无法删除，记录后改为 JVM 退出时删除
+     */
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("删除归并段文件失败: {}, error={}", file, e.getMessage());
+            file.toFile().deleteOnExit();
+        }
+    }
+}
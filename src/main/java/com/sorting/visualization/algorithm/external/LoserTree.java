@@ -0,0 +1,78 @@
+package com.sorting.visualization.algorithm.external;
+
+import java.util.Arrays;
+
+/**
+ * 败者树（k 路归并）
+ * <p>
+ * 内部结点保存比较中的败者，tree[0] 保存当前胜者。每输出一个元素只需沿叶子到根的一条路径
+ * 重赛 ⌈log2 k⌉ 次，比堆的下沉少一半比较。已耗尽的路视为无穷大；键相等时路号小者胜，保证归并稳定。
+ */
+abstract class LoserTree {
+
+    /** 初始化用的虚拟叶子，视为负无穷 */
+    private static final int SENTINEL = -1;
+
+    protected final int k;
+    protected final boolean[] exhausted;
+    private final int[] tree;
+    private long comparisons = 0;
+
+    protected LoserTree(int k) {
+        this.k = k;
+        this.exhausted = new boolean[k];
+        this.tree = new int[k];
+    }
+
+    /**
+     * 比较两路当前的队首元素
+     */
+    protected abstract int compareHeads(int a, int b);
+
+    /**
+     * 所有路的队首元素就绪后建树
+     */
+    void build() {
+        Arrays.fill(tree, SENTINEL);
+        for (int leaf = k - 1; leaf >= 0; leaf--) {
+            replay(leaf);
+        }
+    }
+
+    /**
+     * 当前胜者所在的路
+     */
+    int winner() {
+        return tree[0];
+    }
+
+    /**
+     * 某一路的队首元素更新（或耗尽）后，从该叶子向上重赛
+     */
+    void replay(int leaf) {
+        int winner = leaf;
+        for (int t = (leaf + k) >> 1; t > 0; t >>= 1) {
+            if (beats(tree[t], winner)) {
+                int loser = winner;
+                winner = tree[t];
+                tree[t] = loser;
+            }
+        }
+        tree[0] = winner;
+    }
+
+    long getComparisons() {
+        return comparisons;
+    }
+
+    private boolean beats(int a, int b) {
+        if (a == SENTINEL) return true;
+        if (b == SENTINEL) return false;
+        if (exhausted[a]) return exhausted[b] && a < b;
+        if (exhausted[b]) return true;
+
+        comparisons++;
+        int cmp = compareHeads(a, b);
+        return cmp < 0 || (cmp == 0 && a < b);
+    }
+}
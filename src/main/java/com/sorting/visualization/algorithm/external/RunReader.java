@@ -0,0 +1,62 @@
+package com.sorting.visualization.algorithm.external;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 顺序读取一个归并段文件：按固定大小的窗口依次映射，读完一个窗口再映射下一个
+ */
+final class RunReader implements Closeable {
+
+    private final FileChannel channel;
+    private final long size;
+    private final long windowBytes;
+    private long mapped = 0;
+    private MappedByteBuffer buffer;
+
+    RunReader(Path file, long windowBytes) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.windowBytes = windowBytes;
+        nextWindow();
+    }
+
+    boolean hasRemaining() {
+        return buffer.hasRemaining() || mapped < size;
+    }
+
+    int nextInt() throws IOException {
+        if (!buffer.hasRemaining()) {
+            nextWindow();
+        }
+        return buffer.getInt();
+    }
+
+    double nextDouble() throws IOException {
+        if (!buffer.hasRemaining()) {
+            nextWindow();
+        }
+        return buffer.getDouble();
+    }
+
+    private void nextWindow() throws IOException {
+        long length = Math.min(windowBytes, size - mapped);
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapped, length);
+        buffer.order(ByteOrder.nativeOrder());
+        mapped += length;
+    }
+
+    /**
+     * 关闭通道并丢弃当前窗口的引用；映射本身在窗口被 GC 回收后才解除
+     */
+    @Override
+    public void close() throws IOException {
+        buffer = null;
+        channel.close();
+    }
+}
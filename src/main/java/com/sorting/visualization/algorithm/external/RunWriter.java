@@ -0,0 +1,93 @@
+package com.sorting.visualization.algorithm.external;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 顺序写入一个归并段文件：按固定大小的窗口依次映射文件区域（MappedByteBuffer），
+ * 元素以本机字节序写入，写满一个窗口再映射下一个
+ */
+final class RunWriter implements Closeable {
+
+    private final FileChannel channel;
+    private final long capacity;
+    private final long windowBytes;
+    private long mapped = 0;
+    private MappedByteBuffer buffer;
+
+    /**
+     * @param capacity    段文件总字节数（写入前已知）
+     * @param windowBytes 映射窗口大小，需为 8 的整数倍
+     */
+    RunWriter(Path file, long capacity, long windowBytes) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.capacity = capacity;
+        this.windowBytes = windowBytes;
+        nextWindow();
+    }
+
+    void putInt(int value) throws IOException {
+        if (!buffer.hasRemaining()) {
+            nextWindow();
+        }
+        buffer.putInt(value);
+    }
+
+    void putDouble(double value) throws IOException {
+        if (!buffer.hasRemaining()) {
+            nextWindow();
+        }
+        buffer.putDouble(value);
+    }
+
+    /**
+     * 批量写入一个已排序的内存段
+     */
+    void putInts(int[] values) throws IOException {
+        int offset = 0;
+        while (offset < values.length) {
+            if (!buffer.hasRemaining()) {
+                nextWindow();
+            }
+            int count = Math.min(values.length - offset, buffer.remaining() / Integer.BYTES);
+            buffer.asIntBuffer().put(values, offset, count);
+            buffer.position(buffer.position() + count * Integer.BYTES);
+            offset += count;
+        }
+    }
+
+    void putDoubles(double[] values) throws IOException {
+        int offset = 0;
+        while (offset < values.length) {
+            if (!buffer.hasRemaining()) {
+                nextWindow();
+            }
+            int count = Math.min(values.length - offset, buffer.remaining() / Double.BYTES);
+            buffer.asDoubleBuffer().put(values, offset, count);
+            buffer.position(buffer.position() + count * Double.BYTES);
+            offset += count;
+        }
+    }
+
+    private void nextWindow() throws IOException {
+        long size = Math.min(windowBytes, capacity - mapped);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, mapped, size);
+        buffer.order(ByteOrder.nativeOrder());
+        mapped += size;
+    }
+
+    /**
+     * 关闭通道并丢弃当前窗口的引用；映射本身在窗口被 GC 回收后才解除
+     */
+    @Override
+    public void close() throws IOException {
+        buffer = null;
+        channel.close();
+    }
+}
@@ -1,6 +1,15 @@
 package com.sorting.visualization.algorithm.impl;
 
+import com.google.common.primitives.Doubles;
+import com.google.common.primitives.Ints;
 import com.sorting.visualization.algorithm.AbstractSortingAlgorithm;
+import com.sorting.visualization.algorithm.ComparisonSortingAlgorithm;
+import com.sorting.visualization.algorithm.DoubleComparator;
+import com.sorting.visualization.algorithm.IntComparator;
+import com.sorting.visualization.algorithm.PrimitiveSortingAlgorithm;
+import com.sorting.visualization.algorithm.SortContext;
+import com.sorting.visualization.algorithm.StepMessage;
+import com.sorting.visualization.algorithm.StepTimeline;
 import com.sorting.visualization.model.Highlight;
 import lombok.extern.slf4j.Slf4j;
 
@@ -9,84 +18,108 @@ import java.util.Comparator;
 import java.util.List;
 
 @Slf4j
-public class BubbleSort<T> extends AbstractSortingAlgorithm<T> {
+public class BubbleSort<T> extends AbstractSortingAlgorithm<T>
+        implements ComparisonSortingAlgorithm<T>, PrimitiveSortingAlgorithm {
 
     @Override
-    public TeachingResult<T> teach(List<T> data, Comparator<T> comparator) {
-        initTeaching(data);
+    public TeachingResult<T> teach(StepTimeline<T> timeline, Comparator<T> comparator) {
+        SortContext<T> context = initTeaching(timeline);
 
-        List<T> workingData = new ArrayList<>(data);
+        List<T> workingData = workingList(context);
         int n = workingData.size();
 
         for (int i = 0; i < n - 1; i++) {
             boolean changed = false;
             Highlight highlight = new Highlight();
-            List<Integer> sorted = new ArrayList<>();
+            // 末尾 i 个元素已就位
+            int sortedFrom = n - i;
 
-            highlight.setSorted(sorted);
-            addStep(workingData, highlight,
-                    String.format("第%d轮排序开始", i + 1));
+            highlight.sortedRange(sortedFrom, n);
+            addStep(context, workingData, highlight,
+                    describe(context, StepMessage.BUBBLE_PASS_START).arg(i + 1));
 
             for (int j = 0; j < n - i - 1; j++) {
                 highlight = new Highlight();
-                highlight.setCompare(List.of(j, j + 1));
-                highlight.setSorted(sorted);
+                highlight.compare(j, j + 1);
+                highlight.sortedRange(sortedFrom, n);
 
-                addStep(workingData, highlight,
-                        String.format("比较第%d个元素[%s]和第%d个元素[%s]",
-                                j + 1, workingData.get(j), j + 2, workingData.get(j + 1)));
+                addStep(context, workingData, highlight,
+                        describe(context, StepMessage.BUBBLE_COMPARE)
+                                .arg(j + 1).value(workingData.get(j)).arg(j + 2).value(workingData.get(j + 1)));
 
-                if (compare(comparator, workingData.get(j), workingData.get(j + 1)) > 0) {
+                if (compare(context, comparator, workingData.get(j), workingData.get(j + 1)) > 0) {
                     changed = true;
-                    swap(workingData, j, j + 1);
+                    swap(context, workingData, j, j + 1);
 
                     highlight = new Highlight();
-                    highlight.setSwap(List.of(j, j + 1));
-                    highlight.setSorted(sorted);
+                    highlight.swap(j, j + 1);
+                    highlight.sortedRange(sortedFrom, n);
 
-                    addStep(workingData, highlight,
-                            String.format("交换第%d个和第%d个元素", j + 1, j + 2));
+                    addStep(context, workingData, highlight,
+                            describe(context, StepMessage.SWAP).arg(j + 1).arg(j + 2));
                 } else {
                     highlight = new Highlight();
-                    highlight.setCompare(List.of(j, j + 1));
-                    highlight.setSorted(sorted);
+                    highlight.compare(j, j + 1);
+                    highlight.sortedRange(sortedFrom, n);
 
-                    addStep(workingData, highlight,
-                            "元素顺序正确，无需交换");
+                    addStep(context, workingData, highlight,
+                            describe(context, StepMessage.BUBBLE_IN_ORDER));
                 }
             }
-            for (int k = 0; k < i; k++) {
-                sorted.add(n - 1 - k);
-            }
             highlight = new Highlight();
-            highlight.setSorted(sorted);
+            highlight.sortedRange(sortedFrom, n);
 
-            addStep(workingData, highlight,
-                    String.format("第%d轮排序完成，第%d个元素已就位", i + 1, n - i));
+            addStep(context, workingData, highlight,
+                    describe(context, StepMessage.BUBBLE_PASS_END).arg(i + 1).arg(n - i));
 
             if (!changed) {
                 break;
             }
         }
 
-        return completeTeaching(workingData, steps.size() + 1);
+        return completeTeaching(context, workingData);
     }
 
     @Override
     public PerformanceResult<T> perform(List<T> data, Comparator<T> comparator) {
         List<T> workingData = new ArrayList<>(data);
         int n = workingData.size();
-        comparisons = 0;
-        swaps = 0;
-        startTime = System.nanoTime();
+        SortContext<T> context = SortContext.forPerformance();
 
         for (int i = 0; i < n - 1; i++) {
             boolean changed = false;
             for (int j = 0; j < n - i - 1; j++) {
-                comparisons++;
+                context.recordComparison();
                 if (comparator.compare(workingData.get(j), workingData.get(j + 1)) > 0) {
                     changed = true;
-                    swap(workingData, j, j + 1);
+                    swap(context, workingData, j, j + 1);
+                }
+            }
+            if (!changed) {
+                break;
+            }
+        }
+
+        return completePerformance(context, workingData);
+    }
+
+    @Override
+    public PerformanceResult<Integer> performInt(int[] data, IntComparator comparator) {
+        int n = data.length;
+        int comparisons = 0;
+        int swaps = 0;
+        long start = System.nanoTime();
+
+        for (int i = 0; i < n - 1; i++) {
+            boolean changed = false;
+            for (int j = 0; j < n - i - 1; j++) {
+                comparisons++;
+                if (comparator.compare(data[j], data[j + 1]) > 0) {
+                    changed = true;
+                    int temp = data[j];
+                    data[j] = data[j + 1];
+                    data[j + 1] = temp;
+                    swaps++;
                 }
             }
             if (!changed) {
@@ -94,15 +127,36 @@ public class BubbleSort<T> extends AbstractSortingAlgorithm<T> {
             }
         }
 
-        long time = (System.nanoTime() - startTime)/1000;
+        long time = (System.nanoTime() - start) / 1000;
+        return performanceResult(Ints.asList(data), comparisons, swaps, time);
+    }
 
-        PerformanceResult<T> result = new PerformanceResult<>();
-        result.setSortedData(workingData);
-        result.setComparisons(comparisons);
-        result.setSwaps(swaps);
-        result.setTime(time);
+    @Override
+    public PerformanceResult<Double> performDouble(double[] data, DoubleComparator comparator) {
+        int n = data.length;
+        int comparisons = 0;
+        int swaps = 0;
+        long start = System.nanoTime();
+
+        for (int i = 0; i < n - 1; i++) {
+            boolean changed = false;
+            for (int j = 0; j < n - i - 1; j++) {
+                comparisons++;
+                if (comparator.compare(data[j], data[j + 1]) > 0) {
+                    changed = true;
+                    double temp = data[j];
+                    data[j] = data[j + 1];
+                    data[j + 1] = temp;
+                    swaps++;
+                }
+            }
+            if (!changed) {
+                break;
+            }
+        }
 
-        return result;
+        long time = (System.nanoTime() - start) / 1000;
+        return performanceResult(Doubles.asList(data), comparisons, swaps, time);
     }
 
     @Override
@@ -129,4 +183,10 @@ public class BubbleSort<T> extends AbstractSortingAlgorithm<T> {
     public boolean supportsDataType(Class<?> dataType) {
         return true; // 支持所有数据类型
     }
+
+    @Override
+    public long estimateTeachingSteps(int size) {
+        // 约 n²/2 次比较与 n²/4 次交换各占一步，外加每趟一步
+        return (long) size * size + 2;
+    }
 }
\ No newline at end of file
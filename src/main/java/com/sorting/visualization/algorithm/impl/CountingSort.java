@@ -0,0 +1,251 @@
+package com.sorting.visualization.algorithm.impl;
+
+import com.sorting.visualization.algorithm.AbstractSortingAlgorithm;
+import com.sorting.visualization.algorithm.PersonRangeKey;
+import com.sorting.visualization.algorithm.RangeSortingAlgorithm;
+import com.sorting.visualization.algorithm.SortContext;
+import com.sorting.visualization.algorithm.StepDescription;
+import com.sorting.visualization.algorithm.StepMessage;
+import com.sorting.visualization.algorithm.StepTimeline;
+import com.sorting.visualization.model.Highlight;
+import com.sorting.visualization.model.Person;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 计数排序 / 桶排序（Person 有界字段）
+ * <p>
+ * age 取值为 [min, max] 内的整数，直接计数后按前缀和稳定放置；score 为 [min, max] 内的浮点数，
+ * 按值域均分到 n 个桶，桶内做稳定插入排序。两者都是一次线性分配，不经过比较器。
+ */
+@Slf4j
+public class CountingSort extends AbstractSortingAlgorithm<Person> implements RangeSortingAlgorithm {
+
+    /** 教学模式下桶排序使用的桶数，便于观察 */
+    private static final int TEACHING_BUCKETS = 10;
+
+    @Override
+    public TeachingResult<Person> teachPerson(StepTimeline<Person> timeline, PersonRangeKey key) {
+        SortContext<Person> context = initTeaching(timeline);
+
+        List<Person> workingData = workingList(context);
+        int n = workingData.size();
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = key.value(workingData.get(i));
+        }
+
+        int buckets = key.integral() ? (int) (key.max() - key.min()) + 1 : TEACHING_BUCKETS;
+
+        int[] bucketOf = new int[n];
+        int[] count = new int[buckets];
+        for (int i = 0; i < n; i++) {
+            bucketOf[i] = bucketIndex(values[i], key, buckets);
+            count[bucketOf[i]]++;
+
+            Highlight highlight = new Highlight();
+            highlight.compare(i);
+
+            addStep(context, workingData, highlight, key.integral()
+                    ? describe(context, StepMessage.COUNTING_COUNT)
+                            .arg(i + 1).value(key.field()).arg((int) values[i]).arg((int) values[i])
+                    : describe(context, StepMessage.BUCKET_DISTRIBUTE)
+                            .arg(i + 1).value(key.field()).decimal(values[i]).arg(bucketOf[i]));
+        }
+
+        // 前缀和得到每个桶的起始位置
+        int[] bucketStart = new int[buckets];
+        for (int b = 0, sum = 0; b < buckets; b++) {
+            bucketStart[b] = sum;
+            sum += count[b];
+        }
+        addStep(context, workingData, new Highlight(), describe(context,
+                key.integral() ? StepMessage.COUNTING_PREFIX_SUM : StepMessage.BUCKET_PREFIX_SUM));
+
+        // 按原顺序稳定放置
+        int[] next = bucketStart.clone();
+        Person[] placed = new Person[n];
+        double[] placedValues = new double[n];
+        for (int i = 0; i < n; i++) {
+            int target = next[bucketOf[i]]++;
+            placed[target] = workingData.get(i);
+            placedValues[target] = values[i];
+            context.recordSwap();
+        }
+        for (int i = 0; i < n; i++) {
+            workingData.set(i, placed[i]);
+        }
+
+        for (int b = 0; b < buckets; b++) {
+            if (count[b] == 0) {
+                continue;
+            }
+            Highlight highlight = new Highlight();
+            highlight.swapRange(bucketStart[b], bucketStart[b] + count[b]);
+
+            StepDescription description = key.integral()
+                    ? describe(context, StepMessage.COUNTING_PLACE)
+                            .value(key.field()).arg((int) placedValues[bucketStart[b]])
+                    : describe(context, StepMessage.BUCKET_PLACE).arg(b);
+            addStep(context, workingData, highlight,
+                    description.arg(count[b]).arg(bucketStart[b] + 1).arg(bucketStart[b] + count[b]));
+
+            if (!key.integral() && count[b] > 1) {
+                insertionSortTeach(context, workingData, placedValues,
+                        bucketStart[b], bucketStart[b] + count[b], key.ascending());
+            }
+        }
+
+        return completeTeaching(context, workingData);
+    }
+
+    /**
+     * 桶内插入排序（教学模式）
+     */
+    private void insertionSortTeach(SortContext<Person> context, List<Person> data, double[] values,
+                                    int from, int to, boolean ascending) {
+        for (int i = from + 1; i < to; i++) {
+            Person person = data.get(i);
+            double value = values[i];
+            int j = i - 1;
+
+            while (j >= from) {
+                context.recordComparison();
+
+                Highlight highlight = new Highlight();
+                highlight.compare(j, j + 1);
+                addStep(context, data, highlight,
+                        describe(context, StepMessage.BUCKET_COMPARE).arg(j + 1).arg(j + 2));
+
+                if (!outOfOrder(values[j], value, ascending)) {
+                    break;
+                }
+                data.set(j + 1, data.get(j));
+                values[j + 1] = values[j];
+                data.set(j, person);
+                values[j] = value;
+                context.recordSwap();
+
+                highlight = new Highlight();
+                highlight.swap(j, j + 1);
+                addStep(context, data, highlight,
+                        describe(context, StepMessage.BUCKET_SWAP).arg(j + 1).arg(j + 2));
+                j--;
+            }
+        }
+    }
+
+    @Override
+    public PerformanceResult<Person> performPerson(List<Person> data, PersonRangeKey key) {
+        long start = System.nanoTime();
+        int n = data.size();
+        int buckets = key.integral() ? (int) (key.max() - key.min()) + 1 : Math.max(n, 1);
+
+        // 一次取出字段值并计数，之后不再访问 getter
+        double[] values = new double[n];
+        int[] bucketOf = new int[n];
+        int[] next = new int[buckets + 1];
+        for (int i = 0; i < n; i++) {
+            double value = key.value(data.get(i));
+            int b = bucketIndex(value, key, buckets);
+            values[i] = value;
+            bucketOf[i] = b;
+            next[b + 1]++;
+        }
+        for (int b = 0; b < buckets; b++) {
+            next[b + 1] += next[b];
+        }
+        int[] bucketEnd = key.integral() ? null : Arrays.copyOfRange(next, 1, buckets + 1);
+
+        Person[] sorted = new Person[n];
+        double[] sortedValues = new double[n];
+        for (int i = 0; i < n; i++) {
+            int target = next[bucketOf[i]]++;
+            sorted[target] = data.get(i);
+            sortedValues[target] = values[i];
+        }
+        int moves = n;
+        int comparisons = 0;
+
+        if (!key.integral()) {
+            // 均匀分布下每个桶期望 O(1) 个元素，桶内插入排序总代价线性
+            boolean ascending = key.ascending();
+            for (int b = 0, from = 0; b < buckets; b++) {
+                int to = bucketEnd[b];
+                for (int i = from + 1; i < to; i++) {
+                    Person person = sorted[i];
+                    double value = sortedValues[i];
+                    int j = i - 1;
+                    while (j >= from) {
+                        comparisons++;
+                        if (!outOfOrder(sortedValues[j], value, ascending)) {
+                            break;
+                        }
+                        sorted[j + 1] = sorted[j];
+                        sortedValues[j + 1] = sortedValues[j];
+                        moves++;
+                        j--;
+                    }
+                    sorted[j + 1] = person;
+                    sortedValues[j + 1] = value;
+                }
+                from = to;
+            }
+        }
+
+        long time = (System.nanoTime() - start) / 1000;
+        return performanceResult(Arrays.asList(sorted), comparisons, moves, time);
+    }
+
+    /**
+     * 计算值所在的桶；降序时桶号倒置，使放置顺序直接为结果顺序
+     */
+    private static int bucketIndex(double value, PersonRangeKey key, int buckets) {
+        int b;
+        if (key.integral()) {
+            b = (int) (value - key.min());
+        } else {
+            double span = key.max() - key.min();
+            b = span > 0 ? (int) ((value - key.min()) / span * buckets) : 0;
+        }
+        b = Math.max(0, Math.min(buckets - 1, b));
+        return key.ascending() ? b : buckets - 1 - b;
+    }
+
+    private static boolean outOfOrder(double previous, double value, boolean ascending) {
+        return ascending ? Double.compare(previous, value) > 0 : Double.compare(previous, value) < 0;
+    }
+
+    @Override
+    public String getAlgorithmName() {
+        return "计数排序";
+    }
+
+    @Override
+    public String getTimeComplexity() {
+        return "O(n + k)";
+    }
+
+    @Override
+    public String getSpaceComplexity() {
+        return "O(n + k)";
+    }
+
+    @Override
+    public boolean isStable() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsDataType(Class<?> dataType) {
+        return dataType == Person.class;
+    }
+
+    @Override
+    public long estimateTeachingSteps(int size) {
+        // 计数 n 步、前缀和 1 步、每组放置 1 步，桶排序另有少量桶内插入步骤
+        return 3L * size + 2;
+    }
+}
@@ -1,6 +1,15 @@
 package com.sorting.visualization.algorithm.impl;
 
+import com.google.common.primitives.Doubles;
+import com.google.common.primitives.Ints;
 import com.sorting.visualization.algorithm.AbstractSortingAlgorithm;
+import com.sorting.visualization.algorithm.ComparisonSortingAlgorithm;
+import com.sorting.visualization.algorithm.DoubleComparator;
+import com.sorting.visualization.algorithm.IntComparator;
+import com.sorting.visualization.algorithm.PrimitiveSortingAlgorithm;
+import com.sorting.visualization.algorithm.SortContext;
+import com.sorting.visualization.algorithm.StepMessage;
+import com.sorting.visualization.algorithm.StepTimeline;
 import com.sorting.visualization.model.Highlight;
 import lombok.extern.slf4j.Slf4j;
 
@@ -9,164 +18,294 @@ import java.util.Comparator;
 import java.util.List;
 
 @Slf4j
-public class HeapSort<T> extends AbstractSortingAlgorithm<T> {
+public class HeapSort<T> extends AbstractSortingAlgorithm<T>
+        implements ComparisonSortingAlgorithm<T>, PrimitiveSortingAlgorithm {
 
     @Override
-    public TeachingResult<T> teach(List<T> data, Comparator<T> comparator) {
-        initTeaching(data);
+    public TeachingResult<T> teach(StepTimeline<T> timeline, Comparator<T> comparator) {
+        SortContext<T> context = initTeaching(timeline);
 
-        List<T> workingData = new ArrayList<>(data);
-        int n = workingData.size();
+        List<T> workingData = workingList(context);
+
+        teachRange(context, workingData, 0, workingData.size() - 1, comparator);
+
+        return completeTeaching(context, workingData);
+    }
+
+    /**
+     * 教学模式：对 data[low, high] 区间堆排序并记录步骤（也供内省快速排序回退使用）
+     */
+    void teachRange(SortContext<T> context, List<T> data, int low, int high, Comparator<T> comparator) {
+        int n = high - low + 1;
 
         Highlight highlight = new Highlight();
 
-        addStep(workingData, highlight, "开始构建最大堆");
+        addStep(context, data, highlight, describe(context, StepMessage.HEAP_BUILD_START));
 
         // 构建最大堆
         for (int i = n / 2 - 1; i >= 0; i--) {
-            heapifyTeach(workingData, n, i, comparator, "build");
+            heapifyTeach(context, data, low, n, i, comparator);
         }
 
         highlight = new Highlight();
-        List<Integer> heapIndices = new ArrayList<>();
-        for (int i = 0; i < n; i++) heapIndices.add(i);
-        highlight.setHeap(heapIndices);
+        highlight.heapRange(low, low + n);
 
-        addStep(workingData, highlight, "最大堆构建完成");
+        addStep(context, data, highlight, describe(context, StepMessage.HEAP_BUILD_DONE));
 
         // 一个一个从堆中取出元素
         for (int i = n - 1; i > 0; i--) {
             highlight = new Highlight();
-            highlight.setSwap(List.of(0, i));
+            highlight.swap(low, low + i);
 
-            addStep(workingData, highlight,
-                    String.format("将堆顶元素(最大值)交换到末尾第%d位", i + 1));
+            addStep(context, data, highlight,
+                    describe(context, StepMessage.HEAP_EXTRACT).arg(low + i + 1));
 
             // 将当前根节点移动到末尾
-            swap(workingData, 0, i);
+            swap(context, data, low, low + i);
 
             highlight = new Highlight();
-            List<Integer> sorted = new ArrayList<>();
-            for (int k = i; k < n; k++) sorted.add(k);
-            highlight.setSorted(sorted);
+            highlight.sortedRange(low + i, low + n);
 
-            addStep(workingData, highlight,
-                    String.format("重新调整堆，堆大小: %d", i));
+            addStep(context, data, highlight,
+                    describe(context, StepMessage.HEAP_RESIZE).arg(i));
 
             // 调整剩余元素的堆
-            heapifyTeach(workingData, i, 0, comparator, "extract");
+            heapifyTeach(context, data, low, i, 0, comparator);
         }
-
-        return completeTeaching(workingData, steps.size() + 1);
     }
 
-    private void heapifyTeach(List<T> data, int heapSize, int i, Comparator<T> comparator, String mode) {
+    /**
+     * 调整以 low + i 为根的子堆（i 为相对 low 的堆内下标）
+     */
+    private void heapifyTeach(SortContext<T> context, List<T> data, int low, int heapSize, int i,
+                              Comparator<T> comparator) {
         int largest = i;
         int left = 2 * i + 1;
         int right = 2 * i + 2;
 
         Highlight highlight = new Highlight();
-        List<Integer> nodes = new ArrayList<>();
-        nodes.add(i);
-        if (left < heapSize) nodes.add(left);
-        if (right < heapSize) nodes.add(right);
-        highlight.setHeap(nodes);
+        highlight.heap(low + i);
+        if (left < heapSize) highlight.heap(low + left);
+        if (right < heapSize) highlight.heap(low + right);
 
-        addStep(data, highlight,
-                String.format("调整以节点%d为根的堆", i + 1));
+        addStep(context, data, highlight,
+                describe(context, StepMessage.HEAP_SIFT).arg(low + i + 1));
 
         // 如果左子节点更大
         if (left < heapSize) {
-            if (compare(comparator, data.get(left), data.get(largest)) > 0) {
+            if (compare(context, comparator, data.get(low + left), data.get(low + largest)) > 0) {
                 largest = left;
             }
         }
 
         // 如果右子节点更大
         if (right < heapSize) {
-            if (compare(comparator, data.get(right), data.get(largest)) > 0) {
+            if (compare(context, comparator, data.get(low + right), data.get(low + largest)) > 0) {
                 largest = right;
             }
         }
 
         // 如果最大节点不是根节点
         if (largest != i) {
-            swap(data, i, largest);
+            swap(context, data, low + i, low + largest);
 
             highlight = new Highlight();
-            highlight.setSwap(List.of(i, largest));
+            highlight.swap(low + i, low + largest);
 
-            addStep(data, highlight,
-                    String.format("交换节点%d和节点%d", i + 1, largest + 1));
+            addStep(context, data, highlight,
+                    describe(context, StepMessage.HEAP_SWAP).arg(low + i + 1).arg(low + largest + 1));
 
             // 递归调整受影响的子树
-            heapifyTeach(data, heapSize, largest, comparator, mode);
+            heapifyTeach(context, data, low, heapSize, largest, comparator);
         } else {
             highlight = new Highlight();
-            highlight.setHeap(List.of(i));
+            highlight.heap(low + i);
 
-            addStep(data, highlight,
-                    String.format("节点%d已在正确位置", i + 1));
+            addStep(context, data, highlight,
+                    describe(context, StepMessage.HEAP_IN_PLACE).arg(low + i + 1));
         }
     }
 
     @Override
     public PerformanceResult<T> perform(List<T> data, Comparator<T> comparator) {
         List<T> workingData = new ArrayList<>(data);
-        int n = workingData.size();
-        comparisons = 0;
-        swaps = 0;
-        startTime = System.nanoTime();
+        SortContext<T> context = SortContext.forPerformance();
+
+        sortRange(context, workingData, 0, workingData.size() - 1, comparator);
+
+        return completePerformance(context, workingData);
+    }
+
+    /**
+     * 性能模式：对 data[low, high] 区间堆排序（也供内省快速排序回退使用）
+     */
+    void sortRange(SortContext<T> context, List<T> data, int low, int high, Comparator<T> comparator) {
+        int n = high - low + 1;
 
         // 构建最大堆
         for (int i = n / 2 - 1; i >= 0; i--) {
-            heapify(workingData, n, i, comparator);
+            heapify(context, data, low, n, i, comparator);
         }
 
         // 一个一个从堆中取出元素
         for (int i = n - 1; i > 0; i--) {
             // 将当前根节点移动到末尾
-            swap(workingData, 0, i);
+            swap(context, data, low, low + i);
 
             // 调整剩余元素的堆
-            heapify(workingData, i, 0, comparator);
+            heapify(context, data, low, i, 0, comparator);
         }
-
-        long time = (System.nanoTime() - startTime)/1000;
-
-        PerformanceResult<T> result = new PerformanceResult<>();
-        result.setSortedData(workingData);
-        result.setComparisons(comparisons);
-        result.setSwaps(swaps);
-        result.setTime(time);
-
-        return result;
     }
 
-    private void heapify(List<T> data, int heapSize, int i, Comparator<T> comparator) {
+    private void heapify(SortContext<T> context, List<T> data, int low, int heapSize, int i,
+                         Comparator<T> comparator) {
         int largest = i;
         int left = 2 * i + 1;
         int right = 2 * i + 2;
 
         // 如果左子节点更大
         if (left < heapSize) {
-            if (compare(comparator, data.get(left), data.get(largest)) > 0) {
+            if (compare(context, comparator, data.get(low + left), data.get(low + largest)) > 0) {
                 largest = left;
             }
         }
 
         // 如果右子节点更大
         if (right < heapSize) {
-            if (compare(comparator, data.get(right), data.get(largest)) > 0) {
+            if (compare(context, comparator, data.get(low + right), data.get(low + largest)) > 0) {
                 largest = right;
             }
         }
 
         // 如果最大节点不是根节点
         if (largest != i) {
-            swap(data, i, largest);
+            swap(context, data, low + i, low + largest);
             // 递归调整受影响的子树
-            heapify(data, heapSize, largest, comparator);
+            heapify(context, data, low, heapSize, largest, comparator);
+        }
+    }
+
+    @Override
+    public PerformanceResult<Integer> performInt(int[] data, IntComparator comparator) {
+        long[] counters = new long[2]; // [比较次数, 交换次数]
+        long start = System.nanoTime();
+
+        sortRange(data, 0, data.length - 1, comparator, counters);
+
+        long time = (System.nanoTime() - start) / 1000;
+        return performanceResult(Ints.asList(data), counters[0], counters[1], time);
+    }
+
+    /**
+     * 对 data[low, high] 区间堆排序，counters 为 [比较次数, 交换次数]
+     */
+    static void sortRange(int[] data, int low, int high, IntComparator comparator, long[] counters) {
+        int n = high - low + 1;
+
+        // 构建最大堆
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(data, low, n, i, comparator, counters);
+        }
+
+        // 一个一个从堆中取出元素
+        for (int i = n - 1; i > 0; i--) {
+            int temp = data[low];
+            data[low] = data[low + i];
+            data[low + i] = temp;
+            counters[1]++;
+            siftDown(data, low, i, 0, comparator, counters);
+        }
+    }
+
+    private static void siftDown(int[] data, int low, int heapSize, int i, IntComparator comparator, long[] counters) {
+        while (true) {
+            int largest = i;
+            int left = 2 * i + 1;
+            int right = 2 * i + 2;
+
+            if (left < heapSize) {
+                counters[0]++;
+                if (comparator.compare(data[low + left], data[low + largest]) > 0) {
+                    largest = left;
+                }
+            }
+            if (right < heapSize) {
+                counters[0]++;
+                if (comparator.compare(data[low + right], data[low + largest]) > 0) {
+                    largest = right;
+                }
+            }
+            if (largest == i) {
+                return;
+            }
+
+            int temp = data[low + i];
+            data[low + i] = data[low + largest];
+            data[low + largest] = temp;
+            counters[1]++;
+            i = largest;
+        }
+    }
+
+    @Override
+    public PerformanceResult<Double> performDouble(double[] data, DoubleComparator comparator) {
+        long[] counters = new long[2]; // [比较次数, 交换次数]
+        long start = System.nanoTime();
+
+        sortRange(data, 0, data.length - 1, comparator, counters);
+
+        long time = (System.nanoTime() - start) / 1000;
+        return performanceResult(Doubles.asList(data), counters[0], counters[1], time);
+    }
+
+    /**
+     * 对 data[low, high] 区间堆排序，counters 为 [比较次数, 交换次数]
+     */
+    static void sortRange(double[] data, int low, int high, DoubleComparator comparator, long[] counters) {
+        int n = high - low + 1;
+
+        // 构建最大堆
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(data, low, n, i, comparator, counters);
+        }
+
+        // 一个一个从堆中取出元素
+        for (int i = n - 1; i > 0; i--) {
+            double temp = data[low];
+            data[low] = data[low + i];
+            data[low + i] = temp;
+            counters[1]++;
+            siftDown(data, low, i, 0, comparator, counters);
+        }
+    }
+
+    private static void siftDown(double[] data, int low, int heapSize, int i, DoubleComparator comparator, long[] counters) {
+        while (true) {
+            int largest = i;
+            int left = 2 * i + 1;
+            int right = 2 * i + 2;
+
+            if (left < heapSize) {
+                counters[0]++;
+                if (comparator.compare(data[low + left], data[low + largest]) > 0) {
+                    largest = left;
+                }
+            }
+            if (right < heapSize) {
+                counters[0]++;
+                if (comparator.compare(data[low + right], data[low + largest]) > 0) {
+                    largest = right;
+                }
+            }
+            if (largest == i) {
+                return;
+            }
+
+            double temp = data[low + i];
+            data[low + i] = data[low + largest];
+            data[low + largest] = temp;
+            counters[1]++;
+            i = largest;
         }
     }
 
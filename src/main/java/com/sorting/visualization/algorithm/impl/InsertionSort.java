@@ -1,6 +1,15 @@
 package com.sorting.visualization.algorithm.impl;
 
+import com.google.common.primitives.Doubles;
+import com.google.common.primitives.Ints;
 import com.sorting.visualization.algorithm.AbstractSortingAlgorithm;
+import com.sorting.visualization.algorithm.ComparisonSortingAlgorithm;
+import com.sorting.visualization.algorithm.DoubleComparator;
+import com.sorting.visualization.algorithm.IntComparator;
+import com.sorting.visualization.algorithm.PrimitiveSortingAlgorithm;
+import com.sorting.visualization.algorithm.SortContext;
+import com.sorting.visualization.algorithm.StepMessage;
+import com.sorting.visualization.algorithm.StepTimeline;
 import com.sorting.visualization.model.Highlight;
 import lombok.extern.slf4j.Slf4j;
 
@@ -9,13 +18,14 @@ import java.util.Comparator;
 import java.util.List;
 
 @Slf4j
-public class InsertionSort<T> extends AbstractSortingAlgorithm<T> {
+public class InsertionSort<T> extends AbstractSortingAlgorithm<T>
+        implements ComparisonSortingAlgorithm<T>, PrimitiveSortingAlgorithm {
 
     @Override
-    public TeachingResult<T> teach(List<T> data, Comparator<T> comparator) {
-        initTeaching(data);
+    public TeachingResult<T> teach(StepTimeline<T> timeline, Comparator<T> comparator) {
+        SortContext<T> context = initTeaching(timeline);
 
-        List<T> workingData = new ArrayList<>(data);
+        List<T> workingData = workingList(context);
         int n = workingData.size();
 
         // 添加初始步骤
@@ -27,35 +37,31 @@ public class InsertionSort<T> extends AbstractSortingAlgorithm<T> {
             int j = i - 1;
 
             highlight = new Highlight();
-            List<Integer> sorted = new ArrayList<>();
-            for (int k = 0; k < i; k++) {
-                sorted.add(k);
-            }
-            highlight.setSorted(sorted);
-            highlight.setCompare(List.of(i));
+            highlight.sortedRange(0, i);
+            highlight.compare(i);
 
-            addStep(workingData, highlight,
-                    String.format("处理第%d个元素[%s]，将其插入到已排序序列中", i + 1, key));
+            addStep(context, workingData, highlight,
+                    describe(context, StepMessage.INSERTION_PICK).arg(i + 1).value(key));
 
             // 向后移动元素，为key找到合适位置
             while (j >= 0) {
                 highlight = new Highlight();
-                highlight.setCompare(List.of(j, i));
-                highlight.setSorted(sorted);
+                highlight.compare(j, i);
+                highlight.sortedRange(0, i);
 
-                addStep(workingData, highlight,
-                        String.format("比较当前元素[%s]和第%d个元素[%s]",
-                                key, j + 1, workingData.get(j)));
+                addStep(context, workingData, highlight,
+                        describe(context, StepMessage.INSERTION_COMPARE)
+                                .value(key).arg(j + 1).value(workingData.get(j)));
 
-                if (compare(comparator, workingData.get(j), key) > 0) {
+                if (compare(context, comparator, workingData.get(j), key) > 0) {
                     workingData.set(j + 1, workingData.get(j));
 
                     highlight = new Highlight();
-                    highlight.setSwap(List.of(j, j + 1));
-                    highlight.setSorted(sorted);
+                    highlight.swap(j, j + 1);
+                    highlight.sortedRange(0, i);
 
-                    addStep(workingData, highlight,
-                            String.format("将第%d个元素向右移动", j + 1));
+                    addStep(context, workingData, highlight,
+                            describe(context, StepMessage.INSERTION_SHIFT).arg(j + 1));
 
                     j--;
                 } else {
@@ -66,33 +72,31 @@ public class InsertionSort<T> extends AbstractSortingAlgorithm<T> {
             workingData.set(j + 1, key);
 
             highlight = new Highlight();
-            highlight.setSorted(sorted);
-            highlight.setSwap(List.of(j + 1));
+            highlight.sortedRange(0, i);
+            highlight.swap(j + 1);
 
-            addStep(workingData, highlight,
-                    String.format("将元素[%s]插入到第%d个位置", key, j + 2));
+            addStep(context, workingData, highlight,
+                    describe(context, StepMessage.INSERT_AT).value(key).arg(j + 2));
         }
 
-        return completeTeaching(workingData, steps.size() + 1);
+        return completeTeaching(context, workingData);
     }
 
     @Override
     public PerformanceResult<T> perform(List<T> data, Comparator<T> comparator) {
         List<T> workingData = new ArrayList<>(data);
         int n = workingData.size();
-        comparisons = 0;
-        swaps = 0;
-        startTime = System.nanoTime();
+        SortContext<T> context = SortContext.forPerformance();
 
         for (int i = 1; i < n; i++) {
             T key = workingData.get(i);
             int j = i - 1;
 
             while (j >= 0) {
-                comparisons++;
+                context.recordComparison();
                 if (comparator.compare(workingData.get(j), key) > 0) {
                     workingData.set(j + 1, workingData.get(j));
-                    swaps++;
+                    context.recordSwap();
                     j--;
                 } else {
                     break;
@@ -101,15 +105,63 @@ public class InsertionSort<T> extends AbstractSortingAlgorithm<T> {
             workingData.set(j + 1, key);
         }
 
-        long time = (System.nanoTime() - startTime)/1000;
+        return completePerformance(context, workingData);
+    }
+
+    @Override
+    public PerformanceResult<Integer> performInt(int[] data, IntComparator comparator) {
+        int n = data.length;
+        int comparisons = 0;
+        int swaps = 0;
+        long start = System.nanoTime();
+
+        for (int i = 1; i < n; i++) {
+            int key = data[i];
+            int j = i - 1;
 
-        PerformanceResult<T> result = new PerformanceResult<>();
-        result.setSortedData(workingData);
-        result.setComparisons(comparisons);
-        result.setSwaps(swaps);
-        result.setTime(time);
+            while (j >= 0) {
+                comparisons++;
+                if (comparator.compare(data[j], key) > 0) {
+                    data[j + 1] = data[j];
+                    swaps++;
+                    j--;
+                } else {
+                    break;
+                }
+            }
+            data[j + 1] = key;
+        }
 
-        return result;
+        long time = (System.nanoTime() - start) / 1000;
+        return performanceResult(Ints.asList(data), comparisons, swaps, time);
+    }
+
+    @Override
+    public PerformanceResult<Double> performDouble(double[] data, DoubleComparator comparator) {
+        int n = data.length;
+        int comparisons = 0;
+        int swaps = 0;
+        long start = System.nanoTime();
+
+        for (int i = 1; i < n; i++) {
+            double key = data[i];
+            int j = i - 1;
+
+            while (j >= 0) {
+                comparisons++;
+                if (comparator.compare(data[j], key) > 0) {
+                    data[j + 1] = data[j];
+                    swaps++;
+                    j--;
+                } else {
+                    break;
+                }
+            }
+            data[j + 1] = key;
+        }
+
+        long time = (System.nanoTime() - start) / 1000;
+        return performanceResult(Doubles.asList(data), comparisons, swaps, time);
     }
 
     @Override
@@ -136,4 +188,10 @@ public class InsertionSort<T> extends AbstractSortingAlgorithm<T> {
     public boolean supportsDataType(Class<?> dataType) {
         return true;
     }
+
+    @Override
+    public long estimateTeachingSteps(int size) {
+        // 约 n²/4 次比较与 n²/4 次移动各占一步
+        return (long) size * size / 2 + 2;
+    }
 }
\ No newline at end of file
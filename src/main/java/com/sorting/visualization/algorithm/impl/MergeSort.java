@@ -1,6 +1,15 @@
 package com.sorting.visualization.algorithm.impl;
 
+import com.google.common.primitives.Doubles;
+import com.google.common.primitives.Ints;
 import com.sorting.visualization.algorithm.AbstractSortingAlgorithm;
+import com.sorting.visualization.algorithm.ComparisonSortingAlgorithm;
+import com.sorting.visualization.algorithm.DoubleComparator;
+import com.sorting.visualization.algorithm.IntComparator;
+import com.sorting.visualization.algorithm.PrimitiveSortingAlgorithm;
+import com.sorting.visualization.algorithm.SortContext;
+import com.sorting.visualization.algorithm.StepMessage;
+import com.sorting.visualization.algorithm.StepTimeline;
 import com.sorting.visualization.model.Highlight;
 import lombok.extern.slf4j.Slf4j;
 
@@ -9,59 +18,53 @@ import java.util.Comparator;
 import java.util.List;
 
 @Slf4j
-public class MergeSort<T> extends AbstractSortingAlgorithm<T> {
+public class MergeSort<T> extends AbstractSortingAlgorithm<T>
+        implements ComparisonSortingAlgorithm<T>, PrimitiveSortingAlgorithm {
 
     @Override
-    public TeachingResult<T> teach(List<T> data, Comparator<T> comparator) {
-        initTeaching(data);
+    public TeachingResult<T> teach(StepTimeline<T> timeline, Comparator<T> comparator) {
+        SortContext<T> context = initTeaching(timeline);
 
-        List<T> workingData = new ArrayList<>(data);
+        List<T> workingData = workingList(context);
 
         // 开始归并排序
-        mergeSortTeach(workingData, 0, workingData.size() - 1, comparator, new ArrayList<>());
+        mergeSortTeach(context, workingData, 0, workingData.size() - 1, comparator, new ArrayList<>());
 
-        return completeTeaching(workingData, steps.size() + 1);
+        return completeTeaching(context, workingData);
     }
 
-    private void mergeSortTeach(List<T> data, int left, int right, Comparator<T> comparator, List<T> temp) {
+    private void mergeSortTeach(SortContext<T> context, List<T> data, int left, int right, Comparator<T> comparator, List<T> temp) {
         if (left < right) {
             int mid = left + (right - left) / 2;
 
             Highlight highlight = new Highlight();
-            List<Integer> leftPart = new ArrayList<>();
-            for (int i = left; i <= mid; i++) leftPart.add(i);
-            List<Integer> rightPart = new ArrayList<>();
-            for (int i = mid + 1; i <= right; i++) rightPart.add(i);
-
-            highlight.setCompare(leftPart);
-            highlight.setSwap(rightPart);
+            highlight.compareRange(left, mid + 1);
+            highlight.swapRange(mid + 1, right + 1);
 
-            addStep(data, highlight,
-                    String.format("分解数组 [%d, %d] -> [%d, %d] 和 [%d, %d]",
-                            left + 1, right + 1, left + 1, mid + 1, mid + 2, right + 1));
+            addStep(context, data, highlight,
+                    describe(context, StepMessage.MERGE_SPLIT).arg(left + 1).arg(right + 1)
+                            .arg(left + 1).arg(mid + 1).arg(mid + 2).arg(right + 1));
 
             // 递归排序左半部分
-            mergeSortTeach(data, left, mid, comparator, temp);
+            mergeSortTeach(context, data, left, mid, comparator, temp);
 
             // 递归排序右半部分
-            mergeSortTeach(data, mid + 1, right, comparator, temp);
+            mergeSortTeach(context, data, mid + 1, right, comparator, temp);
 
             // 合并两个有序部分
-            mergeTeach(data, left, mid, right, comparator, temp);
+            mergeTeach(context, data, left, mid, right, comparator, temp);
         }
     }
 
     @SuppressWarnings("unchecked")
-    private void mergeTeach(List<T> data, int left, int mid, int right, Comparator<T> comparator, List<T> temp) {
+    private void mergeTeach(SortContext<T> context, List<T> data, int left, int mid, int right, Comparator<T> comparator, List<T> temp) {
 
         Highlight highlight = new Highlight();
-        List<Integer> mergeRange = new ArrayList<>();
-        for (int i = left; i <= right; i++) mergeRange.add(i);
-        highlight.setCompare(mergeRange);
+        highlight.compareRange(left, right + 1);
 
-        addStep(data, highlight,
-                String.format("合并有序子数组 [%d, %d] 和 [%d, %d]",
-                        left + 1, mid + 1, mid + 2, right + 1));
+        addStep(context, data, highlight,
+                describe(context, StepMessage.MERGE_START)
+                        .arg(left + 1).arg(mid + 1).arg(mid + 2).arg(right + 1));
 
         int i = left;
         int j = mid + 1;
@@ -72,30 +75,30 @@ public class MergeSort<T> extends AbstractSortingAlgorithm<T> {
 
         while (i <= mid && j <= right) {
             highlight = new Highlight();
-            highlight.setCompare(List.of(i, j));
+            highlight.compare(i, j);
 
-            addStep(data, highlight,
-                    String.format("比较左子数组第%d个元素[%s]和右子数组第%d个元素[%s]",
-                            i - left + 1, data.get(i), j - mid, data.get(j)));
+            addStep(context, data, highlight,
+                    describe(context, StepMessage.MERGE_COMPARE)
+                            .arg(i - left + 1).value(data.get(i)).arg(j - mid).value(data.get(j)));
 
-            if (compare(comparator, data.get(i), data.get(j)) <= 0) {
+            if (compare(context, comparator, data.get(i), data.get(j)) <= 0) {
                 temp.add(data.get(i));
 
                 highlight = new Highlight();
-                highlight.setSwap(List.of(i));
+                highlight.swap(i);
 
-                addStep(data, highlight,
-                        String.format("取左子数组元素[%s]", data.get(i)));
+                addStep(context, data, highlight,
+                        describe(context, StepMessage.MERGE_TAKE_LEFT).value(data.get(i)));
 
                 i++;
             } else {
                 temp.add(data.get(j));
 
                 highlight = new Highlight();
-                highlight.setSwap(List.of(j));
+                highlight.swap(j);
 
-                addStep(data, highlight,
-                        String.format("取右子数组元素[%s]", data.get(j)));
+                addStep(context, data, highlight,
+                        describe(context, StepMessage.MERGE_TAKE_RIGHT).value(data.get(j)));
 
                 j++;
             }
@@ -107,10 +110,10 @@ public class MergeSort<T> extends AbstractSortingAlgorithm<T> {
             temp.add(data.get(i));
 
             highlight = new Highlight();
-            highlight.setSwap(List.of(i));
+            highlight.swap(i);
 
-            addStep(data, highlight,
-                    String.format("复制左子数组剩余元素[%s]", data.get(i)));
+            addStep(context, data, highlight,
+                    describe(context, StepMessage.MERGE_COPY_LEFT).value(data.get(i)));
 
             i++;
             k++;
@@ -120,10 +123,10 @@ public class MergeSort<T> extends AbstractSortingAlgorithm<T> {
             temp.add(data.get(j));
 
             highlight = new Highlight();
-            highlight.setSwap(List.of(j));
+            highlight.swap(j);
 
-            addStep(data, highlight,
-                    String.format("复制右子数组剩余元素[%s]", data.get(j)));
+            addStep(context, data, highlight,
+                    describe(context, StepMessage.MERGE_COPY_RIGHT).value(data.get(j)));
 
             j++;
             k++;
@@ -135,51 +138,39 @@ public class MergeSort<T> extends AbstractSortingAlgorithm<T> {
         }
 
         highlight = new Highlight();
-        List<Integer> mergedRange = new ArrayList<>();
-        for (int idx = left; idx <= right; idx++) mergedRange.add(idx);
-        highlight.setSorted(mergedRange);
+        highlight.sortedRange(left, right + 1);
 
-        addStep(data, highlight,
-                String.format("合并完成，范围 [%d, %d] 已有序", left + 1, right + 1));
+        addStep(context, data, highlight,
+                describe(context, StepMessage.MERGE_DONE).arg(left + 1).arg(right + 1));
     }
 
     @Override
     public PerformanceResult<T> perform(List<T> data, Comparator<T> comparator) {
         List<T> workingData = new ArrayList<>(data);
-        comparisons = 0;
-        swaps = 0;
-        startTime = System.nanoTime();
-
-        mergeSort(workingData, 0, workingData.size() - 1, comparator, new ArrayList<>());
-
-        long time = (System.nanoTime() - startTime)/1000;
+        SortContext<T> context = SortContext.forPerformance();
 
-        PerformanceResult<T> result = new PerformanceResult<>();
-        result.setSortedData(workingData);
-        result.setComparisons(comparisons);
-        result.setSwaps(swaps);
-        result.setTime(time);
+        mergeSort(context, workingData, 0, workingData.size() - 1, comparator, new ArrayList<>());
 
-        return result;
+        return completePerformance(context, workingData);
     }
 
-    private void mergeSort(List<T> data, int left, int right, Comparator<T> comparator, List<T> temp) {
+    private void mergeSort(SortContext<T> context, List<T> data, int left, int right, Comparator<T> comparator, List<T> temp) {
         if (left < right) {
             int mid = left + (right - left) / 2;
 
             // 递归排序左半部分
-            mergeSort(data, left, mid, comparator, temp);
+            mergeSort(context, data, left, mid, comparator, temp);
 
             // 递归排序右半部分
-            mergeSort(data, mid + 1, right, comparator, temp);
+            mergeSort(context, data, mid + 1, right, comparator, temp);
 
             // 合并两个有序部分
-            merge(data, left, mid, right, comparator, temp);
+            merge(context, data, left, mid, right, comparator, temp);
         }
     }
 
     @SuppressWarnings("unchecked")
-    private void merge(List<T> data, int left, int mid, int right, Comparator<T> comparator, List<T> temp) {
+    private void merge(SortContext<T> context, List<T> data, int left, int mid, int right, Comparator<T> comparator, List<T> temp) {
         int i = left;
         int j = mid + 1;
         int k = 0;
@@ -188,7 +179,7 @@ public class MergeSort<T> extends AbstractSortingAlgorithm<T> {
         temp.clear();
 
         while (i <= mid && j <= right) {
-            comparisons++;
+            context.recordComparison();
             if (comparator.compare(data.get(i), data.get(j)) <= 0) {
                 temp.add(data.get(i));
                 i++;
@@ -218,10 +209,100 @@ public class MergeSort<T> extends AbstractSortingAlgorithm<T> {
             data.set(left + i, temp.get(i));
             // 在归并排序中，每次设置操作可以视为一次数据移动
             // 但不是传统意义上的交换，所以统计为"移动"
-            swaps++;  // 这里增加移动次数统计
+            context.recordSwap();  // 这里增加移动次数统计
+        }
+    }
+
+    @Override
+    public PerformanceResult<Integer> performInt(int[] data, IntComparator comparator) {
+        long[] counters = new long[2]; // [比较次数, 移动次数]
+        long start = System.nanoTime();
+
+        mergeSort(data, 0, data.length - 1, comparator, new int[data.length], counters);
+
+        long time = (System.nanoTime() - start) / 1000;
+        return performanceResult(Ints.asList(data), counters[0], counters[1], time);
+    }
+
+    private static void mergeSort(int[] data, int left, int right, IntComparator comparator, int[] temp, long[] counters) {
+        if (left < right) {
+            int mid = left + (right - left) / 2;
+            mergeSort(data, left, mid, comparator, temp, counters);
+            mergeSort(data, mid + 1, right, comparator, temp, counters);
+            merge(data, left, mid, right, comparator, temp, counters);
+        }
+    }
+
+    private static void merge(int[] data, int left, int mid, int right, IntComparator comparator, int[] temp, long[] counters) {
+        int i = left;
+        int j = mid + 1;
+        int k = 0;
+
+        while (i <= mid && j <= right) {
+            counters[0]++;
+            if (comparator.compare(data[i], data[j]) <= 0) {
+                temp[k++] = data[i++];
+            } else {
+                temp[k++] = data[j++];
+            }
+        }
+        while (i <= mid) {
+            temp[k++] = data[i++];
+        }
+        while (j <= right) {
+            temp[k++] = data[j++];
+        }
+
+        // 与通用版本一致：写回的每个元素计为一次移动
+        System.arraycopy(temp, 0, data, left, k);
+        counters[1] += k;
+    }
+
+    @Override
+    public PerformanceResult<Double> performDouble(double[] data, DoubleComparator comparator) {
+        long[] counters = new long[2]; // [比较次数, 移动次数]
+        long start = System.nanoTime();
+
+        mergeSort(data, 0, data.length - 1, comparator, new double[data.length], counters);
+
+        long time = (System.nanoTime() - start) / 1000;
+        return performanceResult(Doubles.asList(data), counters[0], counters[1], time);
+    }
+
+    private static void mergeSort(double[] data, int left, int right, DoubleComparator comparator, double[] temp, long[] counters) {
+        if (left < right) {
+            int mid = left + (right - left) / 2;
+            mergeSort(data, left, mid, comparator, temp, counters);
+            mergeSort(data, mid + 1, right, comparator, temp, counters);
+            merge(data, left, mid, right, comparator, temp, counters);
         }
     }
 
+    private static void merge(double[] data, int left, int mid, int right, DoubleComparator comparator, double[] temp, long[] counters) {
+        int i = left;
+        int j = mid + 1;
+        int k = 0;
+
+        while (i <= mid && j <= right) {
+            counters[0]++;
+            if (comparator.compare(data[i], data[j]) <= 0) {
+                temp[k++] = data[i++];
+            } else {
+                temp[k++] = data[j++];
+            }
+        }
+        while (i <= mid) {
+            temp[k++] = data[i++];
+        }
+        while (j <= right) {
+            temp[k++] = data[j++];
+        }
+
+        // 与通用版本一致：写回的每个元素计为一次移动
+        System.arraycopy(temp, 0, data, left, k);
+        counters[1] += k;
+    }
+
     @Override
     public String getAlgorithmName() {
         return "归并排序";
@@ -0,0 +1,471 @@
+package com.sorting.visualization.algorithm.impl;
+
+import com.google.common.primitives.Doubles;
+import com.google.common.primitives.Ints;
+import com.sorting.visualization.algorithm.DoubleComparator;
+import com.sorting.visualization.algorithm.IntComparator;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 并行归并排序（Fork/Join）
+ * <p>
+ * 递归二分后左右两半在 ForkJoinPool 上并行排序，使用一对乒乓缓冲交替作为目标数组，
+ * 避免每层回拷；合并规模较大时按二分切分点将一次合并拆成两个并行子合并。
+ * 顺序排序的粒度按数据量与并行度计算：性能模式的数据量上限（sorting.max-performance-size）只有 1000，
+ * 固定的数千元素阈值会让任务永远不拆分。
+ * 比较/移动次数由各任务各自统计，在 join 时求和，不产生共享计数器竞争。
+ * Object[] / int[] / double[] 共用同一组 Fork/Join 任务，与数组类型相关的部分由 {@link Kernel} 给出。
+ * 教学模式沿用 {@link MergeSort} 的顺序步骤。
+ */
+@Slf4j
+public class ParallelMergeSort<T> extends MergeSort<T> {
+
+    /** 顺序排序粒度的上限：数据量大时每个叶子任务至多排序这么多元素 */
+    private static final int MAX_SEQUENTIAL_THRESHOLD = 1 << 12;
+
+    /** 顺序排序粒度的下限：更小的任务调度开销超过并行收益 */
+    private static final int MIN_SEQUENTIAL_THRESHOLD = 1 << 7;
+
+    /** 每个工作线程平均分到的叶子任务数，留出余量供工作窃取平衡负载 */
+    private static final int TASKS_PER_THREAD = 4;
+
+    /** 子数组不超过该长度时使用插入排序 */
+    private static final int INSERTION_THRESHOLD = 16;
+
+    /**
+     * 专用 ForkJoinPool，并行度为 CPU 核数：多个会话的并行排序共用这些线程，总 CPU 占用有上限；
+     * 不占用公共池，不影响 CompletableFuture 默认异步执行与并行流
+     */
+    private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors(),
+            pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("parallel-merge-" + thread.getPoolIndex());
+                return thread;
+            }, null, false);
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public PerformanceResult<T> perform(List<T> data, Comparator<T> comparator) {
+        Object[] workingData = data.toArray();
+        Object[] buffer = workingData.clone();
+        long start = System.nanoTime();
+
+        Counts counts = POOL.invoke(new SortTask<>(new ObjectKernel<>(comparator), sequentialThreshold(workingData.length),
+                workingData, buffer, 0, workingData.length));
+
+        long time = (System.nanoTime() - start) / 1000;
+        List<T> sorted = (List<T>) Arrays.asList(workingData);
+        return performanceResult(sorted, counts.comparisons(), counts.moves(), time);
+    }
+
+    @Override
+    public PerformanceResult<Integer> performInt(int[] data, IntComparator comparator) {
+        int[] buffer = data.clone();
+        long start = System.nanoTime();
+
+        Counts counts = POOL.invoke(new SortTask<>(new IntKernel(comparator), sequentialThreshold(data.length),
+                data, buffer, 0, data.length));
+
+        long time = (System.nanoTime() - start) / 1000;
+        return performanceResult(Ints.asList(data), counts.comparisons(), counts.moves(), time);
+    }
+
+    @Override
+    public PerformanceResult<Double> performDouble(double[] data, DoubleComparator comparator) {
+        double[] buffer = data.clone();
+        long start = System.nanoTime();
+
+        Counts counts = POOL.invoke(new SortTask<>(new DoubleKernel(comparator), sequentialThreshold(data.length),
+                data, buffer, 0, data.length));
+
+        long time = (System.nanoTime() - start) / 1000;
+        return performanceResult(Doubles.asList(data), counts.comparisons(), counts.moves(), time);
+    }
+
+    @Override
+    public String getAlgorithmName() {
+        return "并行归并排序";
+    }
+
+    @Override
+    public String getTimeComplexity() {
+        return "O(n log n)";
+    }
+
+    @Override
+    public String getSpaceComplexity() {
+        return "O(n)";
+    }
+
+    /**
+     * 顺序排序的粒度：约为 n / (并行度 × TASKS_PER_THREAD)，限制在 [MIN, MAX]_SEQUENTIAL_THRESHOLD 内；
+     * 合并总长度超过粒度的两倍时拆分为并行子合并
+     */
+    private static int sequentialThreshold(int n) {
+        int grain = n / (POOL.getParallelism() * TASKS_PER_THREAD);
+        return Math.max(MIN_SEQUENTIAL_THRESHOLD, Math.min(MAX_SEQUENTIAL_THRESHOLD, grain));
+    }
+
+    /**
+     * 单个任务的比较/移动次数，join 时逐级相加
+     */
+    private record Counts(long comparisons, long moves) {
+        Counts plus(Counts other) {
+            return new Counts(comparisons + other.comparisons, moves + other.moves);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> int compare(Comparator<T> comparator, Object a, Object b) {
+        return comparator.compare((T) a, (T) b);
+    }
+
+    /**
+     * 一种数组类型（Object[] / int[] / double[]）上的顺序排序、顺序合并与按下标比较。
+     * 并行任务的阈值判断、切分点查找只写一份，逐元素的热循环仍在各类型的专用实现中
+     */
+    private interface Kernel<A> {
+        void sortSequential(A dst, A src, int lo, int hi, long[] counters);
+
+        void mergeSequential(A src, int lo1, int hi1, int lo2, int hi2, A dst, int out, long[] counters);
+
+        /** 比较 data[i] 与 data[j] */
+        int compare(A data, int i, int j);
+    }
+
+    private record ObjectKernel<T>(Comparator<T> comparator) implements Kernel<Object[]> {
+        @Override
+        public void sortSequential(Object[] dst, Object[] src, int lo, int hi, long[] counters) {
+            ParallelMergeSort.sortSequential(dst, src, lo, hi, comparator, counters);
+        }
+
+        @Override
+        public void mergeSequential(Object[] src, int lo1, int hi1, int lo2, int hi2, Object[] dst, int out, long[] counters) {
+            ParallelMergeSort.mergeSequential(src, lo1, hi1, lo2, hi2, dst, out, comparator, counters);
+        }
+
+        @Override
+        public int compare(Object[] data, int i, int j) {
+            return ParallelMergeSort.compare(comparator, data[i], data[j]);
+        }
+    }
+
+    private record IntKernel(IntComparator comparator) implements Kernel<int[]> {
+        @Override
+        public void sortSequential(int[] dst, int[] src, int lo, int hi, long[] counters) {
+            ParallelMergeSort.sortSequential(dst, src, lo, hi, comparator, counters);
+        }
+
+        @Override
+        public void mergeSequential(int[] src, int lo1, int hi1, int lo2, int hi2, int[] dst, int out, long[] counters) {
+            ParallelMergeSort.mergeSequential(src, lo1, hi1, lo2, hi2, dst, out, comparator, counters);
+        }
+
+        @Override
+        public int compare(int[] data, int i, int j) {
+            return comparator.compare(data[i], data[j]);
+        }
+    }
+
+    private record DoubleKernel(DoubleComparator comparator) implements Kernel<double[]> {
+        @Override
+        public void sortSequential(double[] dst, double[] src, int lo, int hi, long[] counters) {
+            ParallelMergeSort.sortSequential(dst, src, lo, hi, comparator, counters);
+        }
+
+        @Override
+        public void mergeSequential(double[] src, int lo1, int hi1, int lo2, int hi2, double[] dst, int out, long[] counters) {
+            ParallelMergeSort.mergeSequential(src, lo1, hi1, lo2, hi2, dst, out, comparator, counters);
+        }
+
+        @Override
+        public int compare(double[] data, int i, int j) {
+            return comparator.compare(data[i], data[j]);
+        }
+    }
+
+    /**
+     * 排序任务：保证 dst[lo, hi) 有序，src 为同内容的辅助数组（乒乓缓冲）
+     */
+    private static final class SortTask<A> extends RecursiveTask<Counts> {
+        private static final long serialVersionUID = 1L;
+
+        private final Kernel<A> kernel;
+        private final int threshold;
+        private final A dst;
+        private final A src;
+        private final int lo;
+        private final int hi;
+
+        SortTask(Kernel<A> kernel, int threshold, A dst, A src, int lo, int hi) {
+            this.kernel = kernel;
+            this.threshold = threshold;
+            this.dst = dst;
+            this.src = src;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected Counts compute() {
+            if (hi - lo <= threshold) {
+                long[] counters = new long[2];
+                kernel.sortSequential(dst, src, lo, hi, counters);
+                return new Counts(counters[0], counters[1]);
+            }
+
+            int mid = (lo + hi) >>> 1;
+            // 子任务以 src 为目标、dst 为辅助，排好后再由 src 合并回 dst
+            SortTask<A> left = new SortTask<>(kernel, threshold, src, dst, lo, mid);
+            SortTask<A> right = new SortTask<>(kernel, threshold, src, dst, mid, hi);
+            left.fork();
+            Counts rightCounts = right.compute();
+            Counts leftCounts = left.join();
+
+            Counts mergeCounts = new MergeTask<>(kernel, 2 * threshold, src, lo, mid, mid, hi, dst, lo).compute();
+            return leftCounts.plus(rightCounts).plus(mergeCounts);
+        }
+    }
+
+    /**
+     * 合并任务：将 src[lo1, hi1) 与 src[lo2, hi2) 合并到 dst[out, ...)，
+     * 规模较大时在较长一段取中点，另一段二分查找切分点，两半并行合并
+     */
+    private static final class MergeTask<A> extends RecursiveTask<Counts> {
+        private static final long serialVersionUID = 1L;
+
+        private final Kernel<A> kernel;
+        private final int threshold;
+        private final A src;
+        private final int lo1;
+        private final int hi1;
+        private final int lo2;
+        private final int hi2;
+        private final A dst;
+        private final int out;
+
+        MergeTask(Kernel<A> kernel, int threshold, A src, int lo1, int hi1, int lo2, int hi2, A dst, int out) {
+            this.kernel = kernel;
+            this.threshold = threshold;
+            this.src = src;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dst = dst;
+            this.out = out;
+        }
+
+        @Override
+        protected Counts compute() {
+            int n1 = hi1 - lo1;
+            int n2 = hi2 - lo2;
+            if (n1 + n2 <= threshold) {
+                long[] counters = new long[2];
+                kernel.mergeSequential(src, lo1, hi1, lo2, hi2, dst, out, counters);
+                return new Counts(counters[0], counters[1]);
+            }
+
+            long[] counters = new long[2];
+            int p;
+            int q;
+            if (n1 >= n2) {
+                p = (lo1 + hi1) >>> 1;
+                // 右段中严格小于 src[p] 的元素排在前半部分（相等元素保持左段在前，保证稳定）
+                q = lowerBound(kernel, src, lo2, hi2, p, counters);
+            } else {
+                q = (lo2 + hi2) >>> 1;
+                // 左段中小于等于 src[q] 的元素排在前半部分
+                p = upperBound(kernel, src, lo1, hi1, q, counters);
+            }
+            int split = out + (p - lo1) + (q - lo2);
+
+            MergeTask<A> left = new MergeTask<>(kernel, threshold, src, lo1, p, lo2, q, dst, out);
+            MergeTask<A> right = new MergeTask<>(kernel, threshold, src, p, hi1, q, hi2, dst, split);
+            left.fork();
+            Counts rightCounts = right.compute();
+            Counts leftCounts = left.join();
+            return leftCounts.plus(rightCounts).plus(new Counts(counters[0], 0));
+        }
+    }
+
+    /**
+     * data[lo, hi) 中第一个不小于 data[key] 的位置
+     */
+    private static <A> int lowerBound(Kernel<A> kernel, A data, int lo, int hi, int key, long[] counters) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            counters[0]++;
+            if (kernel.compare(data, mid, key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * data[lo, hi) 中第一个大于 data[key] 的位置
+     */
+    private static <A> int upperBound(Kernel<A> kernel, A data, int lo, int hi, int key, long[] counters) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            counters[0]++;
+            if (kernel.compare(data, mid, key) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // ---- 各数组类型的顺序排序与顺序合并，逻辑一致 ----
+
+    private static <T> void sortSequential(Object[] dst, Object[] src, int lo, int hi, Comparator<T> comparator, long[] counters) {
+        if (hi - lo <= INSERTION_THRESHOLD) {
+            insertionSort(dst, lo, hi, comparator, counters);
+            return;
+        }
+
+        int mid = (lo + hi) >>> 1;
+        sortSequential(src, dst, lo, mid, comparator, counters);
+        sortSequential(src, dst, mid, hi, comparator, counters);
+
+        // 两段已整体有序时直接复制，避免逐个比较
+        counters[0]++;
+        if (compare(comparator, src[mid - 1], src[mid]) <= 0) {
+            System.arraycopy(src, lo, dst, lo, hi - lo);
+            counters[1] += hi - lo;
+            return;
+        }
+        mergeSequential(src, lo, mid, mid, hi, dst, lo, comparator, counters);
+    }
+
+    private static <T> void insertionSort(Object[] data, int lo, int hi, Comparator<T> comparator, long[] counters) {
+        for (int i = lo + 1; i < hi; i++) {
+            Object key = data[i];
+            int j = i - 1;
+            while (j >= lo) {
+                counters[0]++;
+                if (compare(comparator, data[j], key) > 0) {
+                    data[j + 1] = data[j];
+                    counters[1]++;
+                    j--;
+                } else {
+                    break;
+                }
+            }
+            data[j + 1] = key;
+        }
+    }
+
+    private static <T> void mergeSequential(Object[] src, int lo1, int hi1, int lo2, int hi2,
+                                        Object[] dst, int out, Comparator<T> comparator, long[] counters) {
+        int i = lo1;
+        int j = lo2;
+        int k = out;
+
+        while (i < hi1 && j < hi2) {
+            counters[0]++;
+            if (compare(comparator, src[i], src[j]) <= 0) {
+                dst[k++] = src[i++];
+            } else {
+                dst[k++] = src[j++];
+            }
+        }
+        System.arraycopy(src, i, dst, k, hi1 - i);
+        k += hi1 - i;
+        System.arraycopy(src, j, dst, k, hi2 - j);
+        k += hi2 - j;
+        counters[1] += k - out;
+    }
+
+    private static void sortSequential(int[] dst, int[] src, int lo, int hi, IntComparator comparator, long[] counters) {
+        if (hi - lo <= INSERTION_THRESHOLD) {
+            PrimitiveKernels.insertionSort(dst, lo, hi - 1, comparator, counters);
+            return;
+        }
+
+        int mid = (lo + hi) >>> 1;
+        sortSequential(src, dst, lo, mid, comparator, counters);
+        sortSequential(src, dst, mid, hi, comparator, counters);
+
+        counters[0]++;
+        if (comparator.compare(src[mid - 1], src[mid]) <= 0) {
+            System.arraycopy(src, lo, dst, lo, hi - lo);
+            counters[1] += hi - lo;
+            return;
+        }
+        mergeSequential(src, lo, mid, mid, hi, dst, lo, comparator, counters);
+    }
+
+    private static void mergeSequential(int[] src, int lo1, int hi1, int lo2, int hi2,
+                                        int[] dst, int out, IntComparator comparator, long[] counters) {
+        int i = lo1;
+        int j = lo2;
+        int k = out;
+
+        while (i < hi1 && j < hi2) {
+            counters[0]++;
+            if (comparator.compare(src[i], src[j]) <= 0) {
+                dst[k++] = src[i++];
+            } else {
+                dst[k++] = src[j++];
+            }
+        }
+        System.arraycopy(src, i, dst, k, hi1 - i);
+        k += hi1 - i;
+        System.arraycopy(src, j, dst, k, hi2 - j);
+        k += hi2 - j;
+        counters[1] += k - out;
+    }
+
+    private static void sortSequential(double[] dst, double[] src, int lo, int hi, DoubleComparator comparator, long[] counters) {
+        if (hi - lo <= INSERTION_THRESHOLD) {
+            PrimitiveKernels.insertionSort(dst, lo, hi - 1, comparator, counters);
+            return;
+        }
+
+        int mid = (lo + hi) >>> 1;
+        sortSequential(src, dst, lo, mid, comparator, counters);
+        sortSequential(src, dst, mid, hi, comparator, counters);
+
+        counters[0]++;
+        if (comparator.compare(src[mid - 1], src[mid]) <= 0) {
+            System.arraycopy(src, lo, dst, lo, hi - lo);
+            counters[1] += hi - lo;
+            return;
+        }
+        mergeSequential(src, lo, mid, mid, hi, dst, lo, comparator, counters);
+    }
+
+    private static void mergeSequential(double[] src, int lo1, int hi1, int lo2, int hi2,
+                                        double[] dst, int out, DoubleComparator comparator, long[] counters) {
+        int i = lo1;
+        int j = lo2;
+        int k = out;
+
+        while (i < hi1 && j < hi2) {
+            counters[0]++;
+            if (comparator.compare(src[i], src[j]) <= 0) {
+                dst[k++] = src[i++];
+            } else {
+                dst[k++] = src[j++];
+            }
+        }
+        System.arraycopy(src, i, dst, k, hi1 - i);
+        k += hi1 - i;
+        System.arraycopy(src, j, dst, k, hi2 - j);
+        k += hi2 - j;
+        counters[1] += k - out;
+    }
+}
@@ -0,0 +1,79 @@
+package com.sorting.visualization.algorithm.impl;
+
+import com.sorting.visualization.algorithm.DoubleComparator;
+import com.sorting.visualization.algorithm.IntComparator;
+
+/**
+ * 各算法 int[] / double[] 性能内核共用的小工具：插入排序与三数取中。
+ * <p>
+ * 区间均为闭区间 [low, high]，counters 为 [比较次数, 移动/交换次数]，与各内核的计数方式一致。
+ */
+final class PrimitiveKernels {
+
+    private PrimitiveKernels() {}
+
+    static void insertionSort(int[] data, int low, int high, IntComparator comparator, long[] counters) {
+        for (int i = low + 1; i <= high; i++) {
+            int key = data[i];
+            int j = i - 1;
+
+            while (j >= low) {
+                counters[0]++;
+                if (comparator.compare(data[j], key) > 0) {
+                    data[j + 1] = data[j];
+                    counters[1]++;
+                    j--;
+                } else {
+                    break;
+                }
+            }
+            data[j + 1] = key;
+        }
+    }
+
+    static void insertionSort(double[] data, int low, int high, DoubleComparator comparator, long[] counters) {
+        for (int i = low + 1; i <= high; i++) {
+            double key = data[i];
+            int j = i - 1;
+
+            while (j >= low) {
+                counters[0]++;
+                if (comparator.compare(data[j], key) > 0) {
+                    data[j + 1] = data[j];
+                    counters[1]++;
+                    j--;
+                } else {
+                    break;
+                }
+            }
+            data[j + 1] = key;
+        }
+    }
+
+    /**
+     * data[a]、data[b]、data[c] 中位数的下标
+     */
+    static int median3(int[] data, int a, int b, int c, IntComparator comparator, long[] counters) {
+        counters[0] += 2;
+        if (comparator.compare(data[a], data[b]) < 0) {
+            if (comparator.compare(data[b], data[c]) < 0) return b;
+            counters[0]++;
+            return comparator.compare(data[a], data[c]) < 0 ? c : a;
+        }
+        if (comparator.compare(data[b], data[c]) > 0) return b;
+        counters[0]++;
+        return comparator.compare(data[a], data[c]) > 0 ? c : a;
+    }
+
+    static int median3(double[] data, int a, int b, int c, DoubleComparator comparator, long[] counters) {
+        counters[0] += 2;
+        if (comparator.compare(data[a], data[b]) < 0) {
+            if (comparator.compare(data[b], data[c]) < 0) return b;
+            counters[0]++;
+            return comparator.compare(data[a], data[c]) < 0 ? c : a;
+        }
+        if (comparator.compare(data[b], data[c]) > 0) return b;
+        counters[0]++;
+        return comparator.compare(data[a], data[c]) > 0 ? c : a;
+    }
+}
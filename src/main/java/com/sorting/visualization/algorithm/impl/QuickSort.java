@@ -1,6 +1,15 @@
 package com.sorting.visualization.algorithm.impl;
 
+import com.google.common.primitives.Doubles;
+import com.google.common.primitives.Ints;
 import com.sorting.visualization.algorithm.AbstractSortingAlgorithm;
+import com.sorting.visualization.algorithm.ComparisonSortingAlgorithm;
+import com.sorting.visualization.algorithm.DoubleComparator;
+import com.sorting.visualization.algorithm.IntComparator;
+import com.sorting.visualization.algorithm.PrimitiveSortingAlgorithm;
+import com.sorting.visualization.algorithm.SortContext;
+import com.sorting.visualization.algorithm.StepMessage;
+import com.sorting.visualization.algorithm.StepTimeline;
 import com.sorting.visualization.model.Highlight;
 import lombok.extern.slf4j.Slf4j;
 
@@ -9,18 +18,36 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Stack;
 
+/**
+ * 快速排序（内省排序实现）
+ * <p>
+ * 三数取中 / 九数取中选择基准，Hoare 分区；短子数组改用插入排序，
+ * 递归深度超过 2·log2(n) 时对该子数组改用堆排序，保证任何数据分布下都是 O(n log n)。
+ */
 @Slf4j
-public class QuickSort<T> extends AbstractSortingAlgorithm<T> {
+public class QuickSort<T> extends AbstractSortingAlgorithm<T>
+        implements ComparisonSortingAlgorithm<T>, PrimitiveSortingAlgorithm {
+
+    /** 子数组长度不超过该值时改用插入排序 */
+    private static final int INSERTION_THRESHOLD = 16;
+
+    /** 教学模式的插入排序阈值（教学数据规模小，阈值过大会掩盖分区过程） */
+    private static final int TEACHING_INSERTION_THRESHOLD = 4;
+
+    /** 子数组长度超过该值时用九数取中代替三数取中 */
+    private static final int NINTHER_THRESHOLD = 40;
+
+    private final HeapSort<T> heapSort = new HeapSort<>();
 
     @Override
-    public TeachingResult<T> teach(List<T> data, Comparator<T> comparator) {
-        initTeaching(data);
+    public TeachingResult<T> teach(StepTimeline<T> timeline, Comparator<T> comparator) {
+        SortContext<T> context = initTeaching(timeline);
 
-        List<T> workingData = new ArrayList<>(data);
+        List<T> workingData = workingList(context);
 
         // 使用栈代替递归以避免栈溢出
         Stack<QuickSortRange> stack = new Stack<>();
-        stack.push(new QuickSortRange(0, workingData.size() - 1));
+        stack.push(new QuickSortRange(0, workingData.size() - 1, depthLimit(workingData.size())));
 
         while (!stack.isEmpty()) {
             QuickSortRange range = stack.pop();
@@ -29,118 +56,405 @@ public class QuickSort<T> extends AbstractSortingAlgorithm<T> {
 
             if (low < high) {
                 Highlight highlight = new Highlight();
-                List<Integer> currentRange = new ArrayList<>();
-                for (int i = low; i <= high; i++) {
-                    currentRange.add(i);
+                highlight.compareRange(low, high + 1);
+
+                addStep(context, workingData, highlight,
+                        describe(context, StepMessage.QUICK_RANGE).arg(low + 1).arg(high + 1));
+
+                if (high - low + 1 <= TEACHING_INSERTION_THRESHOLD) {
+                    addStep(context, workingData, highlight,
+                            describe(context, StepMessage.QUICK_TO_INSERTION).arg(TEACHING_INSERTION_THRESHOLD));
+                    insertionSortTeach(context, workingData, low, high, comparator);
+                    continue;
                 }
-                highlight.setCompare(currentRange);
 
-                addStep(workingData, highlight,
-                        String.format("快速排序子数组 [%d, %d]", low + 1, high + 1));
+                if (range.depth == 0) {
+                    addStep(context, workingData, highlight, describe(context, StepMessage.QUICK_TO_HEAP));
+                    heapSort.teachRange(context, workingData, low, high, comparator);
+                    continue;
+                }
 
                 // 分区操作
-                int pivotIndex = partition(workingData, low, high, comparator);
+                int split = partitionTeach(context, workingData, low, high, comparator);
 
-                // 将左右子数组入栈
-                stack.push(new QuickSortRange(low, pivotIndex - 1));
-                stack.push(new QuickSortRange(pivotIndex + 1, high));
+                // 右子数组先入栈，先处理左子数组
+                stack.push(new QuickSortRange(split + 1, high, range.depth - 1));
+                stack.push(new QuickSortRange(low, split, range.depth - 1));
             }
         }
 
-        return completeTeaching(workingData, steps.size() + 1);
+        return completeTeaching(context, workingData);
     }
 
-    private int partition(List<T> data, int low, int high, Comparator<T> comparator) {
-        T pivot = data.get(high);
+    /**
+     * Hoare 分区（教学模式），返回分界点 j：[low, j] 不大于基准，[j + 1, high] 不小于基准
+     */
+    private int partitionTeach(SortContext<T> context, List<T> data, int low, int high, Comparator<T> comparator) {
+        int pivotIndex = choosePivotTeach(context, data, low, high, comparator);
+        T pivot = data.get(pivotIndex);
 
         Highlight highlight = new Highlight();
-        highlight.setPivot(List.of(high));
+        highlight.pivot(pivotIndex);
 
-        addStep(data, highlight,
-                String.format("选择基准元素: 第%d个元素[%s]", high + 1, pivot));
+        addStep(context, data, highlight,
+                describe(context, StepMessage.QUICK_PIVOT).arg(pivotIndex + 1).value(pivot));
 
         int i = low - 1;
+        int j = high + 1;
+
+        while (true) {
+            do {
+                i++;
+                highlight = new Highlight();
+                highlight.compare(i);
+                highlight.pivot(pivotIndex);
+
+                addStep(context, data, highlight,
+                        describe(context, StepMessage.QUICK_LEFT_COMPARE)
+                                .arg(i + 1).value(data.get(i)).value(pivot));
+            } while (compare(context, comparator, data.get(i), pivot) < 0);
+
+            do {
+                j--;
+                highlight = new Highlight();
+                highlight.compare(j);
+                highlight.pivot(pivotIndex);
+
+                addStep(context, data, highlight,
+                        describe(context, StepMessage.QUICK_RIGHT_COMPARE)
+                                .arg(j + 1).value(data.get(j)).value(pivot));
+            } while (compare(context, comparator, data.get(j), pivot) > 0);
+
+            if (i >= j) {
+                break;
+            }
+
+            swap(context, data, i, j);
+            // 基准元素本身也可能被交换，跟踪其位置用于高亮
+            if (pivotIndex == i) {
+                pivotIndex = j;
+            } else if (pivotIndex == j) {
+                pivotIndex = i;
+            }
 
-        for (int j = low; j < high; j++) {
             highlight = new Highlight();
-            highlight.setCompare(List.of(j, high));
-            highlight.setPivot(List.of(high));
+            highlight.swap(i, j);
+            highlight.pivot(pivotIndex);
 
-            addStep(data, highlight,
-                    String.format("比较第%d个元素[%s]和基准元素[%s]",
-                            j + 1, data.get(j), pivot));
+            addStep(context, data, highlight,
+                    describe(context, StepMessage.SWAP).arg(i + 1).arg(j + 1));
+        }
 
-            if (compare(comparator, data.get(j), pivot) <= 0) {
-                i++;
+        highlight = new Highlight();
+        highlight.compareRange(low, j + 1);
+        highlight.swapRange(j + 1, high + 1);
 
-                if (i != j) {
-                    swap(data, i, j);
+        addStep(context, data, highlight,
+                describe(context, StepMessage.QUICK_PARTITIONED)
+                        .arg(low + 1).arg(j + 1).arg(j + 2).arg(high + 1));
 
-                    highlight = new Highlight();
-                    highlight.setSwap(List.of(i, j));
-                    highlight.setPivot(List.of(high));
+        return j;
+    }
 
-                    addStep(data, highlight,
-                            String.format("交换第%d个和第%d个元素", i + 1, j + 1));
-                }
-            }
+    /**
+     * 选择基准（教学模式）：短子数组三数取中，长子数组九数取中；三路快速排序共用
+     */
+    int choosePivotTeach(SortContext<T> context, List<T> data, int low, int high,
+                                 Comparator<T> comparator) {
+        int mid = (low + high) >>> 1;
+        Highlight highlight = new Highlight();
+
+        if (high - low + 1 <= NINTHER_THRESHOLD) {
+            highlight.compare(low, mid, high);
+            addStep(context, data, highlight,
+                    describe(context, StepMessage.QUICK_MEDIAN3).arg(low + 1).arg(mid + 1).arg(high + 1));
+            return median3(context, data, low, mid, high, comparator);
         }
 
-        swap(data, i + 1, high);
+        int s = (high - low + 1) / 8;
+        highlight.compare(low, low + s, low + 2 * s, mid - s, mid, mid + s,
+                high - 2 * s, high - s, high);
+        addStep(context, data, highlight, describe(context, StepMessage.QUICK_NINTHER));
 
-        highlight = new Highlight();
-        highlight.setSwap(List.of(i + 1, high));
+        int m1 = median3(context, data, low, low + s, low + 2 * s, comparator);
+        int m2 = median3(context, data, mid - s, mid, mid + s, comparator);
+        int m3 = median3(context, data, high - 2 * s, high - s, high, comparator);
+        return median3(context, data, m1, m2, m3, comparator);
+    }
+
+    private void insertionSortTeach(SortContext<T> context, List<T> data, int low, int high,
+                                    Comparator<T> comparator) {
+        for (int i = low + 1; i <= high; i++) {
+            T key = data.get(i);
+            int j = i - 1;
+
+            while (j >= low) {
+                Highlight highlight = new Highlight();
+                highlight.compare(j, j + 1);
+
+                addStep(context, data, highlight,
+                        describe(context, StepMessage.QUICK_INSERTION_COMPARE)
+                                .value(key).arg(j + 1).value(data.get(j)));
+
+                if (compare(context, comparator, data.get(j), key) > 0) {
+                    data.set(j + 1, data.get(j));
+                    context.recordSwap();
+                    j--;
+                } else {
+                    break;
+                }
+            }
+            data.set(j + 1, key);
 
-        addStep(data, highlight,
-                String.format("将基准元素交换到正确位置: 第%d位", i + 2));
+            Highlight highlight = new Highlight();
+            highlight.swap(j + 1);
 
-        return i + 1;
+            addStep(context, data, highlight,
+                    describe(context, StepMessage.INSERT_AT).value(key).arg(j + 2));
+        }
     }
 
     @Override
     public PerformanceResult<T> perform(List<T> data, Comparator<T> comparator) {
         List<T> workingData = new ArrayList<>(data);
-        comparisons = 0;
-        swaps = 0;
-        startTime = System.nanoTime();
+        SortContext<T> context = SortContext.forPerformance();
+
+        introSort(context, workingData, 0, workingData.size() - 1, depthLimit(workingData.size()), comparator);
+
+        return completePerformance(context, workingData);
+    }
+
+    private void introSort(SortContext<T> context, List<T> data, int low, int high, int depth,
+                           Comparator<T> comparator) {
+        while (high - low + 1 > INSERTION_THRESHOLD) {
+            if (depth == 0) {
+                heapSort.sortRange(context, data, low, high, comparator);
+                return;
+            }
+            depth--;
+
+            int split = partition(context, data, low, high, comparator);
+
+            // 递归处理较短的一侧，较长的一侧继续循环，栈深度保持 O(log n)
+            if (split - low < high - split) {
+                introSort(context, data, low, split, depth, comparator);
+                low = split + 1;
+            } else {
+                introSort(context, data, split + 1, high, depth, comparator);
+                high = split;
+            }
+        }
+        insertionSort(context, data, low, high, comparator);
+    }
+
+    private int partition(SortContext<T> context, List<T> data, int low, int high, Comparator<T> comparator) {
+        T pivot = data.get(choosePivot(context, data, low, high, comparator));
+        int i = low - 1;
+        int j = high + 1;
+
+        while (true) {
+            do {
+                i++;
+            } while (compare(context, comparator, data.get(i), pivot) < 0);
+            do {
+                j--;
+            } while (compare(context, comparator, data.get(j), pivot) > 0);
+
+            if (i >= j) {
+                return j;
+            }
+            swap(context, data, i, j);
+        }
+    }
+
+    /**
+     * 选择基准：短子数组三数取中，长子数组九数取中；三路快速排序共用
+     */
+    int choosePivot(SortContext<T> context, List<T> data, int low, int high, Comparator<T> comparator) {
+        int mid = (low + high) >>> 1;
+        if (high - low + 1 <= NINTHER_THRESHOLD) {
+            return median3(context, data, low, mid, high, comparator);
+        }
+
+        int s = (high - low + 1) / 8;
+        int m1 = median3(context, data, low, low + s, low + 2 * s, comparator);
+        int m2 = median3(context, data, mid - s, mid, mid + s, comparator);
+        int m3 = median3(context, data, high - 2 * s, high - s, high, comparator);
+        return median3(context, data, m1, m2, m3, comparator);
+    }
+
+    /**
+     * 三个位置中取值居中者的下标
+     */
+    private int median3(SortContext<T> context, List<T> data, int a, int b, int c, Comparator<T> comparator) {
+        T va = data.get(a);
+        T vb = data.get(b);
+        T vc = data.get(c);
+        if (compare(context, comparator, va, vb) < 0) {
+            if (compare(context, comparator, vb, vc) < 0) return b;
+            return compare(context, comparator, va, vc) < 0 ? c : a;
+        }
+        if (compare(context, comparator, vb, vc) > 0) return b;
+        return compare(context, comparator, va, vc) > 0 ? c : a;
+    }
+
+    private void insertionSort(SortContext<T> context, List<T> data, int low, int high, Comparator<T> comparator) {
+        for (int i = low + 1; i <= high; i++) {
+            T key = data.get(i);
+            int j = i - 1;
 
-        quickSort(workingData, 0, workingData.size() - 1, comparator);
+            while (j >= low && compare(context, comparator, data.get(j), key) > 0) {
+                data.set(j + 1, data.get(j));
+                context.recordSwap();
+                j--;
+            }
+            data.set(j + 1, key);
+        }
+    }
 
-        long time = (System.nanoTime() - startTime)/1000;
+    @Override
+    public PerformanceResult<Integer> performInt(int[] data, IntComparator comparator) {
+        long[] counters = new long[2]; // [比较次数, 交换次数]
+        long start = System.nanoTime();
 
-        PerformanceResult<T> result = new PerformanceResult<>();
-        result.setSortedData(workingData);
-        result.setComparisons(comparisons);
-        result.setSwaps(swaps);
-        result.setTime(time);
+        introSort(data, 0, data.length - 1, depthLimit(data.length), comparator, counters);
 
-        return result;
+        long time = (System.nanoTime() - start) / 1000;
+        return performanceResult(Ints.asList(data), counters[0], counters[1], time);
     }
 
-    private void quickSort(List<T> data, int low, int high, Comparator<T> comparator) {
-        if (low < high) {
-            int pi = partitionFast(data, low, high, comparator);
-            quickSort(data, low, pi - 1, comparator);
-            quickSort(data, pi + 1, high, comparator);
+    private static void introSort(int[] data, int low, int high, int depth, IntComparator comparator, long[] counters) {
+        while (high - low + 1 > INSERTION_THRESHOLD) {
+            if (depth == 0) {
+                HeapSort.sortRange(data, low, high, comparator, counters);
+                return;
+            }
+            depth--;
+
+            int split = partition(data, low, high, comparator, counters);
+            if (split - low < high - split) {
+                introSort(data, low, split, depth, comparator, counters);
+                low = split + 1;
+            } else {
+                introSort(data, split + 1, high, depth, comparator, counters);
+                high = split;
+            }
         }
+        PrimitiveKernels.insertionSort(data, low, high, comparator, counters);
     }
 
-    private int partitionFast(List<T> data, int low, int high, Comparator<T> comparator) {
-        T pivot = data.get(high);
+    private static int partition(int[] data, int low, int high, IntComparator comparator, long[] counters) {
+        int pivot = data[choosePivot(data, low, high, comparator, counters)];
         int i = low - 1;
+        int j = high + 1;
 
-        for (int j = low; j < high; j++) {
-            comparisons++;
-            if (comparator.compare(data.get(j), pivot) <= 0) {
+        while (true) {
+            do {
                 i++;
-                if (i != j) {
-                    swap(data, i, j);
-                }
+                counters[0]++;
+            } while (comparator.compare(data[i], pivot) < 0);
+            do {
+                j--;
+                counters[0]++;
+            } while (comparator.compare(data[j], pivot) > 0);
+
+            if (i >= j) {
+                return j;
+            }
+            int temp = data[i];
+            data[i] = data[j];
+            data[j] = temp;
+            counters[1]++;
+        }
+    }
+
+    static int choosePivot(int[] data, int low, int high, IntComparator comparator, long[] counters) {
+        int mid = (low + high) >>> 1;
+        if (high - low + 1 <= NINTHER_THRESHOLD) {
+            return PrimitiveKernels.median3(data, low, mid, high, comparator, counters);
+        }
+
+        int s = (high - low + 1) / 8;
+        int m1 = PrimitiveKernels.median3(data, low, low + s, low + 2 * s, comparator, counters);
+        int m2 = PrimitiveKernels.median3(data, mid - s, mid, mid + s, comparator, counters);
+        int m3 = PrimitiveKernels.median3(data, high - 2 * s, high - s, high, comparator, counters);
+        return PrimitiveKernels.median3(data, m1, m2, m3, comparator, counters);
+    }
+
+    @Override
+    public PerformanceResult<Double> performDouble(double[] data, DoubleComparator comparator) {
+        long[] counters = new long[2]; // [比较次数, 交换次数]
+        long start = System.nanoTime();
+
+        introSort(data, 0, data.length - 1, depthLimit(data.length), comparator, counters);
+
+        long time = (System.nanoTime() - start) / 1000;
+        return performanceResult(Doubles.asList(data), counters[0], counters[1], time);
+    }
+
+    private static void introSort(double[] data, int low, int high, int depth, DoubleComparator comparator, long[] counters) {
+        while (high - low + 1 > INSERTION_THRESHOLD) {
+            if (depth == 0) {
+                HeapSort.sortRange(data, low, high, comparator, counters);
+                return;
+            }
+            depth--;
+
+            int split = partition(data, low, high, comparator, counters);
+            if (split - low < high - split) {
+                introSort(data, low, split, depth, comparator, counters);
+                low = split + 1;
+            } else {
+                introSort(data, split + 1, high, depth, comparator, counters);
+                high = split;
+            }
+        }
+        PrimitiveKernels.insertionSort(data, low, high, comparator, counters);
+    }
+
+    private static int partition(double[] data, int low, int high, DoubleComparator comparator, long[] counters) {
+        double pivot = data[choosePivot(data, low, high, comparator, counters)];
+        int i = low - 1;
+        int j = high + 1;
+
+        while (true) {
+            do {
+                i++;
+                counters[0]++;
+            } while (comparator.compare(data[i], pivot) < 0);
+            do {
+                j--;
+                counters[0]++;
+            } while (comparator.compare(data[j], pivot) > 0);
+
+            if (i >= j) {
+                return j;
             }
+            double temp = data[i];
+            data[i] = data[j];
+            data[j] = temp;
+            counters[1]++;
         }
+    }
+
+    static int choosePivot(double[] data, int low, int high, DoubleComparator comparator, long[] counters) {
+        int mid = (low + high) >>> 1;
+        if (high - low + 1 <= NINTHER_THRESHOLD) {
+            return PrimitiveKernels.median3(data, low, mid, high, comparator, counters);
+        }
+
+        int s = (high - low + 1) / 8;
+        int m1 = PrimitiveKernels.median3(data, low, low + s, low + 2 * s, comparator, counters);
+        int m2 = PrimitiveKernels.median3(data, mid - s, mid, mid + s, comparator, counters);
+        int m3 = PrimitiveKernels.median3(data, high - 2 * s, high - s, high, comparator, counters);
+        return PrimitiveKernels.median3(data, m1, m2, m3, comparator, counters);
+    }
 
-        swap(data, i + 1, high);
-        return i + 1;
+    /**
+     * 递归深度上限 2·floor(log2(n))
+     */
+    static int depthLimit(int n) {
+        return n <= 1 ? 0 : 2 * (31 - Integer.numberOfLeadingZeros(n));
     }
 
     @Override
@@ -150,7 +464,7 @@ public class QuickSort<T> extends AbstractSortingAlgorithm<T> {
 
     @Override
     public String getTimeComplexity() {
-        return "O(n log n) - O(n²)";
+        return "O(n log n)";
     }
 
     @Override
@@ -168,13 +482,15 @@ public class QuickSort<T> extends AbstractSortingAlgorithm<T> {
         return true;
     }
 
-    private class QuickSortRange {
+    private static class QuickSortRange {
         int low;
         int high;
+        int depth;   // 剩余可用递归深度
 
-        QuickSortRange(int low, int high) {
+        QuickSortRange(int low, int high, int depth) {
             this.low = low;
             this.high = high;
+            this.depth = depth;
         }
     }
-}
\ No newline at end of file
+}
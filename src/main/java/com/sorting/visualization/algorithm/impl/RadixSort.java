@@ -0,0 +1,334 @@
+package com.sorting.visualization.algorithm.impl;
+
+import com.google.common.primitives.Doubles;
+import com.google.common.primitives.Ints;
+import com.sorting.visualization.algorithm.AbstractSortingAlgorithm;
+import com.sorting.visualization.algorithm.DoubleSortKey;
+import com.sorting.visualization.algorithm.IntSortKey;
+import com.sorting.visualization.algorithm.KeyedSortingAlgorithm;
+import com.sorting.visualization.algorithm.SortContext;
+import com.sorting.visualization.algorithm.StepMessage;
+import com.sorting.visualization.algorithm.StepTimeline;
+import com.sorting.visualization.model.Highlight;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * 基数排序（LSD，按字节分桶）
+ * <p>
+ * 不做元素比较：排序顺序由 {@link IntSortKey} / {@link DoubleSortKey} 键变换决定（符号位翻转、升降序取反），
+ * 从最低字节到最高字节做稳定的计数分配（性能模式下 double 的 64 位键按 11 位一组，共 6 趟）。所有字节的直方图在一次扫描中统计完成，
+ * 某个字节上所有元素落在同一个桶时整趟跳过；键/值在两组缓冲区之间来回分配，不重复申请内存。
+ */
+@Slf4j
+public class RadixSort extends AbstractSortingAlgorithm<Number> implements KeyedSortingAlgorithm {
+
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+    private static final int MASK = RADIX - 1;
+    private static final int INT_PASSES = Integer.SIZE / RADIX_BITS;
+    private static final int LONG_PASSES = Long.SIZE / RADIX_BITS;
+
+    // 性能模式下 64 位键按 11 位分桶，6 趟即可覆盖（按字节需要 8 趟）
+    private static final int DOUBLE_RADIX_BITS = 11;
+    private static final int DOUBLE_RADIX = 1 << DOUBLE_RADIX_BITS;
+    private static final int DOUBLE_MASK = DOUBLE_RADIX - 1;
+    private static final int DOUBLE_PASSES = (Long.SIZE + DOUBLE_RADIX_BITS - 1) / DOUBLE_RADIX_BITS;
+
+    @Override
+    public TeachingResult<Number> teachInt(StepTimeline<Number> timeline, IntSortKey key) {
+        return teachKeys(timeline, value -> Integer.toUnsignedLong(key.key(value.intValue())), INT_PASSES);
+    }
+
+    @Override
+    public TeachingResult<Number> teachDouble(StepTimeline<Number> timeline, DoubleSortKey key) {
+        return teachKeys(timeline, value -> key.key(value.doubleValue()), LONG_PASSES);
+    }
+
+    /**
+     * 教学模式公共流程：按字节从低到高逐趟分配、收集
+     */
+    private TeachingResult<Number> teachKeys(StepTimeline<Number> timeline, ToLongFunction<Number> keyOf, int passes) {
+        SortContext<Number> context = initTeaching(timeline);
+        List<Number> workingData = workingList(context);
+
+        int n = workingData.size();
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = keyOf.applyAsLong(workingData.get(i));
+        }
+        int[] count = new int[RADIX];
+        long[] scratchKeys = new long[n];
+        Number[] scratchValues = new Number[n];
+
+        for (int pass = 0; pass < passes; pass++) {
+            int shift = pass * RADIX_BITS;
+
+            Arrays.fill(count, 0);
+            for (int i = 0; i < n; i++) {
+                count[(int) (keys[i] >>> shift) & MASK]++;
+            }
+
+            if (isTrivialPass(count, n)) {
+                addStep(context, workingData, new Highlight(),
+                        describe(context, StepMessage.RADIX_SKIP).arg(pass + 1).arg(pass + 1));
+                continue;
+            }
+
+            addStep(context, workingData, new Highlight(),
+                    describe(context, StepMessage.RADIX_COUNT)
+                            .arg(pass + 1).arg(pass + 1).value(BucketCounts.of(count)));
+
+            // 前缀和得到每个桶的起始位置
+            int[] bucketStart = new int[RADIX];
+            for (int b = 0, sum = 0; b < RADIX; b++) {
+                bucketStart[b] = sum;
+                sum += count[b];
+            }
+            int[] next = bucketStart.clone();
+
+            for (int i = 0; i < n; i++) {
+                int bucket = (int) (keys[i] >>> shift) & MASK;
+                int target = next[bucket]++;
+                scratchKeys[target] = keys[i];
+                scratchValues[target] = workingData.get(i);
+                context.recordSwap();
+
+                Highlight highlight = new Highlight();
+                highlight.compare(i);
+
+                addStep(context, workingData, highlight,
+                        describe(context, StepMessage.RADIX_DISTRIBUTE).arg(i + 1).value(workingData.get(i))
+                                .arg(pass + 1).arg(bucket).arg(bucket).arg(target + 1));
+            }
+
+            // 按桶顺序收集
+            long[] tempKeys = keys;
+            keys = scratchKeys;
+            scratchKeys = tempKeys;
+            for (int i = 0; i < n; i++) {
+                workingData.set(i, scratchValues[i]);
+            }
+
+            for (int b = 0; b < RADIX; b++) {
+                if (count[b] == 0) {
+                    continue;
+                }
+                Highlight highlight = new Highlight();
+                highlight.swapRange(bucketStart[b], bucketStart[b] + count[b]);
+
+                addStep(context, workingData, highlight,
+                        describe(context, StepMessage.RADIX_COLLECT)
+                                .arg(b).arg(count[b]).arg(bucketStart[b] + 1).arg(bucketStart[b] + count[b]));
+            }
+        }
+
+        return completeTeaching(context, workingData);
+    }
+
+    @Override
+    public PerformanceResult<Integer> performInt(int[] data, IntSortKey key) {
+        long start = System.nanoTime();
+        int n = data.length;
+
+        int[] keys = new int[n];
+        int[] histogram = new int[INT_PASSES * RADIX];
+        for (int i = 0; i < n; i++) {
+            int k = key.key(data[i]);
+            keys[i] = k;
+            for (int pass = 0; pass < INT_PASSES; pass++) {
+                histogram[pass * RADIX + ((k >>> (pass * RADIX_BITS)) & MASK)]++;
+            }
+        }
+
+        int[] values = data;
+        int[] scratchKeys = new int[n];
+        int[] scratchValues = new int[n];
+        int moves = 0;
+
+        for (int pass = 0; pass < INT_PASSES; pass++) {
+            int offset = pass * RADIX;
+            if (isTrivialPass(histogram, offset, RADIX, n)) {
+                continue;
+            }
+
+            // 直方图原地转为各桶起始位置
+            for (int b = 0, sum = 0; b < RADIX; b++) {
+                int c = histogram[offset + b];
+                histogram[offset + b] = sum;
+                sum += c;
+            }
+
+            int shift = pass * RADIX_BITS;
+            for (int i = 0; i < n; i++) {
+                int k = keys[i];
+                int target = histogram[offset + ((k >>> shift) & MASK)]++;
+                scratchKeys[target] = k;
+                scratchValues[target] = values[i];
+            }
+            moves += n;
+
+            int[] temp = keys;
+            keys = scratchKeys;
+            scratchKeys = temp;
+            temp = values;
+            values = scratchValues;
+            scratchValues = temp;
+        }
+
+        if (values != data) {
+            System.arraycopy(values, 0, data, 0, n);
+        }
+
+        long time = (System.nanoTime() - start) / 1000;
+        return performanceResult(Ints.asList(data), 0, moves, time);
+    }
+
+    @Override
+    public PerformanceResult<Double> performDouble(double[] data, DoubleSortKey key) {
+        long start = System.nanoTime();
+        int n = data.length;
+
+        long[] keys = new long[n];
+        int[] histogram = new int[DOUBLE_PASSES * DOUBLE_RADIX];
+        for (int i = 0; i < n; i++) {
+            long k = key.key(data[i]);
+            keys[i] = k;
+            for (int pass = 0; pass < DOUBLE_PASSES; pass++) {
+                histogram[pass * DOUBLE_RADIX + ((int) (k >>> (pass * DOUBLE_RADIX_BITS)) & DOUBLE_MASK)]++;
+            }
+        }
+
+        double[] values = data;
+        long[] scratchKeys = new long[n];
+        double[] scratchValues = new double[n];
+        int moves = 0;
+
+        for (int pass = 0; pass < DOUBLE_PASSES; pass++) {
+            int offset = pass * DOUBLE_RADIX;
+            if (isTrivialPass(histogram, offset, DOUBLE_RADIX, n)) {
+                continue;
+            }
+
+            for (int b = 0, sum = 0; b < DOUBLE_RADIX; b++) {
+                int c = histogram[offset + b];
+                histogram[offset + b] = sum;
+                sum += c;
+            }
+
+            int shift = pass * DOUBLE_RADIX_BITS;
+            for (int i = 0; i < n; i++) {
+                long k = keys[i];
+                int target = histogram[offset + ((int) (k >>> shift) & DOUBLE_MASK)]++;
+                scratchKeys[target] = k;
+                scratchValues[target] = values[i];
+            }
+            moves += n;
+
+            long[] tempKeys = keys;
+            keys = scratchKeys;
+            scratchKeys = tempKeys;
+            double[] tempValues = values;
+            values = scratchValues;
+            scratchValues = tempValues;
+        }
+
+        if (values != data) {
+            System.arraycopy(values, 0, data, 0, n);
+        }
+
+        long time = (System.nanoTime() - start) / 1000;
+        return performanceResult(Doubles.asList(data), 0, moves, time);
+    }
+
+    /**
+     * 所有元素落在同一个桶时本趟分配不改变顺序，可以跳过
+     */
+    private static boolean isTrivialPass(int[] histogram, int offset, int radix, int n) {
+        for (int b = 0; b < radix; b++) {
+            int c = histogram[offset + b];
+            if (c != 0) {
+                return c == n;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isTrivialPass(int[] count, int n) {
+        return isTrivialPass(count, 0, RADIX, n);
+    }
+
+    /**
+     * RADIX_COUNT 的桶计数参数：记录时只保存非空桶的（桶号, 个数）对，发送时按会话语言渲染
+     */
+    private record BucketCounts(int[] pairs) implements StepMessage.Localized {
+
+        static BucketCounts of(int[] count) {
+            int nonEmpty = 0;
+            for (int c : count) {
+                if (c != 0) {
+                    nonEmpty++;
+                }
+            }
+            int[] pairs = new int[nonEmpty * 2];
+            for (int b = 0, k = 0; b < count.length; b++) {
+                if (count[b] != 0) {
+                    pairs[k++] = b;
+                    pairs[k++] = count[b];
+                }
+            }
+            return new BucketCounts(pairs);
+        }
+
+        @Override
+        public String render(StepMessage.Language language) {
+            StringBuilder sb = new StringBuilder();
+            for (int k = 0; k < pairs.length; k += 2) {
+                if (k > 0) {
+                    sb.append(", ");
+                }
+                sb.append(StepMessage.RADIX_BUCKET.format(language, pairs[k], pairs[k + 1]));
+            }
+            return sb.toString();
+        }
+
+        @Override
+        public String toString() {
+            return render(StepMessage.Language.ZH);
+        }
+    }
+
+    @Override
+    public String getAlgorithmName() {
+        return "基数排序";
+    }
+
+    @Override
+    public String getTimeComplexity() {
+        return "O(n·k)";
+    }
+
+    @Override
+    public String getSpaceComplexity() {
+        return "O(n + 2^b)，b 为每趟位数（8，double 性能模式为 11）";
+    }
+
+    @Override
+    public boolean isStable() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsDataType(Class<?> dataType) {
+        return dataType == Integer.class || dataType == Double.class;
+    }
+
+    @Override
+    public long estimateTeachingSteps(int size) {
+        // 每趟非平凡分配约 n + 桶数 步，随机数据通常只有低位几趟非平凡
+        return 3L * size + 2;
+    }
+}
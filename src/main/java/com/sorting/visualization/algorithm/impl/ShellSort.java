@@ -1,6 +1,15 @@
 package com.sorting.visualization.algorithm.impl;
 
+import com.google.common.primitives.Doubles;
+import com.google.common.primitives.Ints;
 import com.sorting.visualization.algorithm.AbstractSortingAlgorithm;
+import com.sorting.visualization.algorithm.ComparisonSortingAlgorithm;
+import com.sorting.visualization.algorithm.DoubleComparator;
+import com.sorting.visualization.algorithm.IntComparator;
+import com.sorting.visualization.algorithm.PrimitiveSortingAlgorithm;
+import com.sorting.visualization.algorithm.SortContext;
+import com.sorting.visualization.algorithm.StepMessage;
+import com.sorting.visualization.algorithm.StepTimeline;
 import com.sorting.visualization.model.Highlight;
 import lombok.extern.slf4j.Slf4j;
 
@@ -9,21 +18,22 @@ import java.util.Comparator;
 import java.util.List;
 
 @Slf4j
-public class ShellSort<T> extends AbstractSortingAlgorithm<T> {
+public class ShellSort<T> extends AbstractSortingAlgorithm<T>
+        implements ComparisonSortingAlgorithm<T>, PrimitiveSortingAlgorithm {
 
     @Override
-    public TeachingResult<T> teach(List<T> data, Comparator<T> comparator) {
-        initTeaching(data);
+    public TeachingResult<T> teach(StepTimeline<T> timeline, Comparator<T> comparator) {
+        SortContext<T> context = initTeaching(timeline);
 
-        List<T> workingData = new ArrayList<>(data);
+        List<T> workingData = workingList(context);
         int n = workingData.size();
 
         // 使用希尔增量序列
         for (int gap = n / 2; gap > 0; gap /= 2) {
             Highlight highlight = new Highlight();
 
-            addStep(workingData, highlight,
-                    String.format("当前增量: %d", gap));
+            addStep(context, workingData, highlight,
+                    describe(context, StepMessage.SHELL_GAP).arg(gap));
 
             // 对每个子序列进行插入排序
             for (int i = gap; i < n; i++) {
@@ -31,32 +41,29 @@ public class ShellSort<T> extends AbstractSortingAlgorithm<T> {
                 int j = i;
 
                 highlight = new Highlight();
-                List<Integer> currentGroup = new ArrayList<>();
-                for (int k = i; k >= 0; k -= gap) {
-                    currentGroup.add(k);
+                for (int k = i % gap; k <= i; k += gap) {
+                    highlight.compare(k);
                 }
-                highlight.setCompare(currentGroup);
 
-                addStep(workingData, highlight,
-                        String.format("处理第%d个元素[%s]，增量序列索引: %d",
-                                i + 1, temp, i % gap));
+                addStep(context, workingData, highlight,
+                        describe(context, StepMessage.SHELL_PICK).arg(i + 1).value(temp).arg(i % gap));
 
                 while (j >= gap) {
                     highlight = new Highlight();
-                    highlight.setCompare(List.of(j, j - gap));
+                    highlight.compare(j, j - gap);
 
-                    addStep(workingData, highlight,
-                            String.format("比较当前元素[%s]和第%d个元素[%s]（距离为%d）",
-                                    temp, j - gap + 1, workingData.get(j - gap), gap));
+                    addStep(context, workingData, highlight,
+                            describe(context, StepMessage.SHELL_COMPARE)
+                                    .value(temp).arg(j - gap + 1).value(workingData.get(j - gap)).arg(gap));
 
-                    if (compare(comparator, workingData.get(j - gap), temp) > 0) {
+                    if (compare(context, comparator, workingData.get(j - gap), temp) > 0) {
                         workingData.set(j, workingData.get(j - gap));
 
                         highlight = new Highlight();
-                        highlight.setSwap(List.of(j, j - gap));
+                        highlight.swap(j, j - gap);
 
-                        addStep(workingData, highlight,
-                                String.format("将第%d个元素向后移动%d个位置", j - gap + 1, gap));
+                        addStep(context, workingData, highlight,
+                                describe(context, StepMessage.SHELL_SHIFT).arg(j - gap + 1).arg(gap));
 
                         j -= gap;
                     } else {
@@ -67,28 +74,26 @@ public class ShellSort<T> extends AbstractSortingAlgorithm<T> {
                 workingData.set(j, temp);
 
                 highlight = new Highlight();
-                highlight.setSwap(List.of(j));
+                highlight.swap(j);
 
-                addStep(workingData, highlight,
-                        String.format("将元素[%s]插入到第%d个位置", temp, j + 1));
+                addStep(context, workingData, highlight,
+                        describe(context, StepMessage.INSERT_AT).value(temp).arg(j + 1));
             }
 
             highlight = new Highlight();
 
-            addStep(workingData, highlight,
-                    String.format("增量%d的排序完成", gap));
+            addStep(context, workingData, highlight,
+                    describe(context, StepMessage.SHELL_GAP_DONE).arg(gap));
         }
 
-        return completeTeaching(workingData, steps.size() + 1);
+        return completeTeaching(context, workingData);
     }
 
     @Override
     public PerformanceResult<T> perform(List<T> data, Comparator<T> comparator) {
         List<T> workingData = new ArrayList<>(data);
         int n = workingData.size();
-        comparisons = 0;
-        swaps = 0;
-        startTime = System.nanoTime();
+        SortContext<T> context = SortContext.forPerformance();
 
         // 希尔排序
         for (int gap = n / 2; gap > 0; gap /= 2) {
@@ -97,10 +102,10 @@ public class ShellSort<T> extends AbstractSortingAlgorithm<T> {
                 int j = i;
 
                 while (j >= gap) {
-                    comparisons++;
+                    context.recordComparison();
                     if (comparator.compare(workingData.get(j - gap), temp) > 0) {
                         workingData.set(j, workingData.get(j - gap));
-                        swaps++;
+                        context.recordSwap();
                         j -= gap;
                     } else {
                         break;
@@ -110,15 +115,67 @@ public class ShellSort<T> extends AbstractSortingAlgorithm<T> {
             }
         }
 
-        long time = (System.nanoTime() - startTime)/1000;
+        return completePerformance(context, workingData);
+    }
+
+    @Override
+    public PerformanceResult<Integer> performInt(int[] data, IntComparator comparator) {
+        int n = data.length;
+        int comparisons = 0;
+        int swaps = 0;
+        long start = System.nanoTime();
+
+        for (int gap = n / 2; gap > 0; gap /= 2) {
+            for (int i = gap; i < n; i++) {
+                int temp = data[i];
+                int j = i;
+
+                while (j >= gap) {
+                    comparisons++;
+                    if (comparator.compare(data[j - gap], temp) > 0) {
+                        data[j] = data[j - gap];
+                        swaps++;
+                        j -= gap;
+                    } else {
+                        break;
+                    }
+                }
+                data[j] = temp;
+            }
+        }
+
+        long time = (System.nanoTime() - start) / 1000;
+        return performanceResult(Ints.asList(data), comparisons, swaps, time);
+    }
 
-        PerformanceResult<T> result = new PerformanceResult<>();
-        result.setSortedData(workingData);
-        result.setComparisons(comparisons);
-        result.setSwaps(swaps);
-        result.setTime(time);
+    @Override
+    public PerformanceResult<Double> performDouble(double[] data, DoubleComparator comparator) {
+        int n = data.length;
+        int comparisons = 0;
+        int swaps = 0;
+        long start = System.nanoTime();
 
-        return result;
+        for (int gap = n / 2; gap > 0; gap /= 2) {
+            for (int i = gap; i < n; i++) {
+                double temp = data[i];
+                int j = i;
+
+                while (j >= gap) {
+                    comparisons++;
+                    if (comparator.compare(data[j - gap], temp) > 0) {
+                        data[j] = data[j - gap];
+                        swaps++;
+                        j -= gap;
+                    } else {
+                        break;
+                    }
+                }
+                data[j] = temp;
+            }
+        }
+
+        long time = (System.nanoTime() - start) / 1000;
+        return performanceResult(Doubles.asList(data), comparisons, swaps, time);
     }
 
     @Override
@@ -145,4 +202,9 @@ public class ShellSort<T> extends AbstractSortingAlgorithm<T> {
     public boolean supportsDataType(Class<?> dataType) {
         return true;
     }
+
+    @Override
+    public long estimateTeachingSteps(int size) {
+        return 2 * super.estimateTeachingSteps(size);
+    }
 }
\ No newline at end of file
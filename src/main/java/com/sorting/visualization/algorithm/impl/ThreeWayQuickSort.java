@@ -0,0 +1,334 @@
+package com.sorting.visualization.algorithm.impl;
+
+import com.google.common.primitives.Doubles;
+import com.google.common.primitives.Ints;
+import com.sorting.visualization.algorithm.AbstractSortingAlgorithm;
+import com.sorting.visualization.algorithm.ComparisonSortingAlgorithm;
+import com.sorting.visualization.algorithm.DoubleComparator;
+import com.sorting.visualization.algorithm.IntComparator;
+import com.sorting.visualization.algorithm.PrimitiveSortingAlgorithm;
+import com.sorting.visualization.algorithm.SortContext;
+import com.sorting.visualization.algorithm.StepMessage;
+import com.sorting.visualization.algorithm.StepTimeline;
+import com.sorting.visualization.model.Highlight;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Stack;
+
+/**
+ * 三路快速排序（荷兰国旗划分）
+ * <p>
+ * 每次划分把子数组分成 小于 / 等于 / 大于 基准三段，等于基准的一段直接就位、不再递归。
+ * 重复键很多时（DUPLICATE 分布、按 Person.age 排序等）接近线性时间。
+ * 基准选择与递归深度上限沿用 {@link QuickSort}：九数取中，深度超过 2·log2(n) 时对该子数组改用堆排序，
+ * 有序、逆序、锯齿等分布下同样保证 O(n log n)。
+ */
+@Slf4j
+public class ThreeWayQuickSort<T> extends AbstractSortingAlgorithm<T>
+        implements ComparisonSortingAlgorithm<T>, PrimitiveSortingAlgorithm {
+
+    /** 子数组长度不超过该值时改用插入排序（仅性能模式） */
+    private static final int INSERTION_THRESHOLD = 16;
+
+    private final QuickSort<T> quickSort = new QuickSort<>();
+
+    private final HeapSort<T> heapSort = new HeapSort<>();
+
+    @Override
+    public TeachingResult<T> teach(StepTimeline<T> timeline, Comparator<T> comparator) {
+        SortContext<T> context = initTeaching(timeline);
+
+        List<T> workingData = workingList(context);
+
+        // 使用栈代替递归以避免栈溢出
+        Stack<int[]> stack = new Stack<>();  // {low, high, 剩余可用递归深度}
+        stack.push(new int[]{0, workingData.size() - 1, QuickSort.depthLimit(workingData.size())});
+
+        while (!stack.isEmpty()) {
+            int[] range = stack.pop();
+            int low = range[0];
+            int high = range[1];
+
+            if (low < high) {
+                Highlight highlight = new Highlight();
+                highlight.compareRange(low, high + 1);
+
+                addStep(context, workingData, highlight,
+                        describe(context, StepMessage.THREE_WAY_RANGE).arg(low + 1).arg(high + 1));
+
+                if (range[2] == 0) {
+                    addStep(context, workingData, highlight, describe(context, StepMessage.QUICK_TO_HEAP));
+                    heapSort.teachRange(context, workingData, low, high, comparator);
+                    continue;
+                }
+
+                int[] bounds = partitionTeach(context, workingData, low, high, comparator);
+
+                // 等于基准的区间 [lt, gt] 已就位，只需处理两侧
+                stack.push(new int[]{bounds[1] + 1, high, range[2] - 1});
+                stack.push(new int[]{low, bounds[0] - 1, range[2] - 1});
+            }
+        }
+
+        return completeTeaching(context, workingData);
+    }
+
+    /**
+     * 三路划分（教学模式），返回 {lt, gt}：[low, lt) 小于基准，[lt, gt] 等于基准，(gt, high] 大于基准
+     */
+    private int[] partitionTeach(SortContext<T> context, List<T> data, int low, int high, Comparator<T> comparator) {
+        int pivotIndex = quickSort.choosePivotTeach(context, data, low, high, comparator);
+        T pivot = data.get(pivotIndex);
+
+        Highlight highlight = new Highlight();
+        highlight.pivot(pivotIndex);
+
+        addStep(context, data, highlight,
+                describe(context, StepMessage.THREE_WAY_PIVOT).arg(pivotIndex + 1).value(pivot));
+
+        int lt = low;
+        int i = low;
+        int gt = high;
+
+        while (i <= gt) {
+            highlight = new Highlight();
+            highlight.compare(i);
+            highlight.equalRange(lt, i);
+
+            addStep(context, data, highlight,
+                    describe(context, StepMessage.THREE_WAY_COMPARE).arg(i + 1).value(data.get(i)).value(pivot));
+
+            int cmp = compare(context, comparator, data.get(i), pivot);
+            if (cmp < 0) {
+                swap(context, data, lt, i);
+
+                highlight = new Highlight();
+                highlight.swap(lt, i);
+                highlight.equalRange(lt + 1, i + 1);
+
+                addStep(context, data, highlight,
+                        describe(context, StepMessage.THREE_WAY_LESS).arg(lt + 1).arg(i + 1));
+                lt++;
+                i++;
+            } else if (cmp > 0) {
+                swap(context, data, i, gt);
+
+                highlight = new Highlight();
+                highlight.swap(i, gt);
+                highlight.equalRange(lt, i);
+
+                addStep(context, data, highlight,
+                        describe(context, StepMessage.THREE_WAY_GREATER).arg(i + 1).arg(gt + 1));
+                gt--;
+            } else {
+                i++;
+            }
+        }
+
+        highlight = new Highlight();
+        highlight.equalRange(lt, gt + 1);
+
+        addStep(context, data, highlight,
+                describe(context, StepMessage.THREE_WAY_DONE).arg(lt + 1).arg(gt + 1));
+
+        return new int[]{lt, gt};
+    }
+
+    @Override
+    public PerformanceResult<T> perform(List<T> data, Comparator<T> comparator) {
+        List<T> workingData = new ArrayList<>(data);
+        SortContext<T> context = SortContext.forPerformance();
+
+        quickSort(context, workingData, 0, workingData.size() - 1, QuickSort.depthLimit(workingData.size()),
+                comparator);
+
+        return completePerformance(context, workingData);
+    }
+
+    private void quickSort(SortContext<T> context, List<T> data, int low, int high, int depth,
+                           Comparator<T> comparator) {
+        while (high - low + 1 > INSERTION_THRESHOLD) {
+            if (depth == 0) {
+                heapSort.sortRange(context, data, low, high, comparator);
+                return;
+            }
+            depth--;
+
+            T pivot = data.get(quickSort.choosePivot(context, data, low, high, comparator));
+
+            int lt = low;
+            int i = low;
+            int gt = high;
+            while (i <= gt) {
+                int cmp = compare(context, comparator, data.get(i), pivot);
+                if (cmp < 0) {
+                    swap(context, data, lt++, i++);
+                } else if (cmp > 0) {
+                    swap(context, data, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            // 递归处理较短的一侧，较长的一侧继续循环
+            if (lt - low < high - gt) {
+                quickSort(context, data, low, lt - 1, depth, comparator);
+                low = gt + 1;
+            } else {
+                quickSort(context, data, gt + 1, high, depth, comparator);
+                high = lt - 1;
+            }
+        }
+        insertionSort(context, data, low, high, comparator);
+    }
+
+    private void insertionSort(SortContext<T> context, List<T> data, int low, int high, Comparator<T> comparator) {
+        for (int i = low + 1; i <= high; i++) {
+            T key = data.get(i);
+            int j = i - 1;
+
+            while (j >= low && compare(context, comparator, data.get(j), key) > 0) {
+                data.set(j + 1, data.get(j));
+                context.recordSwap();
+                j--;
+            }
+            data.set(j + 1, key);
+        }
+    }
+
+    @Override
+    public PerformanceResult<Integer> performInt(int[] data, IntComparator comparator) {
+        long[] counters = new long[2]; // [比较次数, 交换次数]
+        long start = System.nanoTime();
+
+        quickSort(data, 0, data.length - 1, QuickSort.depthLimit(data.length), comparator, counters);
+
+        long time = (System.nanoTime() - start) / 1000;
+        return performanceResult(Ints.asList(data), counters[0], counters[1], time);
+    }
+
+    private static void quickSort(int[] data, int low, int high, int depth, IntComparator comparator,
+                                  long[] counters) {
+        while (high - low + 1 > INSERTION_THRESHOLD) {
+            if (depth == 0) {
+                HeapSort.sortRange(data, low, high, comparator, counters);
+                return;
+            }
+            depth--;
+
+            int pivot = data[QuickSort.choosePivot(data, low, high, comparator, counters)];
+
+            int lt = low;
+            int i = low;
+            int gt = high;
+            while (i <= gt) {
+                counters[0]++;
+                int cmp = comparator.compare(data[i], pivot);
+                if (cmp < 0) {
+                    int temp = data[lt];
+                    data[lt++] = data[i];
+                    data[i++] = temp;
+                    counters[1]++;
+                } else if (cmp > 0) {
+                    int temp = data[gt];
+                    data[gt--] = data[i];
+                    data[i] = temp;
+                    counters[1]++;
+                } else {
+                    i++;
+                }
+            }
+
+            if (lt - low < high - gt) {
+                quickSort(data, low, lt - 1, depth, comparator, counters);
+                low = gt + 1;
+            } else {
+                quickSort(data, gt + 1, high, depth, comparator, counters);
+                high = lt - 1;
+            }
+        }
+        PrimitiveKernels.insertionSort(data, low, high, comparator, counters);
+    }
+
+    @Override
+    public PerformanceResult<Double> performDouble(double[] data, DoubleComparator comparator) {
+        long[] counters = new long[2]; // [比较次数, 交换次数]
+        long start = System.nanoTime();
+
+        quickSort(data, 0, data.length - 1, QuickSort.depthLimit(data.length), comparator, counters);
+
+        long time = (System.nanoTime() - start) / 1000;
+        return performanceResult(Doubles.asList(data), counters[0], counters[1], time);
+    }
+
+    private static void quickSort(double[] data, int low, int high, int depth, DoubleComparator comparator,
+                                  long[] counters) {
+        while (high - low + 1 > INSERTION_THRESHOLD) {
+            if (depth == 0) {
+                HeapSort.sortRange(data, low, high, comparator, counters);
+                return;
+            }
+            depth--;
+
+            double pivot = data[QuickSort.choosePivot(data, low, high, comparator, counters)];
+
+            int lt = low;
+            int i = low;
+            int gt = high;
+            while (i <= gt) {
+                counters[0]++;
+                int cmp = comparator.compare(data[i], pivot);
+                if (cmp < 0) {
+                    double temp = data[lt];
+                    data[lt++] = data[i];
+                    data[i++] = temp;
+                    counters[1]++;
+                } else if (cmp > 0) {
+                    double temp = data[gt];
+                    data[gt--] = data[i];
+                    data[i] = temp;
+                    counters[1]++;
+                } else {
+                    i++;
+                }
+            }
+
+            if (lt - low < high - gt) {
+                quickSort(data, low, lt - 1, depth, comparator, counters);
+                low = gt + 1;
+            } else {
+                quickSort(data, gt + 1, high, depth, comparator, counters);
+                high = lt - 1;
+            }
+        }
+        PrimitiveKernels.insertionSort(data, low, high, comparator, counters);
+    }
+
+    @Override
+    public String getAlgorithmName() {
+        return "三路快速排序";
+    }
+
+    @Override
+    public String getTimeComplexity() {
+        return "O(n log n)，重复键多时接近 O(n)";
+    }
+
+    @Override
+    public String getSpaceComplexity() {
+        return "O(log n)";
+    }
+
+    @Override
+    public boolean isStable() {
+        return false;
+    }
+
+    @Override
+    public boolean supportsDataType(Class<?> dataType) {
+        return true;
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Component
@@ -50,20 +51,16 @@ public class WebSocketController {
         }
 
         // 发送连接成功消息
-        try {
-            Map<String, Object> response = new HashMap<>();
-            response.put("type", "CONNECTED");
-            response.put("message", "WebSocket连接成功");
-            response.put("sessionId", sessionId);
-            response.put("timestamp", System.currentTimeMillis());
-
-            session.getBasicRemote().sendText(JsonUtil.toJson(response));
-
-            log.info("WebSocket连接建立: sessionId={}, remoteAddress={}",
-                    sessionId, session.getRequestURI());
-        } catch (IOException e) {
-            log.error("发送连接成功消息失败: sessionId={}", sessionId, e);
-        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("type", "CONNECTED");
+        response.put("message", "WebSocket连接成功");
+        response.put("sessionId", sessionId);
+        response.put("encodings", List.of("JSON", "BINARY"));
+        response.put("timestamp", System.currentTimeMillis());
+        send(session, response);
+
+        log.info("WebSocket连接建立: sessionId={}, remoteAddress={}",
+                sessionId, session.getRequestURI());
     }
 
     /**
@@ -124,16 +121,25 @@ public class WebSocketController {
      * 发送错误消息
      */
     private void sendErrorMessage(Session session, String code, String message, String requestId) {
-        try {
-            ErrorResponse error = new ErrorResponse();
-            error.setRequestId(requestId);
-            error.setMessage(message);
-            error.setCode(code);
-            error.setTimestamp(System.currentTimeMillis());
+        ErrorResponse error = new ErrorResponse();
+        error.setRequestId(requestId);
+        error.setMessage(message);
+        error.setCode(code);
+        error.setTimestamp(System.currentTimeMillis());
+        send(session, error);
+    }
 
-            session.getBasicRemote().sendText(JsonUtil.toJson(error));
+    /**
+     * 发送消息：已登记的会话经出站队列异步发送，避免与播放帧并发写；未登记时直接同步发送
+     */
+    private void send(Session session, Object message) {
+        if (sessionManager != null && sessionManager.sendMessage(session.getId(), message)) {
+            return;
+        }
+        try {
+            session.getBasicRemote().sendText(JsonUtil.toJson(message));
         } catch (IOException e) {
-            log.error("发送错误消息失败: sessionId={}", session.getId(), e);
+            log.error("发送消息失败: sessionId={}", session.getId(), e);
         }
     }
 }
\ No newline at end of file
@@ -1,17 +1,187 @@
 package com.sorting.visualization.model;
 
-import lombok.Data;
+import lombok.Getter;
 
-import java.util.List;
+import java.util.Arrays;
 
-@Data
+/**
+ * 步骤高亮
+ * <p>
+ * 每类高亮是一组左闭右开区间，按 [start0, end0, start1, end1, ...] 平铺在 int 数组中，
+ * 内存与 JSON 中都是这种形式。连续下标合并为一个区间，整段范围（如已排序部分、归并区间）
+ * 只占两个数，与区间长度无关。未设置的类别为 null。
+ * <p>
+ * 算法通过 {@code compare(i, j)}（离散下标）与 {@code compareRange(from, to)}（区间）等方法链式构造，
+ * 不产生装箱整数或中间列表。
+ * <p>
+ * 步骤时间线用 {@link #encodedLength} / {@link #encode} / {@link #decode} 把高亮平铺保存在共享的 int 数组中，
+ * 每步不保留 Highlight 对象：第一个数为各类别是否存在的位掩码，其后按类别顺序依次为区间数组长度与区间数组。
+ */
+@Getter
 public class Highlight {
-    private List<Integer> compare;    // 比较中的元素索引
-    private List<Integer> swap;       // 交换中的元素索引
-    private List<Integer> pivot;      // 基准元素索引（快速排序）
-    private List<Integer> heap;       // 堆调整中的元素索引（堆排序）
-    private List<Integer> sorted;     // 已排序的元素索引
+    private int[] compare;    // 比较中的元素区间
+    private int[] swap;       // 交换中的元素区间
+    private int[] pivot;      // 基准元素区间（快速排序）
+    private int[] heap;       // 堆调整中的元素区间（堆排序）
+    private int[] equal;      // 等于基准的元素区间（三路快速排序）
+    private int[] sorted;     // 已排序的元素区间
 
     public Highlight() {
     }
-}
\ No newline at end of file
+
+    /**
+     * 编码后占用的 int 个数
+     */
+    public int encodedLength() {
+        int length = 1;
+        for (int[] ranges : categories()) {
+            if (ranges != null) {
+                length += 1 + ranges.length;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * 编码写入 target[offset, offset + encodedLength())
+     */
+    public void encode(int[] target, int offset) {
+        int mask = 0;
+        int position = offset + 1;
+        int[][] categories = categories();
+        for (int c = 0; c < categories.length; c++) {
+            int[] ranges = categories[c];
+            if (ranges != null) {
+                mask |= 1 << c;
+                target[position++] = ranges.length;
+                System.arraycopy(ranges, 0, target, position, ranges.length);
+                position += ranges.length;
+            }
+        }
+        target[offset] = mask;
+    }
+
+    /**
+     * 从 source[offset] 开始解码由 {@link #encode} 写入的高亮
+     */
+    public static Highlight decode(int[] source, int offset) {
+        int mask = source[offset];
+        int position = offset + 1;
+        int[][] categories = new int[6][];
+        for (int c = 0; c < categories.length; c++) {
+            if ((mask & (1 << c)) != 0) {
+                int length = source[position++];
+                categories[c] = Arrays.copyOfRange(source, position, position + length);
+                position += length;
+            }
+        }
+        Highlight highlight = new Highlight();
+        highlight.compare = categories[0];
+        highlight.swap = categories[1];
+        highlight.pivot = categories[2];
+        highlight.heap = categories[3];
+        highlight.equal = categories[4];
+        highlight.sorted = categories[5];
+        return highlight;
+    }
+
+    private int[][] categories() {
+        return new int[][]{compare, swap, pivot, heap, equal, sorted};
+    }
+
+    public Highlight compare(int... indices) {
+        compare = addPoints(compare, indices);
+        return this;
+    }
+
+    public Highlight compareRange(int from, int to) {
+        compare = addRange(compare, from, to);
+        return this;
+    }
+
+    public Highlight swap(int... indices) {
+        swap = addPoints(swap, indices);
+        return this;
+    }
+
+    public Highlight swapRange(int from, int to) {
+        swap = addRange(swap, from, to);
+        return this;
+    }
+
+    public Highlight pivot(int... indices) {
+        pivot = addPoints(pivot, indices);
+        return this;
+    }
+
+    public Highlight heap(int... indices) {
+        heap = addPoints(heap, indices);
+        return this;
+    }
+
+    public Highlight heapRange(int from, int to) {
+        heap = addRange(heap, from, to);
+        return this;
+    }
+
+    public Highlight equalRange(int from, int to) {
+        equal = addRange(equal, from, to);
+        return this;
+    }
+
+    public Highlight sortedRange(int from, int to) {
+        sorted = addRange(sorted, from, to);
+        return this;
+    }
+
+    /**
+     * 追加区间 [from, to)，与最后一个区间相接时直接延长；空区间忽略
+     */
+    private static int[] addRange(int[] ranges, int from, int to) {
+        if (from >= to) {
+            return ranges;
+        }
+        if (ranges == null) {
+            return new int[]{from, to};
+        }
+        int last = ranges.length - 1;
+        if (ranges[last] == from) {
+            ranges[last] = to;
+            return ranges;
+        }
+        int[] grown = Arrays.copyOf(ranges, ranges.length + 2);
+        grown[last + 1] = from;
+        grown[last + 2] = to;
+        return grown;
+    }
+
+    /**
+     * 追加若干离散下标，相邻下标合并为区间，结果数组一次分配
+     */
+    private static int[] addPoints(int[] ranges, int[] indices) {
+        if (indices.length == 0) {
+            return ranges;
+        }
+        int length = ranges == null ? 0 : ranges.length;
+        int end = length == 0 ? Integer.MIN_VALUE : ranges[length - 1];
+        int added = 0;
+        for (int index : indices) {
+            if (index != end) {
+                added += 2;
+            }
+            end = index + 1;
+        }
+
+        int[] result = ranges == null ? new int[added] : Arrays.copyOf(ranges, length + added);
+        int k = length;
+        for (int index : indices) {
+            if (k > 0 && result[k - 1] == index) {
+                result[k - 1] = index + 1;
+            } else {
+                result[k++] = index;
+                result[k++] = index + 1;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,17 @@
+package com.sorting.visualization.model.request;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+/**
+ * 客户端发来的消息：按 type 字段区分具体的请求类型，一次解析即得到对应的请求对象
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, include = JsonTypeInfo.As.EXISTING_PROPERTY, property = "type", visible = true)
+@JsonSubTypes({
+        @JsonSubTypes.Type(value = SortRequest.class, name = "SORT_REQUEST"),
+        @JsonSubTypes.Type(value = ControlRequest.class, name = "CONTROL")
+})
+public interface ClientMessage {
+
+    String getType();
+}
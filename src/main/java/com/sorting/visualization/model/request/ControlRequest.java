@@ -3,10 +3,13 @@ package com.sorting.visualization.model.request;
 import lombok.Data;
 
 @Data
-public class ControlRequest {
+public class ControlRequest implements ClientMessage {
     private String type;
-    private String action;      // PAUSE, RESUME, STOP, STEP_FORWARD
+    private String action;      // PAUSE, RESUME, STOP, STEP_FORWARD, STEP_BACKWARD, SEEK, RESYNC, CREDIT
     private String requestId;   // 对应排序的requestId
     private Integer interval;   // 可选：更新步进间隔（ms）
+    private Integer step;       // SEEK 的目标步骤（从 1 开始）
+    private Integer credits;    // CREDIT 补充的帧额度
+    private Integer renderLag;  // CREDIT 时客户端观测到的渲染延迟（ms，从收到帧到绘制完成）
     private Long timestamp;
 }
\ No newline at end of file
@@ -0,0 +1,154 @@
+package com.sorting.visualization.model.request;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.sorting.visualization.model.Person;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 排序请求的数据：由 {@link SortDataDeserializer} 从 JSON 数组一次读入，数字存放在原始类型数组中，
+ * Person 按字段分列存放，只有需要对象列表的算法才通过 {@link #toList} 装箱
+ */
+@JsonDeserialize(using = SortDataDeserializer.class)
+public class SortData {
+
+    /** 数据的实际形态：全部为 int 范围内的整数、含小数或超出 int 的数、Person 对象 */
+    public enum Kind {
+        INTEGER, DOUBLE, PERSON
+    }
+
+    private final Kind kind;
+    private final int size;
+    private final int[] ints;
+    private final double[] doubles;
+    // Person 各字段（kind 为 PERSON 时）
+    private final int[] ids;
+    private final String[] names;
+    private final int[] ages;
+    private final double[] scores;
+    private final String[] emails;
+    /** 读入时已逐个检查过的范围，null 表示未检查 */
+    private final SortDataDeserializer.Limits limits;
+
+    private SortData(Kind kind, int size, int[] ints, double[] doubles,
+                     int[] ids, String[] names, int[] ages, double[] scores, String[] emails,
+                     SortDataDeserializer.Limits limits) {
+        this.kind = kind;
+        this.size = size;
+        this.ints = ints;
+        this.doubles = doubles;
+        this.ids = ids;
+        this.names = names;
+        this.ages = ages;
+        this.scores = scores;
+        this.emails = emails;
+        this.limits = limits;
+    }
+
+    public static SortData ofInts(int[] values, SortDataDeserializer.Limits limits) {
+        return new SortData(Kind.INTEGER, values.length, values, null, null, null, null, null, null, limits);
+    }
+
+    public static SortData ofDoubles(double[] values, SortDataDeserializer.Limits limits) {
+        return new SortData(Kind.DOUBLE, values.length, null, values, null, null, null, null, null, limits);
+    }
+
+    public static SortData ofPersons(int[] ids, String[] names, int[] ages, double[] scores, String[] emails,
+                                     SortDataDeserializer.Limits limits) {
+        return new SortData(Kind.PERSON, ids.length, null, null, ids, names, ages, scores, emails, limits);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public SortDataDeserializer.Limits getLimits() {
+        return limits;
+    }
+
+    /**
+     * 数据的 int 数组（含小数时截断取整）；数据本身是整数时返回内部数组，调用方可原地排序
+     */
+    public int[] getInts() {
+        if (kind == Kind.INTEGER) {
+            return ints;
+        }
+        requireNumbers();
+        int[] values = new int[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = (int) doubles[i];
+        }
+        return values;
+    }
+
+    /**
+     * 数据的 double 数组；数据本身含小数时返回内部数组，调用方可原地排序
+     */
+    public double[] getDoubles() {
+        if (kind == Kind.DOUBLE) {
+            return doubles;
+        }
+        requireNumbers();
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = ints[i];
+        }
+        return values;
+    }
+
+    public int[] getAges() {
+        return ages;
+    }
+
+    public double[] getScores() {
+        return scores;
+    }
+
+    /**
+     * 按指定类型装箱为对象列表（Integer / Double / Person），供按对象排序的算法使用
+     */
+    public List<Object> toList(Kind as) {
+        List<Object> result = new ArrayList<>(size);
+        switch (as) {
+            case INTEGER -> {
+                for (int value : getInts()) {
+                    result.add(value);
+                }
+            }
+            case DOUBLE -> {
+                for (double value : getDoubles()) {
+                    result.add(value);
+                }
+            }
+            case PERSON -> {
+                if (kind != Kind.PERSON) {
+                    throw new IllegalStateException("数据不是Person对象");
+                }
+                for (int i = 0; i < size; i++) {
+                    result.add(new Person(ids[i], names[i], ages[i], scores[i], emails[i]));
+                }
+            }
+        }
+        return result;
+    }
+
+    private void requireNumbers() {
+        if (kind == Kind.PERSON) {
+            throw new IllegalStateException("Person数据不能转换为数字");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SortData(kind=" + kind + ", size=" + size + ")";
+    }
+}
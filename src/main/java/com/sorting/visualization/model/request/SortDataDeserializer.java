@@ -0,0 +1,286 @@
+package com.sorting.visualization.model.request;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * 流式读取排序数据：逐个读取 JSON 数组元素，数字直接写入 int[]（出现小数或超出 int 的数时整体转为 double[]），
+ * Person 对象按字段写入各列，不经过 Map 与装箱的 Number。
+ * <p>
+ * 读取的同时逐个检查：元素数超过上限即停止保存，数字格式、Person 必填字段与 age / score 范围不合法时立即失败，
+ * 错误以 {@link InvalidDataException} 抛出。上限与范围由 ObjectReader 的 {@link Limits} 属性给出，没有时只检查格式，
+ * 范围由 DataValidator 之后再检查。
+ */
+public class SortDataDeserializer extends StdDeserializer<SortData> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * 读取时检查的上限与范围，以 {@code Limits.class} 为键设置在 ObjectReader 的属性中
+     */
+    public record Limits(int maxSize, int minAge, int maxAge, double minScore, double maxScore) {
+    }
+
+    public SortDataDeserializer() {
+        super(SortData.class);
+    }
+
+    @Override
+    public SortData deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (!p.isExpectedStartArrayToken()) {
+            throw new InvalidDataException(p, "数据必须是数组", "VALIDATION_ERROR");
+        }
+        Limits limits = (Limits) ctxt.getAttribute(Limits.class);
+        JsonToken token = p.nextToken();
+        return token == JsonToken.START_OBJECT ? readPersons(p, token, limits) : readNumbers(p, token, limits);
+    }
+
+    private SortData readNumbers(JsonParser p, JsonToken token, Limits limits) throws IOException {
+        int[] ints = new int[INITIAL_CAPACITY];
+        double[] doubles = null;
+        int n = 0;
+
+        for (; token != JsonToken.END_ARRAY; token = p.nextToken()) {
+            checkSize(p, n, limits);
+            if (doubles == null && n == ints.length) {
+                ints = Arrays.copyOf(ints, n * 2);
+            } else if (doubles != null && n == doubles.length) {
+                doubles = Arrays.copyOf(doubles, n * 2);
+            }
+
+            boolean integral;
+            int intValue = 0;
+            double doubleValue = 0;
+            switch (token) {
+                case VALUE_NUMBER_INT -> {
+                    integral = p.getNumberType() == JsonParser.NumberType.INT;
+                    if (integral) {
+                        intValue = p.getIntValue();
+                    } else {
+                        doubleValue = finiteValue(p, n);
+                    }
+                }
+                case VALUE_NUMBER_FLOAT -> {
+                    integral = false;
+                    doubleValue = finiteValue(p, n);
+                }
+                case VALUE_STRING -> {
+                    // 兼容以字符串表示的数字
+                    String text = p.getText().trim();
+                    try {
+                        intValue = Integer.parseInt(text);
+                        integral = true;
+                    } catch (NumberFormatException e) {
+                        doubleValue = parseDouble(p, text, n);
+                        integral = false;
+                    }
+                }
+                case VALUE_NULL -> throw invalid(p, n, "不能为空");
+                default -> throw invalid(p, n, "必须是数字");
+            }
+
+            if (integral && doubles == null) {
+                ints[n++] = intValue;
+                continue;
+            }
+            if (doubles == null) {
+                // 出现小数或超出 int 的数：已读入的整数转为 double
+                doubles = new double[ints.length];
+                for (int i = 0; i < n; i++) {
+                    doubles[i] = ints[i];
+                }
+                ints = null;
+            }
+            doubles[n++] = integral ? intValue : doubleValue;
+        }
+
+        return doubles == null
+                ? SortData.ofInts(Arrays.copyOf(ints, n), limits)
+                : SortData.ofDoubles(Arrays.copyOf(doubles, n), limits);
+    }
+
+    private SortData readPersons(JsonParser p, JsonToken token, Limits limits) throws IOException {
+        int capacity = INITIAL_CAPACITY;
+        int[] ids = new int[capacity];
+        String[] names = new String[capacity];
+        int[] ages = new int[capacity];
+        double[] scores = new double[capacity];
+        String[] emails = new String[capacity];
+        int n = 0;
+
+        for (; token != JsonToken.END_ARRAY; token = p.nextToken()) {
+            checkSize(p, n, limits);
+            if (token != JsonToken.START_OBJECT) {
+                throw invalid(p, n, "Person数据必须是对象类型");
+            }
+            if (n == capacity) {
+                capacity *= 2;
+                ids = Arrays.copyOf(ids, capacity);
+                names = Arrays.copyOf(names, capacity);
+                ages = Arrays.copyOf(ages, capacity);
+                scores = Arrays.copyOf(scores, capacity);
+                emails = Arrays.copyOf(emails, capacity);
+            }
+
+            Integer id = null;
+            String name = null;
+            Integer age = null;
+            Double score = null;
+            String email = null;
+            for (String field = p.nextFieldName(); field != null; field = p.nextFieldName()) {
+                JsonToken value = p.nextToken();
+                switch (field) {
+                    case "id" -> id = readInt(p, value, n, "Person.id");
+                    case "name" -> name = readString(p, value, n, "Person.name");
+                    case "age" -> age = readInt(p, value, n, "Person.age");
+                    case "score" -> score = readDouble(p, value, n, "Person.score");
+                    case "email" -> email = readString(p, value, n, "Person.email");
+                    default -> throw invalid(p, n, "Person数据格式错误: 未知字段 " + field);
+                }
+            }
+
+            if (id == null) {
+                throw invalid(p, n, "Person.id不能为空");
+            }
+            if (name == null || name.trim().isEmpty()) {
+                throw invalid(p, n, "Person.name不能为空");
+            }
+            if (age == null) {
+                throw invalid(p, n, "Person.age不能为空");
+            }
+            if (score == null) {
+                throw invalid(p, n, "Person.score不能为空");
+            }
+            if (limits != null && (age < limits.minAge() || age > limits.maxAge())) {
+                throw invalid(p, n, String.format("Person.age必须在%d-%d之间: %d",
+                        limits.minAge(), limits.maxAge(), age));
+            }
+            if (limits != null && (score < limits.minScore() || score > limits.maxScore())) {
+                throw invalid(p, n, String.format("Person.score必须在%.1f-%.1f之间: %.1f",
+                        limits.minScore(), limits.maxScore(), score));
+            }
+
+            ids[n] = id;
+            names[n] = name;
+            ages[n] = age;
+            scores[n] = score;
+            emails[n] = email;
+            n++;
+        }
+
+        return SortData.ofPersons(Arrays.copyOf(ids, n), Arrays.copyOf(names, n), Arrays.copyOf(ages, n),
+                Arrays.copyOf(scores, n), Arrays.copyOf(emails, n), limits);
+    }
+
+    /**
+     * 元素数达到上限时不再保存，只数出剩余元素个数后失败
+     */
+    private static void checkSize(JsonParser p, int n, Limits limits) throws IOException {
+        if (limits == null || n < limits.maxSize()) {
+            return;
+        }
+        int total = n;
+        for (JsonToken token = p.currentToken(); token != JsonToken.END_ARRAY; token = p.nextToken()) {
+            p.skipChildren();
+            total++;
+        }
+        throw new InvalidDataException(p, String.format("数据量超过限制: %d > %d", total, limits.maxSize()),
+                "DATA_TOO_LARGE");
+    }
+
+    private static String readString(JsonParser p, JsonToken value, int index, String field) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!value.isScalarValue()) {
+            throw invalid(p, index, field + "必须是字符串");
+        }
+        return p.getText();
+    }
+
+    private static Integer readInt(JsonParser p, JsonToken value, int index, String field) throws IOException {
+        switch (value) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return p.getValueAsInt();
+            case VALUE_STRING:
+                try {
+                    return Integer.parseInt(p.getText().trim());
+                } catch (NumberFormatException e) {
+                    throw invalid(p, index, field + "不是有效的整数: " + p.getText());
+                }
+            default:
+                throw invalid(p, index, field + "必须是数字");
+        }
+    }
+
+    private static Double readDouble(JsonParser p, JsonToken value, int index, String field) throws IOException {
+        switch (value) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return finiteValue(p, index);
+            case VALUE_STRING:
+                return parseDouble(p, p.getText().trim(), index);
+            default:
+                throw invalid(p, index, field + "必须是数字");
+        }
+    }
+
+    private static double parseDouble(JsonParser p, String text, int index) throws IOException {
+        try {
+            double value = Double.parseDouble(text);
+            if (Double.isFinite(value)) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // 统一在下面报告
+        }
+        throw invalid(p, index, "不是有效的数字: " + text);
+    }
+
+    /**
+     * 超出 double 范围的数字字面量（如 1e400）读出为无穷大，与字符串形式一样拒绝
+     */
+    private static double finiteValue(JsonParser p, int index) throws IOException {
+        double value = p.getDoubleValue();
+        if (!Double.isFinite(value)) {
+            throw invalid(p, index, "不是有效的数字: " + p.getText());
+        }
+        return value;
+    }
+
+    private static InvalidDataException invalid(JsonParser p, int index, String message) {
+        return new InvalidDataException(p, String.format("第%d个数据验证失败: %s", index + 1, message),
+                "VALIDATION_ERROR");
+    }
+
+    /**
+     * 排序数据不合法，携带返回给客户端的错误码
+     */
+    public static class InvalidDataException extends JsonMappingException {
+        private static final long serialVersionUID = 1L;
+
+        private final String code;
+
+        public InvalidDataException(JsonParser p, String message, String code) {
+            super(p, message);
+            this.code = code;
+        }
+
+        public String getCode() {
+            return code;
+        }
+    }
+}
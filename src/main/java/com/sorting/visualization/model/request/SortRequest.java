@@ -2,20 +2,23 @@ package com.sorting.visualization.model.request;
 
 import lombok.Data;
 
-import java.util.List;
-
 @Data
-public class SortRequest {
+public class SortRequest implements ClientMessage {
     private String requestId;
     private String type = "SORT_REQUEST";
     private String mode;           // TEACHING 或 PERFORMANCE
     private String algorithm;      // BUBBLE, INSERTION, SHELL, QUICK, HEAP, MERGE
-    private List<Object> data;     // 数据数组
+    private SortData data;         // 数据数组（流式读入原始类型数组或 Person 各列）
+    private Long externalSize;     // 外部排序数据规模（仅 PERFORMANCE，数据由服务端按 distribution 生成，data 可为空）
     private String dataType;       // INTEGER, DOUBLE, PERSON
     private Integer interval;      // 步进间隔（毫秒）
     private String distribution;   // RANDOM, SORTED, REVERSE, DUPLICATE, NORMAL
     private Boolean ascending = true;  // 排序方向
     private ComparatorInfo comparatorInfo;  // 比较器信息
+    private String language;       // 教学步骤描述语言：zh（默认）、en
+    private String encoding;       // 步骤更新与性能结果的编码：JSON（默认）、BINARY
+    private Boolean delta;         // 教学模式是否发送增量步骤（首帧与重新同步时仍为完整快照）
+    private Integer credits;       // 教学模式流量控制的初始帧额度，不填则不限制（客户端渲染后用 CREDIT 控制补充）
     private Long timestamp;
 
     @Data
@@ -10,11 +10,14 @@ public class PerformanceResult {
     private String type = "PERFORMANCE_RESULT";
     private String algorithm;          // 算法名称
     private Long time;                 // 总运行时间（微秒）
-    private Integer comparisons;       // 总比较次数
-    private Integer swaps;             // 总交换次数
-    private Integer dataSize;          // 数据大小
+    private Long comparisons;          // 总比较次数
+    private Long swaps;                // 总交换次数
+    private Long dataSize;             // 数据大小
     private String distribution;       // 数据分布
     private List<Object> sortedData;   // 排序后的数据
     private Boolean sorted = true;     // 是否排序成功
+    private Integer runs;              // 外部排序：初始归并段个数
+    private Integer mergePasses;       // 外部排序：归并趟数
+    private Long ioBytes;              // 外部排序：段文件读写字节数
     private Long timestamp;
 }
\ No newline at end of file
@@ -11,13 +11,29 @@ public class StepUpdate {
     private String type = "STEP_UPDATE";
     private Integer step;
     private Integer totalSteps;
-    private List<Object> data;          // 当前数组状态
+    private List<Object> data;          // 当前数组状态（增量消息中为 null）
+    private Integer baseStep;           // 增量消息的基准步骤（changes 相对该步）
+    private List<Change> changes;       // 增量消息：相对基准步骤变化的位置与新值
     private Highlight highlight;
     private Statistics stats;
     private String description;         // 步骤描述
     private Boolean isFinal = false;    // 是否为最后一步
     private Long timestamp;
 
+    @Data
+    public static class Change {
+        private int index;
+        private Object value;
+
+        public Change() {
+        }
+
+        public Change(int index, Object value) {
+            this.index = index;
+            this.value = value;
+        }
+    }
+
     @Data
     public static class Statistics {
         private Integer comparisons;     // 比较次数
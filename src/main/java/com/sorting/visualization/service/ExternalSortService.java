@@ -0,0 +1,133 @@
+package com.sorting.visualization.service;
+
+import com.sorting.visualization.algorithm.ComparatorFactory;
+import com.sorting.visualization.algorithm.DoubleComparator;
+import com.sorting.visualization.algorithm.IntComparator;
+import com.sorting.visualization.algorithm.KeyedSortingAlgorithm;
+import com.sorting.visualization.algorithm.PrimitiveSortingAlgorithm;
+import com.sorting.visualization.algorithm.SortingAlgorithm;
+import com.sorting.visualization.algorithm.external.ExternalMergeSort;
+import com.sorting.visualization.model.request.SortRequest;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
+
+/**
+ * 外部排序服务：按请求的规模与分布在服务端生成 INTEGER / DOUBLE 数据，
+ * 用所选算法的原始类型内核排序内存段，再做多路归并
+ * <p>
+ * 外部排序占用大量磁盘带宽与一个内存段的堆空间，全局同时执行的外部排序数不超过
+ * {@code sorting.external.max-concurrent}，超出时以 {@link RejectedExecutionException} 拒绝。
+ */
+@Slf4j
+@Service
+public class ExternalSortService {
+
+    @Value("${sorting.external.run-size:4194304}")
+    private int runSize;
+
+    @Value("${sorting.external.fan-in:64}")
+    private int fanIn;
+
+    @Value("${sorting.external.window-bytes:8388608}")
+    private long windowBytes;
+
+    @Value("${sorting.external.temp-dir:${java.io.tmpdir}}")
+    private String tempDir;
+
+    @Value("${sorting.external.max-concurrent:1}")
+    private int maxConcurrent;
+
+    private Semaphore permits;
+
+    @PostConstruct
+    private void init() {
+        permits = new Semaphore(Math.max(1, maxConcurrent));
+    }
+
+    /**
+     * 执行外部排序；已有 max-concurrent 个外部排序在执行时抛出 {@link RejectedExecutionException}，
+     * cancelled 成立时抛出 {@link java.util.concurrent.CancellationException}
+     */
+    public ExternalMergeSort.Result sort(SortRequest request, SortingAlgorithm<?> algorithm,
+                                         BooleanSupplier cancelled) throws IOException {
+        if (!permits.tryAcquire()) {
+            throw new RejectedExecutionException("外部排序并发数已达上限: " + maxConcurrent);
+        }
+        try {
+            return doSort(request, algorithm, cancelled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private ExternalMergeSort.Result doSort(SortRequest request, SortingAlgorithm<?> algorithm,
+                                            BooleanSupplier cancelled) throws IOException {
+        Path dir = Files.createDirectories(Path.of(tempDir));
+        ExternalMergeSort externalSort = new ExternalMergeSort(dir, runSize, fanIn, windowBytes, cancelled);
+
+        long size = request.getExternalSize();
+        String distribution = request.getDistribution() != null ? request.getDistribution().toUpperCase() : "RANDOM";
+        SortRequest.ComparatorInfo comparatorInfo = request.getComparatorInfo();
+
+        log.info("开始外部排序: requestId={}, algorithm={}, size={}, distribution={}, runSize={}, fanIn={}",
+                request.getRequestId(), request.getAlgorithm(), size, distribution, runSize, fanIn);
+
+        if ("DOUBLE".equals(ComparatorFactory.normalizeDataType(request.getDataType()))) {
+            DoubleComparator comparator = ComparatorFactory.createDoubleComparator(comparatorInfo);
+            ExternalMergeSort.DoubleRunSorter sorter = algorithm instanceof KeyedSortingAlgorithm keyed
+                    ? run -> keyed.performDouble(run, ComparatorFactory.createDoubleSortKey(comparatorInfo))
+                    : run -> ((PrimitiveSortingAlgorithm) algorithm).performDouble(run, comparator);
+            return externalSort.sortDouble(size, doubleSource(distribution, size), sorter, comparator);
+        }
+
+        IntComparator comparator = ComparatorFactory.createIntComparator(comparatorInfo);
+        ExternalMergeSort.IntRunSorter sorter = algorithm instanceof KeyedSortingAlgorithm keyed
+                ? run -> keyed.performInt(run, ComparatorFactory.createIntSortKey(comparatorInfo))
+                : run -> ((PrimitiveSortingAlgorithm) algorithm).performInt(run, comparator);
+        return externalSort.sortInt(size, intSource(distribution, size), sorter, comparator);
+    }
+
+    /**
+     * int 数据源：RANDOM 全范围随机，SORTED / REVERSE 为带 10% 扰动的有序 / 逆序序列，
+     * DUPLICATE 只有 100 种取值，NORMAL 为正态分布
+     */
+    private static IntSupplier intSource(String distribution, long size) {
+        SplittableRandom random = new SplittableRandom();
+        long[] index = {0};
+        return switch (distribution) {
+            case "SORTED" -> () -> (int) perturb(random, index[0]++);
+            case "REVERSE" -> () -> (int) perturb(random, size - index[0]++);
+            case "DUPLICATE" -> () -> random.nextInt(100);
+            case "NORMAL" -> () -> (int) (random.nextGaussian() * 1_000_000);
+            default -> random::nextInt;
+        };
+    }
+
+    private static DoubleSupplier doubleSource(String distribution, long size) {
+        SplittableRandom random = new SplittableRandom();
+        long[] index = {0};
+        return switch (distribution) {
+            case "SORTED" -> () -> perturb(random, index[0]++);
+            case "REVERSE" -> () -> perturb(random, size - index[0]++);
+            case "DUPLICATE" -> () -> random.nextInt(100);
+            case "NORMAL" -> () -> random.nextGaussian() * 1_000_000;
+            default -> () -> random.nextDouble(-1_000_000, 1_000_000);
+        };
+    }
+
+    private static long perturb(SplittableRandom random, long value) {
+        return random.nextInt(10) == 0 ? value + random.nextInt(-100, 100) : value;
+    }
+}
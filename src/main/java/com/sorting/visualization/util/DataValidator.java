@@ -1,14 +1,14 @@
 // util/DataValidator.java
 package com.sorting.visualization.util;
 
-import com.sorting.visualization.model.Person;
+import com.sorting.visualization.model.request.SortData;
+import com.sorting.visualization.model.request.SortDataDeserializer;
 import com.sorting.visualization.model.request.SortRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
-import java.util.Map;
 
 @Slf4j
 @Component
@@ -20,6 +20,9 @@ public class DataValidator {
     @Value("${sorting.max-performance-size:1000}")
     private int maxPerformanceSize;
 
+    @Value("${sorting.max-external-size:1000000000}")
+    private long maxExternalSize;
+
     @Value("${person.age.min:0}")
     private int minAge;
 
@@ -55,8 +58,43 @@ public class DataValidator {
             throw new ValidationException("无效的数据类型: " + request.getDataType(), "INVALID_DATA_TYPE");
         }
 
+        // 验证算法与数据类型是否匹配
+        if (!com.sorting.visualization.algorithm.AlgorithmConstants.supportsDataType(
+                request.getAlgorithm(), normalizeDataType(request.getDataType()))) {
+            throw new ValidationException(
+                    String.format("算法 %s 不支持数据类型: %s", request.getAlgorithm(), request.getDataType()),
+                    "INVALID_DATA_TYPE"
+            );
+        }
+
+        SortRequest.ComparatorInfo comparatorInfo = request.getComparatorInfo();
+        String structField = comparatorInfo != null ? comparatorInfo.getStructField() : null;
+        if (!com.sorting.visualization.algorithm.AlgorithmConstants.supportsStructField(
+                request.getAlgorithm(), structField)) {
+            throw new ValidationException(
+                    String.format("算法 %s 不支持按字段排序: %s", request.getAlgorithm(), structField),
+                    "VALIDATION_ERROR"
+            );
+        }
+
+        // 验证消息编码
+        if (request.getEncoding() != null
+                && !"JSON".equals(request.getEncoding()) && !"BINARY".equals(request.getEncoding())) {
+            throw new ValidationException("无效的消息编码: " + request.getEncoding(), "VALIDATION_ERROR");
+        }
+
+        if (request.getCredits() != null && request.getCredits() < 1) {
+            throw new ValidationException("流量控制的初始帧额度必须大于等于1", "VALIDATION_ERROR");
+        }
+
+        // 外部排序：数据由服务端生成，只校验规模与算法
+        if (request.getExternalSize() != null) {
+            validateExternalRequest(request);
+            return;
+        }
+
         // 验证数据
-        List<Object> data = request.getData();
+        SortData data = request.getData();
         if (data == null || data.isEmpty()) {
             throw new ValidationException("数据不能为空", "VALIDATION_ERROR");
         }
@@ -75,8 +113,9 @@ public class DataValidator {
 
         // 验证间隔时间
         if ("TEACHING".equals(request.getMode())) {
-            if (request.getInterval() == null || request.getInterval() < 100 || request.getInterval() > 5000) {
-                throw new ValidationException("间隔时间必须在100-5000毫秒之间", "VALIDATION_ERROR");
+            // 间隔短于一帧时按帧合并发送，0 表示以每帧最大步数快速播放
+            if (request.getInterval() == null || request.getInterval() < 0 || request.getInterval() > 5000) {
+                throw new ValidationException("间隔时间必须在0-5000毫秒之间", "VALIDATION_ERROR");
             }
         }
 
@@ -85,144 +124,123 @@ public class DataValidator {
     }
 
     /**
-     * 验证数据内容
+     * 验证外部排序请求
      */
-    private void validateDataContent(List<Object> data, String dataType) throws ValidationException {
-        // 规范化数据类型
-        String normalizedType = normalizeDataType(dataType);
+    private void validateExternalRequest(SortRequest request) throws ValidationException {
+        if (!"PERFORMANCE".equals(request.getMode())) {
+            throw new ValidationException("外部排序仅支持性能模式", "VALIDATION_ERROR");
+        }
 
-        for (int i = 0; i < data.size(); i++) {
-            Object item = data.get(i);
-
-            try {
-                switch (normalizedType) {
-                    case "INTEGER":
-                        validateInteger(item);
-                        break;
-                    case "DOUBLE":
-                        validateDouble(item);
-                        break;
-                    case "PERSON":
-                        validatePerson(item);
-                        break;
-                    default:
-                        throw new ValidationException("未知数据类型: " + dataType, "INVALID_DATA_TYPE");
-                }
-            } catch (ValidationException e) {
-                throw new ValidationException(
-                        String.format("第%d个数据验证失败: %s", i + 1, e.getMessage()),
-                        e.getCode()
-                );
-            }
+        String type = normalizeDataType(request.getDataType());
+        if (!"INTEGER".equals(type) && !"DOUBLE".equals(type)) {
+            throw new ValidationException("外部排序仅支持INTEGER和DOUBLE数据: " + request.getDataType(),
+                    "INVALID_DATA_TYPE");
         }
-    }
 
-    /**
-     * 规范化数据类型（兼容INT和INTEGER）
-     */
-    private String normalizeDataType(String dataType) {
-        if (dataType == null) return null;
+        if (!com.sorting.visualization.algorithm.AlgorithmConstants.supportsExternal(request.getAlgorithm())) {
+            throw new ValidationException("算法不支持外部排序: " + request.getAlgorithm(), "UNSUPPORTED_ALGORITHM");
+        }
 
-        String type = dataType.toUpperCase();
-        if ("INT".equals(type)) {
-            return "INTEGER";
+        long size = request.getExternalSize();
+        if (size <= 0) {
+            throw new ValidationException("外部排序数据规模必须大于0", "VALIDATION_ERROR");
         }
-        return type;
+        if (size > maxExternalSize) {
+            throw new ValidationException(
+                    String.format("外部排序数据量超过限制: %d > %d", size, maxExternalSize),
+                    "DATA_TOO_LARGE"
+            );
+        }
+
+        log.info("外部排序请求验证通过: requestId={}, algorithm={}, externalSize={}, dataType={}",
+                request.getRequestId(), request.getAlgorithm(), size, request.getDataType());
     }
 
-    /**
-     * 验证整数
-     */
-    private void validateInteger(Object item) throws ValidationException {
-        if (item instanceof Integer) {
-            return;
-        }
+    public int getMinAge() {
+        return minAge;
+    }
 
-        if (item instanceof Number) {
-            // 允许数值类型，将在后续转换
-            return;
-        }
+    public int getMaxAge() {
+        return maxAge;
+    }
 
-        try {
-            Integer.parseInt(item.toString());
-        } catch (NumberFormatException e) {
-            throw new ValidationException("不是有效的整数: " + item, "VALIDATION_ERROR");
-        }
+    public double getMinScore() {
+        return minScore;
+    }
+
+    public double getMaxScore() {
+        return maxScore;
     }
 
     /**
-     * 验证浮点数
+     * 排序数据读取时检查的上限与范围：元素数取两种模式上限中的较大者，按模式的上限由 validateSortRequest 检查
      */
-    private void validateDouble(Object item) throws ValidationException {
-        if (item instanceof Double || item instanceof Float) {
-            return;
-        }
-
-        if (item instanceof Number) {
-            // 允许数值类型
-            return;
-        }
-
-        try {
-            Double.parseDouble(item.toString());
-        } catch (NumberFormatException e) {
-            throw new ValidationException("不是有效的浮点数: " + item, "VALIDATION_ERROR");
-        }
+    public SortDataDeserializer.Limits getDataLimits() {
+        return new SortDataDeserializer.Limits(Math.max(maxTeachingSize, maxPerformanceSize),
+                minAge, maxAge, minScore, maxScore);
     }
 
     /**
-     * 验证Person对象
+     * 验证数据内容：元素的格式在读取时已逐个检查，这里检查数据形态与数据类型是否相符，
+     * 读取时未按当前配置检查范围的 Person 数据再检查一遍 age / score
      */
-    @SuppressWarnings("unchecked")
-    private void validatePerson(Object item) throws ValidationException {
-        Person person;
-
-        if (item instanceof Person) {
-            person = (Person) item;
-        } else if (item instanceof Map) {
-            try {
-                person = JsonUtil.convertValue(item, Person.class);
-                if (person == null) {
-                    throw new ValidationException("无法转换为Person对象", "VALIDATION_ERROR");
+    private void validateDataContent(SortData data, String dataType) throws ValidationException {
+        // 规范化数据类型
+        String normalizedType = normalizeDataType(dataType);
+
+        switch (normalizedType) {
+            case "INTEGER", "DOUBLE" -> {
+                if (data.getKind() == SortData.Kind.PERSON) {
+                    throw new ValidationException(
+                            "第1个数据验证失败: " + ("INTEGER".equals(normalizedType) ? "不是有效的整数" : "不是有效的浮点数"),
+                            "VALIDATION_ERROR");
                 }
-            } catch (Exception e) {
-                throw new ValidationException("Person数据格式错误: " + e.getMessage(), "VALIDATION_ERROR");
             }
-        } else {
-            throw new ValidationException("Person数据必须是对象类型", "VALIDATION_ERROR");
-        }
-
-        // 验证必要字段
-        if (person.getId() == null) {
-            throw new ValidationException("Person.id不能为空", "VALIDATION_ERROR");
-        }
-
-        if (person.getName() == null || person.getName().trim().isEmpty()) {
-            throw new ValidationException("Person.name不能为空", "VALIDATION_ERROR");
-        }
-
-        // 验证年龄范围
-        if (person.getAge() == null) {
-            throw new ValidationException("Person.age不能为空", "VALIDATION_ERROR");
+            case "PERSON" -> {
+                if (data.getKind() != SortData.Kind.PERSON) {
+                    throw new ValidationException("第1个数据验证失败: Person数据必须是对象类型", "VALIDATION_ERROR");
+                }
+                if (!getDataLimits().equals(data.getLimits())) {
+                    validatePersonRanges(data);
+                }
+            }
+            default -> throw new ValidationException("未知数据类型: " + dataType, "INVALID_DATA_TYPE");
         }
+    }
 
-        if (person.getAge() < minAge || person.getAge() > maxAge) {
-            throw new ValidationException(
-                    String.format("Person.age必须在%d-%d之间: %d", minAge, maxAge, person.getAge()),
-                    "VALIDATION_ERROR"
-            );
-        }
+    /**
+     * 规范化数据类型（兼容INT和INTEGER）
+     */
+    private String normalizeDataType(String dataType) {
+        if (dataType == null) return null;
 
-        // 验证分数范围
-        if (person.getScore() == null) {
-            throw new ValidationException("Person.score不能为空", "VALIDATION_ERROR");
+        String type = dataType.toUpperCase();
+        if ("INT".equals(type)) {
+            return "INTEGER";
         }
+        return type;
+    }
 
-        if (person.getScore() < minScore || person.getScore() > maxScore) {
-            throw new ValidationException(
-                    String.format("Person.score必须在%.1f-%.1f之间: %.1f", minScore, maxScore, person.getScore()),
-                    "VALIDATION_ERROR"
-            );
+    /**
+     * 验证Person的年龄与分数范围
+     */
+    private void validatePersonRanges(SortData data) throws ValidationException {
+        int[] ages = data.getAges();
+        double[] scores = data.getScores();
+        for (int i = 0; i < data.size(); i++) {
+            if (ages[i] < minAge || ages[i] > maxAge) {
+                throw new ValidationException(
+                        String.format("第%d个数据验证失败: Person.age必须在%d-%d之间: %d", i + 1, minAge, maxAge, ages[i]),
+                        "VALIDATION_ERROR"
+                );
+            }
+            if (scores[i] < minScore || scores[i] > maxScore) {
+                throw new ValidationException(
+                        String.format("第%d个数据验证失败: Person.score必须在%.1f-%.1f之间: %.1f",
+                                i + 1, minScore, maxScore, scores[i]),
+                        "VALIDATION_ERROR"
+                );
+            }
         }
     }
 
@@ -246,18 +264,18 @@ public class DataValidator {
     }
 
     /**
-     * 数据转换：将对象转换为特定类型
+     * 数据转换：按数据类型装箱为对象列表，供按对象排序的算法使用
      */
     @SuppressWarnings("unchecked")
-    public <T> List<T> convertData(List<Object> rawData, String dataType) throws ValidationException {
+    public <T> List<T> convertData(SortData rawData, String dataType) throws ValidationException {
         try {
             // 规范化数据类型
             String normalizedType = normalizeDataType(dataType);
 
             return switch (normalizedType) {
-                case "INTEGER" -> (List<T>) convertToIntegerList(rawData);
-                case "DOUBLE" -> (List<T>) convertToDoubleList(rawData);
-                case "PERSON" -> (List<T>) convertToPersonList(rawData);
+                case "INTEGER" -> (List<T>) rawData.toList(SortData.Kind.INTEGER);
+                case "DOUBLE" -> (List<T>) rawData.toList(SortData.Kind.DOUBLE);
+                case "PERSON" -> (List<T>) rawData.toList(SortData.Kind.PERSON);
                 default -> throw new ValidationException("未知数据类型: " + dataType, "INVALID_DATA_TYPE");
             };
         } catch (Exception e) {
@@ -265,53 +283,12 @@ public class DataValidator {
         }
     }
 
-    private List<Integer> convertToIntegerList(List<Object> rawData) {
-        List<Integer> result = new java.util.ArrayList<>();
-        for (Object item : rawData) {
-            if (item instanceof Integer) {
-                result.add((Integer) item);
-            } else if (item instanceof Number) {
-                result.add(((Number) item).intValue());
-            } else {
-                result.add(Integer.parseInt(item.toString()));
-            }
-        }
-        return result;
-    }
-
-    private List<Double> convertToDoubleList(List<Object> rawData) {
-        List<Double> result = new java.util.ArrayList<>();
-        for (Object item : rawData) {
-            if (item instanceof Double) {
-                result.add((Double) item);
-            } else if (item instanceof Number) {
-                result.add(((Number) item).doubleValue());
-            } else {
-                result.add(Double.parseDouble(item.toString()));
-            }
-        }
-        return result;
-    }
-
-    @SuppressWarnings("unchecked")
-    private List<Person> convertToPersonList(List<Object> rawData) {
-        List<Person> result = new java.util.ArrayList<>();
-        for (Object item : rawData) {
-            if (item instanceof Person) {
-                result.add((Person) item);
-            } else if (item instanceof Map) {
-                result.add(JsonUtil.convertValue(item, Person.class));
-            } else {
-                throw new IllegalArgumentException("无法转换为Person: " + item);
-            }
-        }
-        return result;
-    }
-
     /**
      * 验证异常类
      */
     public static class ValidationException extends Exception {
+        private static final long serialVersionUID = 1L;
+
         private final String code;
 
         public ValidationException(String message, String code) {
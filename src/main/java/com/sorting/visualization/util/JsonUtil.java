@@ -3,6 +3,7 @@ package com.sorting.visualization.util;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import lombok.extern.slf4j.Slf4j;
@@ -53,6 +54,13 @@ public class JsonUtil {
         return objectMapper.readValue(json, clazz);
     }
 
+    /**
+     * 获取指定类型的 ObjectReader（线程安全，可保存复用，省去每次解析时查找反序列化器）
+     */
+    public static ObjectReader readerFor(Class<?> clazz) {
+        return objectMapper.readerFor(clazz);
+    }
+
     /**
      * JSON字符串转泛型对象
      */
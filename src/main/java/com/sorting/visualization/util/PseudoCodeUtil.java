@@ -50,21 +50,25 @@ public class PseudoCodeUtil {
 
         // 快速排序伪代码
         PSEUDO_CODE_MAP.put("QUICK", new String[]{
-                "function quickSort(arr, low, high):",
-                "    if low < high:",
+                "function quickSort(arr, low, high, depth):",
+                "    if high-low+1 <= THRESHOLD:",
+                "        insertionSort(arr, low, high)",
+                "    else if depth = 0:",
+                "        heapSort(arr, low, high)",
+                "    else:",
                 "        pi = partition(arr, low, high)",
-                "        quickSort(arr, low, pi-1)",
-                "        quickSort(arr, pi+1, high)",
+                "        quickSort(arr, low, pi, depth-1)",
+                "        quickSort(arr, pi+1, high, depth-1)",
                 "",
                 "function partition(arr, low, high):",
-                "    pivot = arr[high]",
-                "    i = low-1",
-                "    for j = low to high-1:",
-                "        if arr[j] < pivot:",
-                "            i = i+1",
-                "            swap(arr[i], arr[j])",
-                "    swap(arr[i+1], arr[high])",
-                "    return i+1"
+                "    pivot = medianOfThree(arr, low, mid, high)",
+                "    i = low-1, j = high+1",
+                "    while true:",
+                "        do i = i+1 while arr[i] < pivot",
+                "        do j = j-1 while arr[j] > pivot",
+                "        if i >= j:",
+                "            return j",
+                "        swap(arr[i], arr[j])"
         });
 
         // 堆排序伪代码
@@ -129,6 +133,94 @@ public class PseudoCodeUtil {
                 "        j = j+1",
                 "        k = k+1"
         });
+
+        // 并行归并排序伪代码
+        PSEUDO_CODE_MAP.put("PARALLEL_MERGE", new String[]{
+                "function parallelMergeSort(dst, src, left, right):",
+                "    if right-left <= THRESHOLD:",
+                "        sequentialMergeSort(dst, src, left, right)",
+                "        return",
+                "    mid = floor((left+right)/2)",
+                "    fork parallelMergeSort(src, dst, left, mid)",
+                "    parallelMergeSort(src, dst, mid, right)",
+                "    join",
+                "    parallelMerge(src, left, mid, mid, right, dst, left)",
+                "",
+                "function parallelMerge(src, l1, r1, l2, r2, dst, out):",
+                "    if (r1-l1)+(r2-l2) <= THRESHOLD:",
+                "        merge(src, l1, r1, l2, r2, dst, out)",
+                "        return",
+                "    p = floor((l1+r1)/2)",
+                "    q = lowerBound(src, l2, r2, src[p])",
+                "    split = out+(p-l1)+(q-l2)",
+                "    fork parallelMerge(src, l1, p, l2, q, dst, out)",
+                "    parallelMerge(src, p, r1, q, r2, dst, split)",
+                "    join"
+        });
+
+        // 三路快速排序伪代码
+        PSEUDO_CODE_MAP.put("QUICK3", new String[]{
+                "function quickSort3Way(arr, low, high):",
+                "    if low >= high:",
+                "        return",
+                "    pivot = medianOfThree(arr, low, high)",
+                "    lt = low, i = low, gt = high",
+                "    while i <= gt:",
+                "        if arr[i] < pivot:",
+                "            swap(arr[lt], arr[i])",
+                "            lt = lt+1, i = i+1",
+                "        else if arr[i] > pivot:",
+                "            swap(arr[i], arr[gt])",
+                "            gt = gt-1",
+                "        else:",
+                "            i = i+1",
+                "    quickSort3Way(arr, low, lt-1)",
+                "    quickSort3Way(arr, gt+1, high)"
+        });
+
+        // 基数排序伪代码
+        PSEUDO_CODE_MAP.put("RADIX", new String[]{
+                "function radixSort(arr, n):",
+                "    for i = 0 to n-1:",
+                "        key[i] = sortKey(arr[i])",
+                "    for pass = 0 to bytes(key)-1:",
+                "        shift = pass * 8",
+                "        count[0..255] = 0",
+                "        for i = 0 to n-1:",
+                "            count[(key[i] >> shift) & 255] += 1",
+                "        if all keys share this byte: continue",
+                "        start = prefixSum(count)",
+                "        for i = 0 to n-1:",
+                "            b = (key[i] >> shift) & 255",
+                "            tmp[start[b]] = arr[i]",
+                "            start[b] = start[b]+1",
+                "        swap(arr, tmp)",
+                "",
+                "function sortKey(x):",
+                "    if x is int:",
+                "        return x xor SIGN_BIT",
+                "    bits = doubleToRawLongBits(x)",
+                "    if bits < 0: return not bits",
+                "    return bits xor SIGN_BIT"
+        });
+
+        // 计数排序 / 桶排序伪代码
+        PSEUDO_CODE_MAP.put("COUNTING", new String[]{
+                "function countingSort(arr, n, min, max):",
+                "    k = bucketCount(n, min, max)",
+                "    count[0..k] = 0",
+                "    for i = 0 to n-1:",
+                "        b[i] = bucketOf(arr[i].field, min, max, k)",
+                "        count[b[i]+1] += 1",
+                "    start = prefixSum(count)",
+                "    for i = 0 to n-1:",
+                "        out[start[b[i]]] = arr[i]",
+                "        start[b[i]] = start[b[i]]+1",
+                "    if field is score:",
+                "        for each bucket in out:",
+                "            insertionSort(bucket)",
+                "    return out"
+        });
     }
 
     private PseudoCodeUtil() {
@@ -180,10 +272,10 @@ public class PseudoCodeUtil {
 
             case "QUICK":
                 info.put("name", "快速排序");
-                info.put("timeComplexity", "最坏: O(n²), 平均: O(n log n), 最好: O(n log n)");
+                info.put("timeComplexity", "O(n log n)（内省排序：深度超限时改用堆排序）");
                 info.put("spaceComplexity", "O(log n)");
                 info.put("stability", "不稳定");
-                info.put("advantages", "平均性能最好，是实际应用中最常用的排序算法");
+                info.put("advantages", "三数取中 + Hoare 分区 + 插入排序截断，有序/逆序数据也不会退化");
                 break;
 
             case "HEAP":
@@ -202,6 +294,38 @@ public class PseudoCodeUtil {
                 info.put("advantages", "稳定排序，时间复杂度稳定，适合链表排序");
                 break;
 
+            case "PARALLEL_MERGE":
+                info.put("name", "并行归并排序");
+                info.put("timeComplexity", "O(n log n)，p 核并行时约 O(n log n / p)");
+                info.put("spaceComplexity", "O(n)");
+                info.put("stability", "稳定");
+                info.put("advantages", "Fork/Join 多核并行，大规模数据上明显快于单线程归并排序");
+                break;
+
+            case "QUICK3":
+                info.put("name", "三路快速排序");
+                info.put("timeComplexity", "平均: O(n log n), 重复键多时接近 O(n)");
+                info.put("spaceComplexity", "O(log n)");
+                info.put("stability", "不稳定");
+                info.put("advantages", "等于基准的元素一次就位，适合重复值多的数据（如按年龄排序）");
+                break;
+
+            case "RADIX":
+                info.put("name", "基数排序");
+                info.put("timeComplexity", "O(n·k)，k 为分配趟数（int 为 4；double 为 8，性能模式按 11 位分组为 6）");
+                info.put("spaceComplexity", "O(n + 2^b)，b 为每趟位数（8，double 性能模式为 11）");
+                info.put("stability", "稳定");
+                info.put("advantages", "非比较排序，不做任何元素比较，大规模数据上远快于比较排序；支持整数与浮点数数据");
+                break;
+
+            case "COUNTING":
+                info.put("name", "计数排序");
+                info.put("timeComplexity", "O(n + k)，k 为取值范围（age）或桶数（score）");
+                info.put("spaceComplexity", "O(n + k)");
+                info.put("stability", "稳定");
+                info.put("advantages", "Person 按 age 计数排序、按 score 桶排序，一次线性分配，不调用比较器；仅支持 Person 的 age / score 字段");
+                break;
+
             default:
                 info.put("name", "未知算法");
                 info.put("timeComplexity", "未知");
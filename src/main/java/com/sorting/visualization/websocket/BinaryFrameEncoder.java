@@ -0,0 +1,313 @@
+package com.sorting.visualization.websocket;
+
+import com.sorting.visualization.model.Highlight;
+import com.sorting.visualization.model.Person;
+import com.sorting.visualization.model.response.PerformanceResult;
+import com.sorting.visualization.model.response.StepUpdate;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 高频消息（StepUpdate / PerformanceResult）的二进制帧编码
+ * <p>
+ * 客户端在 SortRequest 中声明 {@code encoding=BINARY} 后，这两类消息以二进制帧发送，其余消息仍为 JSON 文本。
+ * 帧格式（多字节数值均为小端）：
+ * <pre>
+ * 帧头 8 字节：魔数 0x53 | 版本 2 | 消息类型（1 步骤更新，2 性能结果）| 元素类型（0 无数据，1 整数，2 浮点，3 Person）
+ *            | 标志位（bit0 isFinal，bit1 sorted，bit2 增量步骤）| 3 字节保留
+ * 消息体：requestId、timestamp，随后为各消息字段，最后是数据数组
+ * </pre>
+ * 可空整数写为 varint(zigzag(v) + 1)，0 表示 null（负数同样可表示）；字符串写为 varint(字节数 + 1) 加 UTF-8 字节，0 表示 null；
+ * 高亮的每个类别写为 varint(个数 + 1) 加 zigzag 差分 varint；数据数组写为 varint(个数) 加元素：
+ * 整数为 zigzag varint，浮点为 8 字节 IEEE 754，Person 为 1 字节字段存在掩码（id、name、age、score、email）加各字段。
+ * 增量步骤以 baseStep 与 varint(变化个数) 加（varint 位置，元素）代替数据数组，元素类型指变化值的类型。
+ * 前端解码器见 frontend-vue/src/utils/frameDecoder.js，两边的格式需同步修改。
+ */
+public final class BinaryFrameEncoder {
+
+    private static final int MAGIC = 0x53;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 8;
+
+    private static final int TYPE_STEP_UPDATE = 1;
+    private static final int TYPE_PERFORMANCE_RESULT = 2;
+
+    private static final int ELEMENT_NONE = 0;
+    private static final int ELEMENT_INTEGER = 1;
+    private static final int ELEMENT_DOUBLE = 2;
+    private static final int ELEMENT_PERSON = 3;
+
+    private static final int FLAG_FINAL = 1;
+    private static final int FLAG_SORTED = 2;
+    private static final int FLAG_DELTA = 4;
+
+    private BinaryFrameEncoder() {
+        // 工具类，防止实例化
+    }
+
+    /**
+     * 编码消息；不支持二进制的消息类型或数据元素类型不一致时返回 null，由调用方改用 JSON
+     */
+    public static ByteBuffer encode(Object message) {
+        if (message instanceof StepUpdate step) {
+            return encodeStep(step);
+        }
+        if (message instanceof PerformanceResult result) {
+            return encodePerformance(result);
+        }
+        return null;
+    }
+
+    private static ByteBuffer encodeStep(StepUpdate step) {
+        List<StepUpdate.Change> changes = step.getChanges();
+        List<Object> values = changes != null ? changeValues(changes) : step.getData();
+        int elementType = elementType(values);
+        if (elementType < 0) {
+            return null;
+        }
+        FrameWriter out = new FrameWriter(estimateSize(values, elementType));
+        int flags = (Boolean.TRUE.equals(step.getIsFinal()) ? FLAG_FINAL : 0) | (changes != null ? FLAG_DELTA : 0);
+        out.header(TYPE_STEP_UPDATE, elementType, flags);
+        out.string(step.getRequestId());
+        out.nullable(step.getTimestamp());
+
+        out.nullable(step.getStep());
+        out.nullable(step.getTotalSteps());
+        StepUpdate.Statistics stats = step.getStats();
+        out.nullable(stats != null ? stats.getComparisons() : null);
+        out.nullable(stats != null ? stats.getSwaps() : null);
+        out.nullable(stats != null ? stats.getTime() : null);
+
+        Highlight highlight = step.getHighlight();
+        if (highlight == null) {
+            highlight = new Highlight();
+        }
+        out.ranges(highlight.getCompare());
+        out.ranges(highlight.getSwap());
+        out.ranges(highlight.getPivot());
+        out.ranges(highlight.getHeap());
+        out.ranges(highlight.getEqual());
+        out.ranges(highlight.getSorted());
+
+        out.string(step.getDescription());
+        if (changes != null) {
+            out.nullable(step.getBaseStep());
+            out.changes(changes, elementType);
+        } else {
+            out.data(step.getData(), elementType);
+        }
+        return out.toByteBuffer();
+    }
+
+    private static ByteBuffer encodePerformance(PerformanceResult result) {
+        int elementType = elementType(result.getSortedData());
+        if (elementType < 0) {
+            return null;
+        }
+        FrameWriter out = new FrameWriter(estimateSize(result.getSortedData(), elementType));
+        int flags = Boolean.TRUE.equals(result.getSorted()) ? FLAG_SORTED : 0;
+        out.header(TYPE_PERFORMANCE_RESULT, elementType, flags);
+        out.string(result.getRequestId());
+        out.nullable(result.getTimestamp());
+
+        out.string(result.getAlgorithm());
+        out.string(result.getDistribution());
+        out.nullable(result.getTime());
+        out.nullable(result.getComparisons());
+        out.nullable(result.getSwaps());
+        out.nullable(result.getDataSize());
+        out.nullable(result.getRuns());
+        out.nullable(result.getMergePasses());
+        out.nullable(result.getIoBytes());
+
+        out.data(result.getSortedData(), elementType);
+        return out.toByteBuffer();
+    }
+
+    private static List<Object> changeValues(List<StepUpdate.Change> changes) {
+        List<Object> values = new ArrayList<>(changes.size());
+        for (StepUpdate.Change change : changes) {
+            values.add(change.getValue());
+        }
+        return values;
+    }
+
+    /**
+     * 数据数组的元素类型：null 为 ELEMENT_NONE，元素类型不一致或不支持时为 -1
+     */
+    private static int elementType(List<Object> data) {
+        if (data == null) {
+            return ELEMENT_NONE;
+        }
+        if (data.isEmpty()) {
+            return ELEMENT_INTEGER;
+        }
+        Class<?> type = data.get(0) != null ? data.get(0).getClass() : null;
+        int elementType = type == Integer.class ? ELEMENT_INTEGER
+                : type == Double.class ? ELEMENT_DOUBLE
+                : type == Person.class ? ELEMENT_PERSON
+                : -1;
+        if (elementType < 0) {
+            return -1;
+        }
+        for (Object value : data) {
+            if (value == null || value.getClass() != type) {
+                return -1;
+            }
+        }
+        return elementType;
+    }
+
+    private static int estimateSize(List<Object> data, int elementType) {
+        int n = data != null ? data.size() : 0;
+        int perElement = switch (elementType) {
+            case ELEMENT_INTEGER -> 3;
+            case ELEMENT_DOUBLE -> 8;
+            case ELEMENT_PERSON -> 48;
+            default -> 0;
+        };
+        return 128 + n * perElement;
+    }
+
+    /**
+     * 自动扩容的小端字节写入器
+     */
+    private static final class FrameWriter {
+        private byte[] buffer;
+        private int position;
+
+        FrameWriter(int capacity) {
+            this.buffer = new byte[capacity];
+        }
+
+        void header(int type, int elementType, int flags) {
+            ensure(HEADER_SIZE);
+            buffer[0] = (byte) MAGIC;
+            buffer[1] = (byte) VERSION;
+            buffer[2] = (byte) type;
+            buffer[3] = (byte) elementType;
+            buffer[4] = (byte) flags;
+            position = HEADER_SIZE;
+        }
+
+        void varint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void zigzag(long value) {
+            varint((value << 1) ^ (value >> 63));
+        }
+
+        void nullable(Number value) {
+            if (value == null) {
+                varint(0);
+                return;
+            }
+            long v = value.longValue();
+            varint(((v << 1) ^ (v >> 63)) + 1);
+        }
+
+        void float64(double value) {
+            ensure(8);
+            long bits = Double.doubleToRawLongBits(value);
+            for (int k = 0; k < 8; k++) {
+                buffer[position++] = (byte) (bits >>> (8 * k));
+            }
+        }
+
+        void string(String value) {
+            if (value == null) {
+                varint(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            varint(bytes.length + 1L);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        void ranges(int[] ranges) {
+            if (ranges == null) {
+                varint(0);
+                return;
+            }
+            varint(ranges.length + 1L);
+            int previous = 0;
+            for (int value : ranges) {
+                zigzag(value - previous);
+                previous = value;
+            }
+        }
+
+        void data(List<Object> data, int elementType) {
+            if (elementType == ELEMENT_NONE) {
+                return;
+            }
+            varint(data.size());
+            for (Object value : data) {
+                element(value, elementType);
+            }
+        }
+
+        void changes(List<StepUpdate.Change> changes, int elementType) {
+            varint(changes.size());
+            for (StepUpdate.Change change : changes) {
+                varint(change.getIndex());
+                element(change.getValue(), elementType);
+            }
+        }
+
+        private void element(Object value, int elementType) {
+            switch (elementType) {
+                case ELEMENT_INTEGER -> zigzag((Integer) value);
+                case ELEMENT_DOUBLE -> float64((Double) value);
+                default -> person((Person) value);
+            }
+        }
+
+        private void person(Person person) {
+            int mask = (person.getId() != null ? 1 : 0)
+                    | (person.getName() != null ? 2 : 0)
+                    | (person.getAge() != null ? 4 : 0)
+                    | (person.getScore() != null ? 8 : 0)
+                    | (person.getEmail() != null ? 16 : 0);
+            ensure(1);
+            buffer[position++] = (byte) mask;
+            if (person.getId() != null) {
+                zigzag(person.getId());
+            }
+            if (person.getName() != null) {
+                string(person.getName());
+            }
+            if (person.getAge() != null) {
+                zigzag(person.getAge());
+            }
+            if (person.getScore() != null) {
+                float64(person.getScore());
+            }
+            if (person.getEmail() != null) {
+                string(person.getEmail());
+            }
+        }
+
+        private void ensure(int bytes) {
+            if (position + bytes > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + bytes));
+            }
+        }
+
+        ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(buffer, 0, position);
+        }
+    }
+}
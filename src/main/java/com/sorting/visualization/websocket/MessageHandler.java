@@ -1,32 +1,56 @@
 package com.sorting.visualization.websocket;
 
 import com.sorting.visualization.algorithm.ComparatorFactory;
+import com.sorting.visualization.algorithm.ComparisonSortingAlgorithm;
+import com.sorting.visualization.algorithm.IntComparator;
+import com.sorting.visualization.algorithm.KeyedSortingAlgorithm;
+import com.sorting.visualization.algorithm.PersonRangeKey;
+import com.sorting.visualization.algorithm.PrimitiveSortingAlgorithm;
+import com.sorting.visualization.algorithm.RangeSortingAlgorithm;
 import com.sorting.visualization.algorithm.SortingAlgorithm;
+import com.sorting.visualization.algorithm.StepMessage;
+import com.sorting.visualization.algorithm.StepTimeline;
+import com.sorting.visualization.algorithm.external.ExternalMergeSort;
 import com.sorting.visualization.algorithm.impl.*;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.exc.InvalidTypeIdException;
+import com.sorting.visualization.model.Person;
+import com.sorting.visualization.model.request.ClientMessage;
 import com.sorting.visualization.model.request.ControlRequest;
+import com.sorting.visualization.model.request.SortDataDeserializer;
 import com.sorting.visualization.model.request.SortRequest;
 import com.sorting.visualization.model.response.ErrorResponse;
 import com.sorting.visualization.model.response.PerformanceResult;
 import com.sorting.visualization.model.response.SortComplete;
-import com.sorting.visualization.model.response.StepUpdate;
+import com.sorting.visualization.service.ExternalSortService;
 import com.sorting.visualization.service.SortService;
 import com.sorting.visualization.util.DataValidator;
 import com.sorting.visualization.util.JsonUtil;
+import jakarta.annotation.PostConstruct;
 import jakarta.websocket.Session;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 @Component
 @Slf4j
 public class MessageHandler {
 
-    // 算法实例缓存
+    // 算法实例缓存（算法无状态，每次运行使用独立的 SortContext，可被多个会话并发复用）
     private final Map<String, SortingAlgorithm<?>> algorithmCache = new ConcurrentHashMap<>();
     @Autowired
     private WebSocketSessionManager sessionManager;
@@ -34,6 +58,15 @@ public class MessageHandler {
     private SortService sortService;
     @Autowired
     private DataValidator dataValidator;
+    @Autowired
+    private ExternalSortService externalSortService;
+
+    /** 教学模式步骤生成最多领先播放进度的步数 */
+    @Value("${sorting.teaching.buffer-steps:256}")
+    private int teachingBufferSteps;
+
+    /** 客户端消息按 type 字段一次解析为 SortRequest 或 ControlRequest，排序数据读取时即按校验配置检查 */
+    private ObjectReader messageReader;
 
     public MessageHandler() {
         // 初始化算法实例
@@ -43,35 +76,49 @@ public class MessageHandler {
         algorithmCache.put("QUICK", new QuickSort<>());
         algorithmCache.put("HEAP", new HeapSort<>());
         algorithmCache.put("MERGE", new MergeSort<>());
+        algorithmCache.put("PARALLEL_MERGE", new ParallelMergeSort<>());
+        algorithmCache.put("QUICK3", new ThreeWayQuickSort<>());
+        algorithmCache.put("RADIX", new RadixSort());
+        algorithmCache.put("COUNTING", new CountingSort());
+    }
+
+    @PostConstruct
+    void initMessageReader() {
+        messageReader = JsonUtil.readerFor(ClientMessage.class)
+                .withAttribute(SortDataDeserializer.Limits.class, dataValidator.getDataLimits());
     }
 
     /**
      * 处理接收到的消息
      */
     public void handleMessage(String sessionId, Session session, String message) {
+        // 按 type 字段直接解析为具体的请求对象，消息只解析一次
+        ClientMessage request;
         try {
-            // 解析消息类型
-            Map<String, Object> messageMap = JsonUtil.fromJson(message, new com.fasterxml.jackson.core.type.TypeReference<Map<String, Object>>() {
-            });
-            String type = null;
-            if (messageMap != null) {
-                type = (String) messageMap.get("type");
+            request = messageReader.readValue(message);
+        } catch (InvalidTypeIdException e) {
+            if (e.getTypeId() == null) {
+                log.warn("消息缺少类型: sessionId={}", sessionId);
+                return;
             }
+            log.warn("未知消息类型: {}", e.getTypeId());
+            sendError(sessionId, "UNKNOWN_MESSAGE_TYPE", "未知消息类型: " + e.getTypeId(), null);
+            return;
+        } catch (SortDataDeserializer.InvalidDataException e) {
+            log.warn("排序数据不合法: sessionId={}, error={}", sessionId, e.getOriginalMessage());
+            sendError(sessionId, e.getCode(), e.getOriginalMessage(), null);
+            return;
+        } catch (JsonProcessingException e) {
+            log.error("解析消息失败: sessionId={}, message={}, error={}", sessionId, message, e.getOriginalMessage());
+            sendError(sessionId, "VALIDATION_ERROR", "无法解析请求: " + e.getOriginalMessage(), null);
+            return;
+        }
 
-            if (type != null) {
-                switch (type) {
-                    case "SORT_REQUEST":
-                        handleSortRequest(sessionId, session, message);
-                        break;
-
-                    case "CONTROL":
-                        handleControlRequest(sessionId, session, message);
-                        break;
-
-                    default:
-                        log.warn("未知消息类型: {}", type);
-                        sendError(sessionId, "UNKNOWN_MESSAGE_TYPE", "未知消息类型: " + type, null);
-                }
+        try {
+            if (request instanceof SortRequest sortRequest) {
+                handleSortRequest(sessionId, session, sortRequest);
+            } else if (request instanceof ControlRequest controlRequest) {
+                handleControlRequest(sessionId, session, controlRequest);
             }
         } catch (Exception e) {
             log.error("处理消息失败: sessionId={}, message={}, error={}",
@@ -84,14 +131,7 @@ public class MessageHandler {
      * 处理排序请求
      */
     @SuppressWarnings("unchecked")
-    private void handleSortRequest(String sessionId, Session session, String message) {
-        SortRequest request = JsonUtil.fromJson(message, SortRequest.class);
-
-        if (request == null) {
-            sendError(sessionId, "VALIDATION_ERROR", "无法解析排序请求", null);
-            return;
-        }
-
+    private void handleSortRequest(String sessionId, Session session, SortRequest request) {
         try {
             // 验证请求
             dataValidator.validateSortRequest(request);
@@ -103,8 +143,8 @@ public class MessageHandler {
                 return;
             }
 
-            // 转换数据类型（这里会处理INT和INTEGER的兼容性）
-            List<Object> convertedData = dataValidator.convertData(request.getData(), request.getDataType());
+            // 本次请求的步骤更新与性能结果按客户端声明的编码发送
+            sessionManager.setBinaryFrames(sessionId, "BINARY".equals(request.getEncoding()));
 
             // 获取算法实例
             SortingAlgorithm<?> algorithm = algorithmCache.get(request.getAlgorithm().toUpperCase());
@@ -120,9 +160,11 @@ public class MessageHandler {
 
             // 根据模式处理
             if ("TEACHING".equals(request.getMode())) {
+                // 教学模式的算法按对象列表排序（这里会处理INT和INTEGER的兼容性）
+                List<Object> convertedData = dataValidator.convertData(request.getData(), request.getDataType());
                 handleTeachingMode(sessionId, request, convertedData, algorithm, comparator);
             } else if ("PERFORMANCE".equals(request.getMode())) {
-                handlePerformanceMode(sessionId, request, convertedData, algorithm, comparator);
+                handlePerformanceMode(sessionId, request, algorithm, comparator);
             } else {
                 sendError(sessionId, "VALIDATION_ERROR",
                         "无效的模式: " + request.getMode(), request.getRequestId());
@@ -130,6 +172,12 @@ public class MessageHandler {
 
         } catch (DataValidator.ValidationException e) {
             sendError(sessionId, e.getCode(), e.getMessage(), request.getRequestId());
+        } catch (RejectedExecutionException e) {
+            // 任务线程池已满或本会话的任务数已达上限，教学模式已标记的处理状态一并撤销
+            sessionManager.stopProcessing(sessionId);
+            log.warn("排序任务被拒绝: sessionId={}, requestId={}, reason={}",
+                    sessionId, request.getRequestId(), e.getMessage());
+            sendError(sessionId, "BUSY", "服务器繁忙，请稍后重试", request.getRequestId());
         } catch (Exception e) {
             log.error("处理排序请求失败: sessionId={}, requestId={}, error={}",
                     sessionId, request.getRequestId(), e.getMessage(), e);
@@ -150,84 +198,96 @@ public class MessageHandler {
         sessionManager.startProcessing(sessionId, request.getRequestId(),
                 request.getAlgorithm(), request.getMode(),
                 request.getInterval() != null ? request.getInterval() : 1000);
+        SessionState state = sessionManager.getSessionState(sessionId);
+        if (state == null) {
+            return;
+        }
+        if (request.getCredits() != null) {
+            sessionManager.enableFlowControl(sessionId, request.getCredits());
+        }
 
-        // 异步执行排序
-        sessionManager.getExecutorService().submit(() -> {
-            try {
-                // 执行排序算法
-                SortingAlgorithm<Object> algo = (SortingAlgorithm<Object>) algorithm;
-                SortingAlgorithm.TeachingResult<Object> result = algo.teach(data, comparator);
-
-                // 发送步骤更新
-                sendTeachingSteps(sessionId, request.getRequestId(), result.getSteps(),
-                        request.getInterval(), result);
-
-                // 标记会话处理完成
-                sessionManager.stopProcessing(sessionId);
+        // 时间线由这里创建并显式交给算法，排序开始前即开始播放，首帧不必等排序完成
+        StepTimeline<Object> timeline = new StepTimeline<>(data);
+        timeline.setBufferSteps(teachingBufferSteps);
+        timeline.setLanguage(StepMessage.Language.fromCode(request.getLanguage()));
+        timeline.setEstimatedSteps(algorithm.estimateTeachingSteps(data.size()));
+
+        // 排序在有界的排序线程池中生成步骤，最多领先播放进度 teachingBufferSteps 步，超出时归还线程，
+        // 由播放端在缓冲消耗后重新提交；播放由共享调度器按节拍从时间线拉取，两者都不为会话常驻线程
+        CompletableFuture<SortingAlgorithm.TeachingResult<?>> production = new CompletableFuture<>();
+        Executor sortTasks = sessionManager.getSortTasks().forSession(sessionId);
+        Runnable producer = () -> produceSteps(request, timeline, algorithm, comparator, production);
+        sortTasks.execute(producer);
+
+        new TeachingPlayback(sessionManager, state, request.getRequestId(), timeline,
+                Boolean.TRUE.equals(request.getDelta()), () -> sortTasks.execute(producer),
+                () -> production.whenComplete((result, failure) -> {
+                    if (failure != null) {
+                        onTeachingError(sessionId, request, failure);
+                        return;
+                    }
+                    sendSortComplete(sessionId, request.getRequestId(), result);
+                    // 标记会话处理完成
+                    sessionManager.stopProcessing(sessionId);
+                }),
+                cause -> onTeachingError(sessionId, request, cause)).start();
+    }
 
-            } catch (Exception e) {
-                log.error("教学模式排序失败: sessionId={}, requestId={}, error={}",
-                        sessionId, request.getRequestId(), e.getMessage(), e);
-                sendError(sessionId, "ALGORITHM_ERROR", "排序算法执行失败: " + e.getMessage(), request.getRequestId());
-                sessionManager.stopProcessing(sessionId);
-            }
-        });
+    /**
+     * 教学模式排序失败：发送错误并结束会话处理
+     */
+    private void onTeachingError(String sessionId, SortRequest request, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        log.error("教学模式排序失败: sessionId={}, requestId={}, error={}",
+                sessionId, request.getRequestId(), cause.getMessage(), cause);
+        sendError(sessionId, "ALGORITHM_ERROR", "排序算法执行失败: " + cause.getMessage(), request.getRequestId());
+        sessionManager.stopProcessing(sessionId);
     }
 
     /**
-     * 发送教学步骤
+     * 步骤生产者：执行排序，步骤记录到播放端正在读取的时间线。领先播放进度达到上限时本次运行中途结束、
+     * production 保持未完成；排序完成（或被取消）时完成 production，排序异常时时间线标记为失败，播放端取步骤时收到该异常
      */
-    private void sendTeachingSteps(String sessionId, String requestId,
-                                   List<StepUpdate> steps, int interval,
-                                   SortingAlgorithm.TeachingResult<?> result) {
+    private void produceSteps(SortRequest request, StepTimeline<Object> timeline,
+                              SortingAlgorithm<?> algorithm, Comparator<Object> comparator,
+                              CompletableFuture<SortingAlgorithm.TeachingResult<?>> production) {
         try {
-            // 先发送初始状态
-            StepUpdate firstStep = steps.get(0);
-            firstStep.setRequestId(requestId);
-            firstStep.setTimestamp(System.currentTimeMillis());
-            sessionManager.sendMessage(sessionId, firstStep);
-
-            // 按间隔发送后续步骤
-            for (int i = 1; i < steps.size(); i++) {
-                // 使用事件驱动等待替代忙等轮询（零 CPU 开销）
-                SessionState state = sessionManager.getSessionState(sessionId);
-                if (state != null) {
-                    state.waitIfPaused();
-                }
-
-                // 检查是否停止
-                if (!sessionManager.isProcessing(sessionId)) {
-                    log.info("排序被停止: sessionId={}, requestId={}", sessionId, requestId);
-                    return;
-                }
-
-                // 从会话状态动态读取间隔（支持暂停时调整）
-                int currentInterval = (state != null) ? state.getInterval() : interval;
-                Thread.sleep(currentInterval);
-
-                StepUpdate step = steps.get(i);
-                step.setRequestId(requestId);
-                step.setTimestamp(System.currentTimeMillis());
-
-                // 更新会话步骤
-                state = sessionManager.getSessionState(sessionId);
-                if (state != null) {
-                    state.updateStep(step.getStep());
-                }
-
-                sessionManager.sendMessage(sessionId, step);
+            SortingAlgorithm.TeachingResult<?> result = timeline.produce(
+                    () -> runTeaching(request, timeline, algorithm, comparator));
+            if (result != null) {
+                production.complete(result);
             }
+        } catch (CancellationException e) {
+            log.info("步骤生成已取消: requestId={}", request.getRequestId());
+            production.complete(null);
+        } catch (RuntimeException e) {
+            timeline.fail(e);
+            production.completeExceptionally(e);
+        }
+    }
 
-            // 发送完成消息
-            sendSortComplete(sessionId, requestId, result);
+    /**
+     * 执行教学模式排序：非比较排序按排序键执行，其余算法使用通用比较器
+     */
+    @SuppressWarnings("unchecked")
+    private SortingAlgorithm.TeachingResult<?> runTeaching(SortRequest request, StepTimeline<Object> timeline,
+                                                          SortingAlgorithm<?> algorithm,
+                                                          Comparator<Object> comparator) {
+        StepTimeline<?> typed = timeline;
+        if (algorithm instanceof RangeSortingAlgorithm ranged) {
+            return ranged.teachPerson((StepTimeline<Person>) typed, createPersonRangeKey(request));
+        }
 
-        } catch (InterruptedException e) {
-            log.info("排序被中断: sessionId={}, requestId={}", sessionId, requestId);
-            Thread.currentThread().interrupt();
-        } catch (Exception e) {
-            log.error("发送教学步骤失败: sessionId={}, requestId={}, error={}",
-                    sessionId, requestId, e.getMessage(), e);
+        if (algorithm instanceof KeyedSortingAlgorithm keyed) {
+            if ("DOUBLE".equals(ComparatorFactory.normalizeDataType(request.getDataType()))) {
+                return keyed.teachDouble((StepTimeline<Number>) typed,
+                        ComparatorFactory.createDoubleSortKey(request.getComparatorInfo()));
+            }
+            return keyed.teachInt((StepTimeline<Number>) typed,
+                    ComparatorFactory.createIntSortKey(request.getComparatorInfo()));
         }
+
+        return comparisonAlgorithm(algorithm).teach(timeline, comparator);
     }
 
     /**
@@ -235,17 +295,25 @@ public class MessageHandler {
      */
     @SuppressWarnings("unchecked")
     private void handlePerformanceMode(String sessionId, SortRequest request,
-                                       List<Object> data, SortingAlgorithm<?> algorithm,
-                                       Comparator<Object> comparator) {
+                                       SortingAlgorithm<?> algorithm, Comparator<Object> comparator) {
         log.info("开始性能模式处理: sessionId={}, requestId={}, algorithm={}, dataSize={}",
-                sessionId, request.getRequestId(), request.getAlgorithm(), data.size());
+                sessionId, request.getRequestId(), request.getAlgorithm(),
+                request.getExternalSize() != null ? request.getExternalSize() : request.getData().size());
 
-        // 异步执行排序
-        sessionManager.getExecutorService().submit(() -> {
+        if (request.getExternalSize() != null) {
+            // 外部排序耗时较长：标记会话处理中，STOP 或会话关闭时在段与段之间、归并过程中取消
+            sessionManager.startProcessing(sessionId, request.getRequestId(),
+                    request.getAlgorithm(), request.getMode(), 0);
+            sessionManager.getSortTasks().execute(sessionId, () -> runExternalSort(sessionId, request, algorithm));
+            return;
+        }
+
+        // 异步执行排序（线程池已满或本会话任务过多时拒绝）
+        sessionManager.getSortTasks().execute(sessionId, () -> {
             try {
+
                 // 执行排序算法
-                SortingAlgorithm<Object> algo = (SortingAlgorithm<Object>) algorithm;
-                SortingAlgorithm.PerformanceResult<Object> result = algo.perform(data, comparator);
+                SortingAlgorithm.PerformanceResult<?> result = runPerformance(request, algorithm, comparator);
 
                 // 发送性能结果
                 sendPerformanceResult(sessionId, request, result);
@@ -258,18 +326,145 @@ public class MessageHandler {
         });
     }
 
+    /**
+     * 执行外部排序：全局并发数已满时回复 BUSY，被取消时不再发送结果，结束后撤销本请求的处理标记
+     */
+    private void runExternalSort(String sessionId, SortRequest request, SortingAlgorithm<?> algorithm) {
+        try {
+            sendExternalResult(sessionId, request, externalSortService.sort(request, algorithm,
+                    () -> !isCurrentRequest(sessionId, request.getRequestId())));
+        } catch (CancellationException e) {
+            log.info("外部排序已取消: sessionId={}, requestId={}", sessionId, request.getRequestId());
+        } catch (RejectedExecutionException e) {
+            log.warn("外部排序被拒绝: sessionId={}, requestId={}, reason={}",
+                    sessionId, request.getRequestId(), e.getMessage());
+            sendError(sessionId, "BUSY", "服务器繁忙，请稍后重试", request.getRequestId());
+        } catch (Exception e) {
+            log.error("外部排序失败: sessionId={}, requestId={}, error={}",
+                    sessionId, request.getRequestId(), e.getMessage(), e);
+            sendError(sessionId, "ALGORITHM_ERROR", "排序算法执行失败: " + e.getMessage(), request.getRequestId());
+        } finally {
+            if (isCurrentRequest(sessionId, request.getRequestId())) {
+                sessionManager.stopProcessing(sessionId);
+            }
+        }
+    }
+
+    /**
+     * 会话仍在处理指定请求（未停止、未关闭，也未开始新的请求）
+     */
+    private boolean isCurrentRequest(String sessionId, String requestId) {
+        SessionState state = sessionManager.getSessionState(sessionId);
+        return state != null && state.isProcessing() && Objects.equals(state.getCurrentRequestId(), requestId);
+    }
+
+    /**
+     * 执行性能测试：INTEGER / DOUBLE 数据直接使用请求中读入的原始类型数组，PERSON 数据对下标排列排序，
+     * 其余情况装箱后使用通用比较器
+     */
+    @SuppressWarnings("unchecked")
+    private SortingAlgorithm.PerformanceResult<?> runPerformance(SortRequest request,
+                                                                SortingAlgorithm<?> algorithm,
+                                                                Comparator<Object> comparator)
+            throws DataValidator.ValidationException {
+        if (algorithm instanceof RangeSortingAlgorithm ranged) {
+            List<Object> persons = dataValidator.convertData(request.getData(), request.getDataType());
+            return ranged.performPerson((List<Person>) (List<?>) persons, createPersonRangeKey(request));
+        }
+
+        if (algorithm instanceof KeyedSortingAlgorithm keyed) {
+            if ("DOUBLE".equals(ComparatorFactory.normalizeDataType(request.getDataType()))) {
+                return keyed.performDouble(request.getData().getDoubles(),
+                        ComparatorFactory.createDoubleSortKey(request.getComparatorInfo()));
+            }
+            return keyed.performInt(request.getData().getInts(),
+                    ComparatorFactory.createIntSortKey(request.getComparatorInfo()));
+        }
+
+        if (algorithm instanceof PrimitiveSortingAlgorithm primitive) {
+            String dataType = ComparatorFactory.normalizeDataType(request.getDataType());
+            if ("INTEGER".equals(dataType)) {
+                return primitive.performInt(request.getData().getInts(),
+                        ComparatorFactory.createIntComparator(request.getComparatorInfo()));
+            }
+            if ("DOUBLE".equals(dataType)) {
+                return primitive.performDouble(request.getData().getDoubles(),
+                        ComparatorFactory.createDoubleComparator(request.getComparatorInfo()));
+            }
+            if ("PERSON".equals(dataType)) {
+                List<Object> persons = dataValidator.convertData(request.getData(), request.getDataType());
+                return performByIndex(primitive, persons, request.getComparatorInfo());
+            }
+        }
+
+        List<Object> data = dataValidator.convertData(request.getData(), request.getDataType());
+        return comparisonAlgorithm(algorithm).perform(data, comparator);
+    }
+
+    /**
+     * 按通用比较器排序的算法；非比较排序不支持当前数据类型时到不了这里，仍作防御检查
+     */
+    @SuppressWarnings("unchecked")
+    private static ComparisonSortingAlgorithm<Object> comparisonAlgorithm(SortingAlgorithm<?> algorithm) {
+        if (algorithm instanceof ComparisonSortingAlgorithm<?> comparison) {
+            return (ComparisonSortingAlgorithm<Object>) comparison;
+        }
+        throw new IllegalArgumentException("算法不支持按比较器排序: " + algorithm.getAlgorithmName());
+    }
+
+    /**
+     * Person 数据的装饰-排序-去装饰：排序字段一次性取出，用原始类型内核对下标排列排序，
+     * 最后按排列一次性重排元素。计时包含取键与重排
+     */
+    private SortingAlgorithm.PerformanceResult<?> performByIndex(PrimitiveSortingAlgorithm primitive,
+                                                                 List<Object> data,
+                                                                 SortRequest.ComparatorInfo comparatorInfo) {
+        long start = System.nanoTime();
+
+        IntComparator comparator = ComparatorFactory.createPersonIndexComparator(data, comparatorInfo);
+        int[] order = new int[data.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        SortingAlgorithm.PerformanceResult<Integer> indexResult = primitive.performInt(order, comparator);
+
+        List<Object> sortedData = new ArrayList<>(order.length);
+        for (int index : order) {
+            sortedData.add(data.get(index));
+        }
+
+        SortingAlgorithm.PerformanceResult<Object> result = new SortingAlgorithm.PerformanceResult<>();
+        result.setSortedData(sortedData);
+        result.setComparisons(indexResult.getComparisons());
+        result.setSwaps(indexResult.getSwaps());
+        result.setTime((System.nanoTime() - start) / 1000);
+        return result;
+    }
+
+    /**
+     * 按请求的字段构造有界排序键，取值范围与 DataValidator 的校验范围一致
+     */
+    private PersonRangeKey createPersonRangeKey(SortRequest request) {
+        SortRequest.ComparatorInfo info = request.getComparatorInfo();
+        boolean byAge = info != null && "age".equalsIgnoreCase(info.getStructField());
+        return byAge
+                ? ComparatorFactory.createPersonRangeKey(info, dataValidator.getMinAge(), dataValidator.getMaxAge())
+                : ComparatorFactory.createPersonRangeKey(info, dataValidator.getMinScore(), dataValidator.getMaxScore());
+    }
+
     /**
      * 发送性能结果
      */
+    @SuppressWarnings("unchecked")
     private void sendPerformanceResult(String sessionId, SortRequest request,
-                                       SortingAlgorithm.PerformanceResult<Object> result) {
+                                       SortingAlgorithm.PerformanceResult<?> result) {
         PerformanceResult response = new PerformanceResult();
         response.setRequestId(request.getRequestId());
         response.setAlgorithm(request.getAlgorithm());
         response.setTime(result.getTime());
         response.setComparisons(result.getComparisons());
         response.setSwaps(result.getSwaps());
-        response.setDataSize(request.getData().size());
+        response.setDataSize((long) request.getData().size());
         response.setDistribution(request.getDistribution());
         response.setSortedData((List<Object>) result.getSortedData());
         response.setSorted(true);
@@ -282,6 +477,32 @@ public class MessageHandler {
                 result.getTime(), result.getComparisons(), result.getSwaps());
     }
 
+    /**
+     * 发送外部排序结果（sortedData 只携带结果开头的样本）
+     */
+    private void sendExternalResult(String sessionId, SortRequest request, ExternalMergeSort.Result result) {
+        PerformanceResult response = new PerformanceResult();
+        response.setRequestId(request.getRequestId());
+        response.setAlgorithm(request.getAlgorithm());
+        response.setTime(result.getTime());
+        response.setComparisons(result.getComparisons());
+        response.setSwaps(result.getMoves());
+        response.setDataSize(result.getElements());
+        response.setDistribution(request.getDistribution());
+        response.setSortedData(result.getSample());
+        response.setSorted(result.isSorted());
+        response.setRuns(result.getRuns());
+        response.setMergePasses(result.getMergePasses());
+        response.setIoBytes(result.getIoBytes());
+        response.setTimestamp(System.currentTimeMillis());
+
+        sessionManager.sendMessage(sessionId, response);
+
+        log.info("外部排序完成: sessionId={}, requestId={}, algorithm={}, size={}, time={}us, runs={}, mergePasses={}, ioBytes={}",
+                sessionId, request.getRequestId(), request.getAlgorithm(), result.getElements(),
+                result.getTime(), result.getRuns(), result.getMergePasses(), result.getIoBytes());
+    }
+
     /**
      * 发送排序完成消息
      */
@@ -303,21 +524,14 @@ public class MessageHandler {
         sessionManager.sendMessage(sessionId, response);
 
         log.info("教学模式完成: sessionId={}, requestId={}, totalSteps={}, totalTime={}ms, comparisons={}, swaps={}",
-                sessionId, requestId, result.getSteps().size(),
+                sessionId, requestId, result.getTimeline().size(),
                 result.getTotalTime(), result.getTotalComparisons(), result.getTotalSwaps());
     }
 
     /**
      * 处理控制请求（发送确认消息给前端）
      */
-    private void handleControlRequest(String sessionId, Session session, String message) {
-        ControlRequest request = JsonUtil.fromJson(message, ControlRequest.class);
-
-        if (request == null) {
-            sendError(sessionId, "VALIDATION_ERROR", "无法解析控制请求", null);
-            return;
-        }
-
+    private void handleControlRequest(String sessionId, Session session, ControlRequest request) {
         String action = request.getAction();
         String requestId = request.getRequestId();
 
@@ -330,7 +544,7 @@ public class MessageHandler {
 
             case "RESUME":
                 // 如果有新间隔值，先更新再恢复（Phase 4：暂停时调参）
-                if (request.getInterval() != null && request.getInterval() >= 100 && request.getInterval() <= 5000) {
+                if (request.getInterval() != null && request.getInterval() >= 0 && request.getInterval() <= 5000) {
                     SessionState st = sessionManager.getSessionState(sessionId);
                     if (st != null) {
                         st.setInterval(request.getInterval());
@@ -353,6 +567,37 @@ public class MessageHandler {
                 log.info("单步执行: sessionId={}, requestId={}", sessionId, requestId);
                 break;
 
+            case "STEP_BACKWARD":
+                sessionManager.stepBackward(sessionId);
+                log.info("单步后退: sessionId={}, requestId={}", sessionId, requestId);
+                break;
+
+            case "SEEK":
+                if (request.getStep() == null || request.getStep() < 1) {
+                    sendError(sessionId, "VALIDATION_ERROR", "跳转步骤必须大于等于1", requestId);
+                    break;
+                }
+                sessionManager.seek(sessionId, request.getStep());
+                log.info("跳转步骤: sessionId={}, requestId={}, step={}", sessionId, requestId, request.getStep());
+                break;
+
+            case "RESYNC":
+                // 客户端增量状态与服务端不一致，重新发送当前步骤的完整快照
+                sessionManager.resync(sessionId);
+                log.info("重新同步: sessionId={}, requestId={}", sessionId, requestId);
+                break;
+
+            case "CREDIT":
+                // 客户端渲染后补充帧额度，每几帧一次，只记调试日志
+                if (request.getCredits() == null || request.getCredits() < 1) {
+                    sendError(sessionId, "VALIDATION_ERROR", "补充的帧额度必须大于等于1", requestId);
+                    break;
+                }
+                sessionManager.grantCredits(sessionId, requestId, request.getCredits(), request.getRenderLag());
+                log.debug("补充帧额度: sessionId={}, requestId={}, credits={}, renderLag={}ms",
+                        sessionId, requestId, request.getCredits(), request.getRenderLag());
+                break;
+
             default:
                 log.warn("未知控制动作: {}", action);
                 sendError(sessionId, "VALIDATION_ERROR", "未知控制动作: " + action, requestId);
@@ -0,0 +1,291 @@
+package com.sorting.visualization.websocket;
+
+import com.sorting.visualization.model.response.StepUpdate;
+import com.sorting.visualization.util.JsonUtil;
+import jakarta.websocket.SendHandler;
+import jakarta.websocket.SendResult;
+import jakarta.websocket.Session;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 会话的出站消息队列
+ * <p>
+ * 所有发往同一会话的消息都经过该队列，由 {@code getAsyncRemote} 逐条异步发送：同一时刻最多一条在途，
+ * 上一条发送完成后再发送下一条。容器在发送调用内同步回调时由发送循环继续取下一条，异步回调时由回调线程接手，
+ * 调用栈不会随队列长度增长。调用方（播放线程、控制消息处理线程）只负责入队，不会被慢客户端阻塞，
+ * 也不会在同一会话上并发写。
+ * <p>
+ * 消息按入队时会话协商的编码（二进制帧 / JSON 文本）发送，之后切换编码不影响已排队的消息。
+ * <p>
+ * 队列中的步骤更新不超过 {@code capacity} 条，超出时按 {@link OverflowPolicy} 合并：合并后的步骤等价于依次
+ * 应用被合并的各步（增量步骤合并变化、以最早的基准步骤为基准），客户端状态保持一致。状态、错误、完成等其他消息不受容量限制，
+ * 也不会被丢弃；合并不越过这些消息，步骤与它们的先后顺序保持不变。
+ */
+@Slf4j
+public class OutboundQueue {
+
+    /**
+     * 队列中步骤更新已满时的处理方式
+     */
+    public enum OverflowPolicy {
+        /** 新步骤与队尾步骤合并，保留其余排队步骤 */
+        COALESCE,
+        /** 队尾连续的排队步骤与新步骤合并为一条，只发送最新一帧 */
+        LATEST
+    }
+
+    private final Session session;
+    private final int capacity;
+    private final OverflowPolicy policy;
+    private final BooleanSupplier binaryFrames;
+
+    // 以下状态均由 this 的监视器保护
+    private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+    private int queuedSteps;
+    private boolean sending;
+    private int maxDepth;
+    private long coalesced;
+    private long sent;
+    private long failed;
+    private long totalLatencyNanos;
+    private long maxLatencyNanos;
+
+    public OutboundQueue(Session session, int capacity, OverflowPolicy policy, BooleanSupplier binaryFrames) {
+        this.session = session;
+        this.capacity = Math.max(1, capacity);
+        this.policy = policy;
+        this.binaryFrames = binaryFrames;
+    }
+
+    /**
+     * 消息入队；会话已关闭时返回 false
+     */
+    public boolean enqueue(Object message) {
+        if (!session.isOpen()) {
+            return false;
+        }
+        boolean binary = binaryFrames.getAsBoolean();
+        synchronized (this) {
+            if (message instanceof StepUpdate step && queuedSteps >= capacity) {
+                offerOverflow(step, binary);
+            } else {
+                queue.addLast(new Pending(message, binary));
+                if (message instanceof StepUpdate) {
+                    queuedSteps++;
+                }
+            }
+            maxDepth = Math.max(maxDepth, queue.size());
+            if (sending) {
+                return true;
+            }
+            sending = true;
+        }
+        drain();
+        return true;
+    }
+
+    private void offerOverflow(StepUpdate step, boolean binary) {
+        if (policy == OverflowPolicy.LATEST) {
+            // 取出队尾连续的步骤依次合并为一条；不越过控制、状态等其他消息，保持步骤与它们的先后顺序
+            ArrayDeque<StepUpdate> run = new ArrayDeque<>();
+            while (!queue.isEmpty() && queue.peekLast().message() instanceof StepUpdate queuedStep) {
+                queue.pollLast();
+                run.addFirst(queuedStep);
+            }
+            queuedSteps -= run.size();
+            coalesced += run.size();
+            run.addLast(step);
+            StepUpdate merged = run.pollFirst();
+            for (StepUpdate newer : run) {
+                merged = merge(merged, newer);
+            }
+            queue.addLast(new Pending(merged, binary));
+            queuedSteps++;
+            return;
+        }
+
+        // COALESCE：只与队尾步骤合并，队尾是其他消息时不越过它，暂时超出容量一条
+        Pending tail = queue.peekLast();
+        if (tail != null && tail.message() instanceof StepUpdate tailStep) {
+            queue.pollLast();
+            queue.addLast(new Pending(merge(tailStep, step), binary));
+            coalesced++;
+        } else {
+            queue.addLast(new Pending(step, binary));
+            queuedSteps++;
+        }
+    }
+
+    /**
+     * 把 newer 合并为相对 older 的基准仍然正确的一步：newer 为完整快照时直接使用；
+     * older 为完整快照时把 newer 的变化应用到它的数组上；两者都是增量时合并变化（后者覆盖前者）
+     */
+    private static StepUpdate merge(StepUpdate older, StepUpdate newer) {
+        if (newer.getChanges() == null) {
+            return newer;
+        }
+        if (older.getChanges() == null) {
+            List<Object> data = new ArrayList<>(older.getData());
+            for (StepUpdate.Change change : newer.getChanges()) {
+                data.set(change.getIndex(), change.getValue());
+            }
+            newer.setData(data);
+            newer.setChanges(null);
+            newer.setBaseStep(null);
+            return newer;
+        }
+        Map<Integer, Object> changes = new LinkedHashMap<>();
+        for (StepUpdate.Change change : older.getChanges()) {
+            changes.put(change.getIndex(), change.getValue());
+        }
+        for (StepUpdate.Change change : newer.getChanges()) {
+            changes.put(change.getIndex(), change.getValue());
+        }
+        List<StepUpdate.Change> merged = new ArrayList<>(changes.size());
+        changes.forEach((index, value) -> merged.add(new StepUpdate.Change(index, value)));
+        newer.setChanges(merged);
+        newer.setBaseStep(older.getBaseStep());
+        return newer;
+    }
+
+    /**
+     * 排队的消息及其入队时确定的编码
+     */
+    private record Pending(Object message, boolean binary) {
+    }
+
+    /**
+     * 依次发送队首消息，队列为空时结束：发送在调用内同步完成时在本循环中继续，
+     * 异步完成时由 {@link InFlight} 回调重新进入本方法
+     */
+    private void drain() {
+        while (true) {
+            Pending next;
+            synchronized (this) {
+                next = queue.pollFirst();
+                if (next == null) {
+                    sending = false;
+                    return;
+                }
+                if (next.message() instanceof StepUpdate) {
+                    queuedSteps--;
+                }
+            }
+
+            InFlight inFlight = new InFlight(next.message());
+            try {
+                ByteBuffer frame = next.binary() ? BinaryFrameEncoder.encode(next.message()) : null;
+                if (frame != null) {
+                    session.getAsyncRemote().sendBinary(frame, inFlight);
+                } else {
+                    session.getAsyncRemote().sendText(JsonUtil.toJson(next.message()), inFlight);
+                }
+            } catch (RuntimeException e) {
+                inFlight.onResult(new SendResult(e));
+            }
+
+            synchronized (this) {
+                inFlight.returned = true;
+                if (!inFlight.completed) {
+                    // 尚未完成：由完成回调继续发送
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 一条在途消息的完成回调：记录统计，发送调用已返回时由回调线程继续发送下一条
+     */
+    private final class InFlight implements SendHandler {
+        private final Object message;
+        private final long start = System.nanoTime();
+        // 由外层队列的监视器保护
+        private boolean completed;
+        private boolean returned;
+
+        InFlight(Object message) {
+            this.message = message;
+        }
+
+        @Override
+        public void onResult(SendResult result) {
+            long latency = System.nanoTime() - start;
+            boolean resume;
+            synchronized (OutboundQueue.this) {
+                if (result.isOK()) {
+                    sent++;
+                    totalLatencyNanos += latency;
+                    maxLatencyNanos = Math.max(maxLatencyNanos, latency);
+                } else {
+                    failed++;
+                }
+                completed = true;
+                resume = returned;
+            }
+            if (!result.isOK()) {
+                log.warn("发送消息失败: sessionId={}, messageType={}, error={}", session.getId(),
+                        message.getClass().getSimpleName(), result.getException().getMessage());
+                if (!session.isOpen()) {
+                    clear();
+                }
+            }
+            if (resume) {
+                drain();
+            }
+        }
+    }
+
+    /**
+     * 丢弃尚未发送的消息（会话关闭时）
+     */
+    public synchronized void clear() {
+        queue.clear();
+        queuedSteps = 0;
+    }
+
+    /**
+     * 当前排队消息数
+     */
+    public synchronized int getDepth() {
+        return queue.size();
+    }
+
+    public synchronized int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * 因队列已满被合并掉的步骤数
+     */
+    public synchronized long getCoalesced() {
+        return coalesced;
+    }
+
+    public synchronized long getSent() {
+        return sent;
+    }
+
+    public synchronized long getFailed() {
+        return failed;
+    }
+
+    /**
+     * 成功发送的总耗时（从交给容器到完成回调，纳秒）
+     */
+    public synchronized long getTotalLatencyNanos() {
+        return totalLatencyNanos;
+    }
+
+    public synchronized long getMaxLatencyNanos() {
+        return maxLatencyNanos;
+    }
+}
@@ -19,10 +19,23 @@ public class SessionState {
     private AtomicBoolean isPaused;
     private AtomicInteger currentStep;
     private Long startTime;
-    private final Object pauseLock = new Object();
     private final AtomicInteger stepForwardCounter = new AtomicInteger(0);
+    /** 待处理的跳转目标步骤（从 1 开始），-1 表示没有 */
+    private final AtomicInteger pendingSeek = new AtomicInteger(-1);
     /** 当前步进间隔（毫秒），支持暂停时动态调整 */
     private volatile int interval = 1000;
+    /** 步骤更新与性能结果是否以二进制帧发送（由最近一次排序请求协商） */
+    private volatile boolean binaryFrames;
+    /** 出站消息队列，由会话管理器在添加会话时创建 */
+    private OutboundQueue outbound;
+    /** 当前教学播放，控制状态变化时唤醒它立即执行一个节拍 */
+    private volatile TeachingPlayback playback;
+    /** 本次教学播放是否启用流量控制（排序请求带有初始帧额度） */
+    private volatile boolean flowControl;
+    /** 剩余帧额度：每发送一帧减一，跳转等即时响应的帧可使其为负，客户端渲染后补充 */
+    private final AtomicInteger credits = new AtomicInteger();
+    /** 客户端最近报告的渲染延迟（毫秒） */
+    private volatile int renderLag;
 
     public SessionState(String sessionId, Session session) {
         this.sessionId = sessionId;
@@ -44,76 +57,164 @@ public class SessionState {
         this.isProcessing.set(true);
         this.isPaused.set(false);
         this.currentStep.set(0);
+        this.pendingSeek.set(-1);
+        // 上一次播放未消费的单步信号不能带入新请求，否则新播放暂停后会自行多走几步
+        this.stepForwardCounter.set(0);
+        this.flowControl = false;
+        this.renderLag = 0;
         this.startTime = System.currentTimeMillis();
         log.info("开始处理请求: sessionId={}, requestId={}, algorithm={}, mode={}",
                 sessionId, requestId, algorithm, mode);
     }
 
     /**
-     * 暂停处理
+     * 暂停处理（唤醒播放，取消已安排的节拍）
      */
     public void pauseProcessing() {
         if (isProcessing.get()) {
             isPaused.set(true);
+            wakePlayback();
             log.info("暂停处理: sessionId={}, requestId={}", sessionId, currentRequestId);
         }
     }
 
     /**
-     * 恢复处理（通知等待线程）
+     * 恢复处理（唤醒播放）
      */
     public void resumeProcessing() {
         if (isProcessing.get() && isPaused.get()) {
             isPaused.set(false);
-            synchronized (pauseLock) {
-                pauseLock.notifyAll();
-            }
+            wakePlayback();
             log.info("恢复处理: sessionId={}, requestId={}", sessionId, currentRequestId);
         }
     }
 
     /**
-     * 等待直到暂停状态解除或接收到单步信号（由发送线程调用）
+     * 跳转到指定步骤（从 1 开始），暂停状态下也会立即发送该步
      */
-    public void waitIfPaused() throws InterruptedException {
-        synchronized (pauseLock) {
-            while (isPaused.get() && isProcessing.get() && stepForwardCounter.get() == 0) {
-                pauseLock.wait();
-            }
-            // 消耗一个单步信号（若存在）
-            if (stepForwardCounter.get() > 0) {
-                stepForwardCounter.decrementAndGet();
-            }
+    public void seek(int step) {
+        if (isProcessing.get()) {
+            pendingSeek.set(Math.max(1, step));
+            wakePlayback();
+            log.info("跳转步骤: sessionId={}, step={}", sessionId, step);
+        }
+    }
+
+    /**
+     * 后退一步：以尚未处理的跳转目标或当前步骤为基准
+     */
+    public void stepBackward() {
+        if (isProcessing.get()) {
+            int target = pendingSeek.updateAndGet(
+                    pending -> Math.max(1, (pending > 0 ? pending : currentStep.get()) - 1));
+            wakePlayback();
+            log.info("单步后退: sessionId={}, targetStep={}", sessionId, target);
+        }
+    }
+
+    /**
+     * 重新同步：以完整快照重新发送当前步骤（已有待处理的跳转时无需额外处理，跳转本身就发送完整快照）
+     */
+    public void resync() {
+        if (isProcessing.get()) {
+            pendingSeek.compareAndSet(-1, Math.max(1, currentStep.get()));
+            wakePlayback();
+            log.info("重新同步: sessionId={}, currentStep={}", sessionId, currentStep.get());
         }
     }
 
+    /**
+     * 取出待处理的跳转目标（没有时返回 -1）
+     */
+    public int takeSeek() {
+        return pendingSeek.getAndSet(-1);
+    }
+
     /**
      * 单步执行：前进一个步骤（Phase 3）
      */
     public void stepForward() {
         if (isProcessing.get()) {
             stepForwardCounter.incrementAndGet();
-            synchronized (pauseLock) {
-                pauseLock.notifyAll();
-            }
+            wakePlayback();
             log.info("单步执行: sessionId={}, currentStep={}", sessionId, currentStep.get());
         }
     }
 
     /**
-     * 停止处理（通知等待线程退出）
+     * 停止处理（唤醒播放使其结束）
      */
     public void stopProcessing() {
         if (isProcessing.get()) {
             isProcessing.set(false);
             isPaused.set(false);
-            synchronized (pauseLock) {
-                pauseLock.notifyAll();
-            }
+            wakePlayback();
             log.info("停止处理: sessionId={}, requestId={}", sessionId, currentRequestId);
         }
     }
 
+    /**
+     * 启用流量控制并设置初始帧额度
+     */
+    public void enableFlowControl(int initialCredits) {
+        credits.set(initialCredits);
+        flowControl = true;
+    }
+
+    /**
+     * 客户端补充帧额度（额度不超过 maxCredits），并记录其渲染延迟；播放正因额度耗尽而等待时随即继续
+     */
+    public void grantCredits(int count, Integer lag, int maxCredits) {
+        if (lag != null && lag >= 0) {
+            renderLag = lag;
+        }
+        if (!flowControl || !isProcessing.get()) {
+            return;
+        }
+        credits.accumulateAndGet(count, (current, added) -> Math.min(maxCredits, current + added));
+        TeachingPlayback current = playback;
+        if (current != null) {
+            current.creditsAvailable();
+        }
+    }
+
+    /**
+     * 是否还可以发送帧（未启用流量控制时总是可以）
+     */
+    public boolean hasCredit() {
+        return !flowControl || credits.get() > 0;
+    }
+
+    /**
+     * 发送一帧，消耗一个帧额度
+     */
+    public void takeCredit() {
+        if (flowControl) {
+            credits.decrementAndGet();
+        }
+    }
+
+    /**
+     * 是否有未消耗的单步信号
+     */
+    public boolean hasStepForward() {
+        return stepForwardCounter.get() > 0;
+    }
+
+    /**
+     * 消耗一个单步信号（若存在），由播放在发送一步后调用
+     */
+    public void takeStepForward() {
+        stepForwardCounter.updateAndGet(count -> Math.max(0, count - 1));
+    }
+
+    private void wakePlayback() {
+        TeachingPlayback current = playback;
+        if (current != null) {
+            current.wake();
+        }
+    }
+
     /**
      * 检查是否正在处理
      */
@@ -157,6 +258,9 @@ public class SessionState {
      */
     public void clear() {
         stopProcessing();
+        if (outbound != null) {
+            outbound.clear();
+        }
         this.currentRequestId = null;
         this.currentAlgorithm = null;
         this.currentMode = null;
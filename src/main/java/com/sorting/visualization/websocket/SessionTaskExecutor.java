@@ -0,0 +1,97 @@
+package com.sorting.visualization.websocket;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按会话准入的有界任务执行器
+ * <p>
+ * 包装一个有界线程池：线程数与等待队列都有上限，放不下的任务以 {@link RejectedExecutionException} 拒绝，
+ * 由调用方回复 BUSY 错误，突发的大量请求不会无限制地创建线程。每个会话同时在执行或排队的任务数不超过
+ * {@code perSessionLimit}，单个会话无法占满队列，排队的任务按提交顺序执行。
+ */
+public class SessionTaskExecutor {
+
+    private final ThreadPoolExecutor pool;
+    private final int perSessionLimit;
+
+    /** 各会话正在执行或排队的任务数，归零时移除 */
+    private final Map<String, Integer> sessionTasks = new ConcurrentHashMap<>();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public SessionTaskExecutor(ThreadPoolExecutor pool, int perSessionLimit) {
+        this.pool = pool;
+        this.perSessionLimit = Math.max(1, perSessionLimit);
+        pool.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 以会话身份提交任务；本会话的任务数已达上限或线程池已满时抛出 {@link RejectedExecutionException}
+     */
+    public void execute(String sessionId, Runnable task) {
+        boolean[] admitted = {false};
+        sessionTasks.compute(sessionId, (id, count) -> {
+            if (count != null && count >= perSessionLimit) {
+                return count;
+            }
+            admitted[0] = true;
+            return count == null ? 1 : count + 1;
+        });
+        if (!admitted[0]) {
+            rejected.incrementAndGet();
+            throw new RejectedExecutionException("会话任务数已达上限: sessionId=" + sessionId);
+        }
+
+        try {
+            pool.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    release(sessionId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            release(sessionId);
+            rejected.incrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * 绑定会话的 {@link Executor} 视图，供 CompletableFuture 等使用
+     */
+    public Executor forSession(String sessionId) {
+        return task -> execute(sessionId, task);
+    }
+
+    private void release(String sessionId) {
+        sessionTasks.computeIfPresent(sessionId, (id, count) -> count > 1 ? count - 1 : null);
+    }
+
+    /**
+     * 关闭线程池
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * 线程池统计：线程数、活动线程数、排队任务数、已完成与被拒绝的任务数
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new java.util.HashMap<>();
+        stats.put("poolSize", pool.getPoolSize());
+        stats.put("maxPoolSize", pool.getMaximumPoolSize());
+        stats.put("largestPoolSize", pool.getLargestPoolSize());
+        stats.put("activeThreads", pool.getActiveCount());
+        stats.put("queuedTasks", pool.getQueue().size());
+        stats.put("completedTasks", pool.getCompletedTaskCount());
+        stats.put("rejectedTasks", rejected.get());
+        stats.put("activeSessions", sessionTasks.size());
+        return stats;
+    }
+}
@@ -0,0 +1,281 @@
+package com.sorting.visualization.websocket;
+
+import com.sorting.visualization.algorithm.StepTimeline;
+import com.sorting.visualization.model.response.StepUpdate;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 教学模式的一次播放
+ * <p>
+ * 播放不占用专门的线程：共享调度器每个节拍执行一次 {@link #tick}，发送下一步后按会话当前间隔安排下一个节拍。
+ * 暂停时不安排节拍，会话没有任何待执行的任务；暂停、恢复、单步、跳转、停止通过 {@link #wake} 立即安排节拍，
+ * 控制在下一个节拍即生效，不必等完当前间隔。步骤尚未生成时稍后重试，不阻塞调度线程。
+ * 生产者领先过多时会让出线程（见 {@link StepTimeline}），节拍把缓冲消耗过半后重新提交生产者。
+ * <p>
+ * 间隔短于一帧（{@code websocket.playback.target-fps}）时进入快速播放：节拍按帧间隔执行，每帧按间隔累计可前进的步数，
+ * 只发送其中最后一步（增量模式下为相对上一帧的合并变化），客户端每帧最多渲染一次，逐步发送只会堆积在连接上。
+ * 间隔为 0 时每帧最多前进 {@code websocket.playback.max-steps-per-frame} 步。
+ * <p>
+ * 启用流量控制时每帧消耗会话的一个帧额度，额度耗尽即停止安排节拍，客户端渲染后补充额度再继续，
+ * 发出而未渲染的帧不超过客户端给出的额度。客户端报告的渲染延迟长于一帧时以它作为帧间隔，
+ * 步数仍按间隔累计，渲染慢的客户端收到更少、跨度更大的帧，播放速度不变。
+ * <p>
+ * 节拍由 this 的监视器串行执行；每次安排节拍都递增代号，被取代但已开始执行的旧节拍直接返回。
+ */
+@Slf4j
+public class TeachingPlayback {
+
+    /** 步骤尚未生成时的重试间隔（毫秒） */
+    private static final long PRODUCER_RETRY_MILLIS = 5;
+
+    /** 按客户端渲染延迟放宽帧间隔的上限（毫秒），页面在后台时浏览器暂停渲染，报告的延迟不可信 */
+    private static final long MAX_FRAME_MILLIS = 1000;
+
+    private final WebSocketSessionManager sessionManager;
+    private final SessionState state;
+    private final String requestId;
+    private final StepTimeline<?> timeline;
+    private final boolean delta;
+    private final Runnable resumeProducer;
+    private final Runnable onComplete;
+    private final Consumer<Throwable> onError;
+    private final ScheduledExecutorService scheduler;
+    private final long frameMillis;
+    private final int maxStepsPerFrame;
+
+    // 以下状态均由 this 的监视器保护
+    private int nextIndex;
+    private int sentIndex = -1;
+    private int seekIndex = -1;
+    /** 快速播放时累计的可前进步数（小数部分留到下一帧） */
+    private double stepBudget;
+    private long generation;
+    private ScheduledFuture<?> pending;
+    private boolean awaitingCredit;
+    private boolean finished;
+
+    /**
+     * @param delta          是否在首帧与跳转后的完整快照之后只发送相对上一次发送的步骤的变化
+     * @param resumeProducer 重新提交已让出线程的步骤生产者（提交被拒绝时抛出 {@link RejectedExecutionException}）
+     * @param onComplete     最后一步发送后调用
+     * @param onError        步骤生成失败时调用
+     */
+    public TeachingPlayback(WebSocketSessionManager sessionManager, SessionState state, String requestId,
+                            StepTimeline<?> timeline, boolean delta, Runnable resumeProducer,
+                            Runnable onComplete, Consumer<Throwable> onError) {
+        this.sessionManager = sessionManager;
+        this.state = state;
+        this.requestId = requestId;
+        this.timeline = timeline;
+        this.delta = delta;
+        this.resumeProducer = resumeProducer;
+        this.onComplete = onComplete;
+        this.onError = onError;
+        this.scheduler = sessionManager.getPlaybackScheduler();
+        this.frameMillis = sessionManager.getPlaybackFrameMillis();
+        this.maxStepsPerFrame = sessionManager.getMaxStepsPerFrame();
+    }
+
+    /**
+     * 开始播放：登记到会话，立即发送初始状态
+     */
+    public void start() {
+        state.setPlayback(this);
+        wake();
+    }
+
+    /**
+     * 客户端补充了帧额度：播放正因额度耗尽而等待时立即执行一个节拍
+     */
+    public synchronized void creditsAvailable() {
+        if (awaitingCredit && !finished) {
+            awaitingCredit = false;
+            schedule(0);
+        }
+    }
+
+    /**
+     * 取消已安排的节拍并立即执行一个节拍（会话控制状态变化后调用）
+     */
+    public synchronized void wake() {
+        if (!finished) {
+            schedule(0);
+        }
+    }
+
+    private void schedule(long delayMillis) {
+        if (pending != null) {
+            pending.cancel(false);
+        }
+        long tickGeneration = ++generation;
+        pending = scheduler.schedule(() -> tick(tickGeneration), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void tick(long tickGeneration) {
+        if (finished || tickGeneration != generation) {
+            return;
+        }
+        pending = null;
+        awaitingCredit = false;
+        try {
+            advance();
+            if (!finished) {
+                resumeProducerIfDrained();
+            }
+        } catch (RuntimeException e) {
+            finish();
+            onError.accept(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+        }
+    }
+
+    private void advance() {
+        // 停止后又开始了新的请求时 processing 仍为 true，需同时核对请求ID，避免两个播放交替发送步骤
+        if (!state.isProcessing() || !requestId.equals(state.getCurrentRequestId())) {
+            log.info("排序被停止: sessionId={}, requestId={}", state.getSessionId(), requestId);
+            finish();
+            return;
+        }
+
+        // 跳转 / 后退：发送目标步骤（由时间线从最近的关键帧还原），之后从目标步骤继续播放
+        int seek = state.takeSeek();
+        if (seek > 0) {
+            seekIndex = seek - 1;
+        }
+        if (seekIndex >= 0) {
+            sendSeekStep();
+            return;
+        }
+
+        // 暂停且没有单步信号时不再安排节拍，等待控制消息唤醒
+        boolean stepping = state.isPaused();
+        if (stepping && !state.hasStepForward()) {
+            return;
+        }
+
+        // 流量控制：额度耗尽时不再安排节拍，等待客户端补充
+        if (!state.hasCredit()) {
+            awaitingCredit = true;
+            return;
+        }
+
+        // 本节拍前进的步数：首帧、单步或正常速度为 1，快速播放时为本帧累计的步数
+        int batch = stepping || sentIndex < 0 ? 1 : stepsThisFrame(state.getInterval());
+
+        // 取本节拍的最后一步：批内后面的步骤尚未生成时发送已生成的最后一步，一步都没有时稍后重试，生成已结束则播放完成
+        int base = delta ? sentIndex : -1;
+        int last = nextIndex + batch - 1;
+        StepUpdate step = timeline.pollStep(last, base);
+        if (step == null) {
+            last = Math.min(last, timeline.size() - 1);
+            if (last < nextIndex) {
+                if (timeline.isExhausted(nextIndex)) {
+                    finish();
+                    onComplete.run();
+                } else {
+                    schedule(PRODUCER_RETRY_MILLIS);
+                }
+                return;
+            }
+            step = timeline.pollStep(last, base);
+        }
+        stepBudget = Math.max(0, stepBudget - (last - nextIndex + 1));
+        state.takeStepForward();
+        send(step, last);
+        scheduleNext();
+    }
+
+    /**
+     * 本节拍取过步骤后，生产者已让出线程且缓冲已消耗过半时重新提交；线程池已满时保持让出，下个节拍再试
+     */
+    private void resumeProducerIfDrained() {
+        if (!timeline.claimResume()) {
+            return;
+        }
+        try {
+            resumeProducer.run();
+        } catch (RejectedExecutionException e) {
+            timeline.resumeRejected();
+            log.debug("重新提交步骤生产者被拒绝: sessionId={}, requestId={}", state.getSessionId(), requestId);
+        }
+    }
+
+    /**
+     * 快速播放时本帧可前进的步数（至少 1）；间隔不短于一帧时为 1
+     */
+    private int stepsThisFrame(int interval) {
+        long frame = currentFrameMillis();
+        if (interval >= frame) {
+            return 1;
+        }
+        stepBudget = interval <= 0
+                ? maxStepsPerFrame
+                : Math.min(stepBudget + (double) frame / interval, maxStepsPerFrame);
+        return (int) stepBudget;
+    }
+
+    /**
+     * 当前帧间隔：目标帧率对应的间隔与客户端渲染延迟中的较大者
+     */
+    private long currentFrameMillis() {
+        return Math.max(frameMillis, Math.min(state.getRenderLag(), MAX_FRAME_MILLIS));
+    }
+
+    /**
+     * 发送跳转目标步骤，目标超出总步数时发送最后一步；目标尚未生成时稍后重试
+     */
+    private void sendSeekStep() {
+        StepUpdate step = timeline.pollStep(seekIndex, -1);
+        if (step == null) {
+            if (!timeline.isExhausted(seekIndex)) {
+                schedule(PRODUCER_RETRY_MILLIS);
+                return;
+            }
+            seekIndex = timeline.size() - 1;
+            step = timeline.pollStep(seekIndex, -1);
+        }
+        send(step, seekIndex);
+        seekIndex = -1;
+        stepBudget = 0;
+        log.debug("跳转完成: sessionId={}, requestId={}, step={}", state.getSessionId(), requestId, step.getStep());
+        scheduleNext();
+    }
+
+    private void send(StepUpdate step, int index) {
+        step.setRequestId(requestId);
+        step.setTimestamp(System.currentTimeMillis());
+        state.updateStep(step.getStep());
+        state.takeCredit();
+        sessionManager.sendMessage(state.getSessionId(), step);
+        sentIndex = index;
+        nextIndex = index + 1;
+    }
+
+    /**
+     * 按会话当前间隔（支持暂停时调整）安排下一个节拍，快速播放时按帧间隔；暂停且没有单步信号时不安排，
+     * 额度耗尽时由下一个节拍进入等待
+     */
+    private void scheduleNext() {
+        if (!state.isPaused() || state.hasStepForward()) {
+            schedule(Math.max(state.getInterval(), currentFrameMillis()));
+        }
+    }
+
+    /**
+     * 结束播放：不再需要后续步骤，结束仍在生成的排序
+     */
+    private void finish() {
+        finished = true;
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+        timeline.cancel();
+    }
+}
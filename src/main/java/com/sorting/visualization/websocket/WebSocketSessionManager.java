@@ -1,28 +1,96 @@
 package com.sorting.visualization.websocket;
 
-import com.sorting.visualization.util.JsonUtil;
+import jakarta.annotation.PostConstruct;
 import jakarta.websocket.Session;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.io.IOException;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Component
 @Slf4j
 public class WebSocketSessionManager {
 
     private final Map<String, SessionState> sessionStates = new ConcurrentHashMap<>();
-    private final ExecutorService executorService = Executors.newCachedThreadPool();
+
+    /** 排序任务（性能模式、外部排序、教学模式步骤生成）执行器，线程数与队列均有上限 */
+    private SessionTaskExecutor sortTasks;
+
+    /** 所有会话共享的教学播放调度器，按节拍发送步骤，暂停中的播放不占用线程 */
+    private ScheduledThreadPoolExecutor playbackScheduler;
+
+    @Value("${task.pool.core-size:10}")
+    private int taskPoolCoreSize = 10;
+
+    @Value("${task.pool.max-size:50}")
+    private int taskPoolMaxSize = 50;
+
+    @Value("${task.pool.queue-capacity:1000}")
+    private int taskPoolQueueCapacity = 1000;
+
+    /** 每个会话同时执行或排队的排序任务数上限 */
+    @Value("${task.pool.per-session-limit:2}")
+    private int taskPoolPerSessionLimit = 2;
+
+    /** 播放调度线程数 */
+    @Value("${websocket.playback.threads:2}")
+    private int playbackThreads = 2;
+
+    /** 快速播放（间隔短于一帧）时每秒发送的帧数 */
+    @Value("${websocket.playback.target-fps:60}")
+    private int playbackTargetFps = 60;
+
+    /** 快速播放时每帧最多前进的步数（间隔为 0 时即为每帧步数） */
+    @Value("${websocket.playback.max-steps-per-frame:1000}")
+    private int maxStepsPerFrame = 1000;
+
+    /** 流量控制时会话最多持有的帧额度（客户端补充的额度超出部分丢弃） */
+    @Value("${websocket.flow.max-credits:64}")
+    private int maxCredits = 64;
+
+    /** 每个会话出站队列中最多排队的步骤更新数 */
+    @Value("${websocket.outbound.queue-capacity:64}")
+    private int outboundCapacity = 64;
+
+    /** 出站队列已满时的处理方式：COALESCE 与队尾步骤合并，LATEST 只保留最新一帧 */
+    @Value("${websocket.outbound.overflow-policy:COALESCE}")
+    private OutboundQueue.OverflowPolicy overflowPolicy = OutboundQueue.OverflowPolicy.COALESCE;
+
+    @PostConstruct
+    void init() {
+        ThreadPoolExecutor sortPool = new ThreadPoolExecutor(taskPoolCoreSize, Math.max(taskPoolCoreSize, taskPoolMaxSize),
+                60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(Math.max(1, taskPoolQueueCapacity)), threadFactory("sort-task-", false));
+        sortTasks = new SessionTaskExecutor(sortPool, taskPoolPerSessionLimit);
+
+        playbackScheduler = new ScheduledThreadPoolExecutor(Math.max(1, playbackThreads), threadFactory("playback-", true));
+        // 暂停、跳转等控制会取消已安排的节拍，取消后立即移出队列
+        playbackScheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    private static ThreadFactory threadFactory(String prefix, boolean daemon) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadCount.incrementAndGet());
+            thread.setDaemon(daemon);
+            return thread;
+        };
+    }
 
     /**
      * 添加会话
      */
     public void addSession(String sessionId, Session session) {
         SessionState state = new SessionState(sessionId, session);
+        state.setOutbound(new OutboundQueue(session, outboundCapacity, overflowPolicy, state::isBinaryFrames));
         sessionStates.put(sessionId, state);
         log.info("添加WebSocket会话: sessionId={}, 当前会话数: {}", sessionId, sessionStates.size());
     }
@@ -47,24 +115,25 @@ public class WebSocketSessionManager {
     }
 
     /**
-     * 发送消息到会话
+     * 发送消息到会话：放入会话的出站队列后立即返回，由容器异步发送
      */
     public boolean sendMessage(String sessionId, Object message) {
         SessionState state = sessionStates.get(sessionId);
-        if (state == null || state.getSession() == null || !state.getSession().isOpen()) {
+        if (state == null || state.getSession() == null || !state.getOutbound().enqueue(message)) {
             log.warn("会话不存在或已关闭: sessionId={}", sessionId);
             return false;
         }
+        log.debug("消息已入队: sessionId={}, messageType={}", sessionId, message.getClass().getSimpleName());
+        return true;
+    }
 
-        try {
-            String jsonMessage = JsonUtil.toJson(message);
-            state.getSession().getBasicRemote().sendText(jsonMessage);
-            log.debug("发送消息到会话: sessionId={}, messageType={}",
-                    sessionId, message.getClass().getSimpleName());
-            return true;
-        } catch (IOException e) {
-            log.error("发送消息失败: sessionId={}, error={}", sessionId, e.getMessage(), e);
-            return false;
+    /**
+     * 设置会话的消息编码（步骤更新与性能结果是否使用二进制帧）
+     */
+    public void setBinaryFrames(String sessionId, boolean binaryFrames) {
+        SessionState state = sessionStates.get(sessionId);
+        if (state != null) {
+            state.setBinaryFrames(binaryFrames);
         }
     }
 
@@ -78,6 +147,27 @@ public class WebSocketSessionManager {
         }
     }
 
+    /**
+     * 启用流量控制，初始帧额度不超过上限
+     */
+    public void enableFlowControl(String sessionId, int initialCredits) {
+        SessionState state = sessionStates.get(sessionId);
+        if (state != null) {
+            state.enableFlowControl(Math.min(initialCredits, Math.max(1, maxCredits)));
+        }
+    }
+
+    /**
+     * 客户端补充帧额度并报告渲染延迟；requestId 与当前请求不符时（上一次排序迟到的补充）忽略
+     */
+    public void grantCredits(String sessionId, String requestId, int credits, Integer renderLag) {
+        SessionState state = sessionStates.get(sessionId);
+        if (state == null || (requestId != null && !requestId.equals(state.getCurrentRequestId()))) {
+            return;
+        }
+        state.grantCredits(credits, renderLag, Math.max(1, maxCredits));
+    }
+
     /**
      * 暂停处理
      */
@@ -108,6 +198,36 @@ public class WebSocketSessionManager {
         }
     }
 
+    /**
+     * 单步后退
+     */
+    public void stepBackward(String sessionId) {
+        SessionState state = sessionStates.get(sessionId);
+        if (state != null) {
+            state.stepBackward();
+        }
+    }
+
+    /**
+     * 跳转到指定步骤
+     */
+    public void seek(String sessionId, int step) {
+        SessionState state = sessionStates.get(sessionId);
+        if (state != null) {
+            state.seek(step);
+        }
+    }
+
+    /**
+     * 重新同步：重新发送当前步骤的完整快照
+     */
+    public void resync(String sessionId) {
+        SessionState state = sessionStates.get(sessionId);
+        if (state != null) {
+            state.resync();
+        }
+    }
+
     /**
      * 停止处理
      */
@@ -135,10 +255,31 @@ public class WebSocketSessionManager {
     }
 
     /**
-     * 获取执行器服务
+     * 获取排序任务执行器
+     */
+    public SessionTaskExecutor getSortTasks() {
+        return sortTasks;
+    }
+
+    /**
+     * 快速播放的帧间隔（毫秒）
+     */
+    public long getPlaybackFrameMillis() {
+        return Math.max(1, Math.round(1000.0 / Math.max(1, playbackTargetFps)));
+    }
+
+    /**
+     * 快速播放时每帧最多前进的步数
+     */
+    public int getMaxStepsPerFrame() {
+        return Math.max(1, maxStepsPerFrame);
+    }
+
+    /**
+     * 获取教学播放调度器
      */
-    public ExecutorService getExecutorService() {
-        return executorService;
+    public ScheduledExecutorService getPlaybackScheduler() {
+        return playbackScheduler;
     }
 
     /**
@@ -159,7 +300,8 @@ public class WebSocketSessionManager {
         }
 
         sessionStates.clear();
-        executorService.shutdown();
+        sortTasks.shutdown();
+        playbackScheduler.shutdownNow();
         log.info("所有WebSocket会话已关闭");
     }
 
@@ -172,6 +314,17 @@ public class WebSocketSessionManager {
 
         int processingCount = 0;
         int pausedCount = 0;
+        int queuedMessages = 0;
+        int maxQueueDepth = 0;
+        long coalescedSteps = 0;
+        long sentMessages = 0;
+        long failedMessages = 0;
+        long totalLatencyNanos = 0;
+        long maxLatencyNanos = 0;
+        int flowControlled = 0;
+        int awaitingCredits = 0;
+        long totalRenderLag = 0;
+        int maxRenderLag = 0;
 
         for (SessionState state : sessionStates.values()) {
             if (state.isProcessing()) {
@@ -179,11 +332,51 @@ public class WebSocketSessionManager {
                 if (state.isPaused()) {
                     pausedCount++;
                 }
+                if (state.isFlowControl()) {
+                    flowControlled++;
+                    if (!state.hasCredit()) {
+                        awaitingCredits++;
+                    }
+                    totalRenderLag += state.getRenderLag();
+                    maxRenderLag = Math.max(maxRenderLag, state.getRenderLag());
+                }
             }
+            OutboundQueue outbound = state.getOutbound();
+            queuedMessages += outbound.getDepth();
+            maxQueueDepth = Math.max(maxQueueDepth, outbound.getMaxDepth());
+            coalescedSteps += outbound.getCoalesced();
+            sentMessages += outbound.getSent();
+            failedMessages += outbound.getFailed();
+            totalLatencyNanos += outbound.getTotalLatencyNanos();
+            maxLatencyNanos = Math.max(maxLatencyNanos, outbound.getMaxLatencyNanos());
         }
 
         stats.put("processingSessions", processingCount);
         stats.put("pausedSessions", pausedCount);
+        // 播放调度器中已安排的节拍数（暂停中的播放不计入）
+        stats.put("scheduledPlaybackTicks", playbackScheduler.getQueue().size());
+
+        // 出站队列：当前排队数、历史最大深度、合并掉的步骤数、发送数与发送耗时（微秒）
+        Map<String, Object> outboundStats = new java.util.HashMap<>();
+        outboundStats.put("queuedMessages", queuedMessages);
+        outboundStats.put("maxQueueDepth", maxQueueDepth);
+        outboundStats.put("coalescedSteps", coalescedSteps);
+        outboundStats.put("sentMessages", sentMessages);
+        outboundStats.put("failedMessages", failedMessages);
+        outboundStats.put("avgSendLatencyMicros", sentMessages > 0 ? totalLatencyNanos / sentMessages / 1000 : 0);
+        outboundStats.put("maxSendLatencyMicros", maxLatencyNanos / 1000);
+        stats.put("outbound", outboundStats);
+
+        // 流量控制：启用的会话数、额度耗尽等待客户端补充的会话数、客户端报告的渲染延迟（毫秒）
+        Map<String, Object> flowStats = new java.util.HashMap<>();
+        flowStats.put("flowControlledSessions", flowControlled);
+        flowStats.put("awaitingCreditSessions", awaitingCredits);
+        flowStats.put("avgRenderLagMillis", flowControlled > 0 ? totalRenderLag / flowControlled : 0);
+        flowStats.put("maxRenderLagMillis", maxRenderLag);
+        stats.put("flowControl", flowStats);
+
+        // 任务线程池：线程数、排队任务数、被拒绝（回复 BUSY）的任务数
+        stats.put("sortTasks", sortTasks.getStats());
 
         return stats;
     }
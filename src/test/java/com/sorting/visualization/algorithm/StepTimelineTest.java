@@ -0,0 +1,319 @@
+package com.sorting.visualization.algorithm;
+
+import com.sorting.visualization.algorithm.impl.BubbleSort;
+import com.sorting.visualization.algorithm.impl.HeapSort;
+import com.sorting.visualization.algorithm.impl.InsertionSort;
+import com.sorting.visualization.algorithm.impl.MergeSort;
+import com.sorting.visualization.algorithm.impl.QuickSort;
+import com.sorting.visualization.algorithm.impl.ShellSort;
+import com.sorting.visualization.algorithm.impl.ThreeWayQuickSort;
+import com.sorting.visualization.model.Highlight;
+import com.sorting.visualization.model.response.StepUpdate;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 步骤时间线：顺序读取、任意跳转与增量消息都必须与记录时的完整快照一致
+ */
+class StepTimelineTest {
+
+    private static final int SIZE = 40;
+    private static final int STEPS = 3000;
+
+    /**
+     * 随机写入 / 交换生成时间线，同时保存每一步的完整快照与高亮作为对照
+     */
+    private static final class Recorded {
+        final StepTimeline<Integer> timeline;
+        final List<List<Integer>> snapshots = new ArrayList<>();
+        final List<Highlight> highlights = new ArrayList<>();
+
+        Recorded(long seed) {
+            this(seed, null);
+        }
+
+        static List<Integer> initial(Random random) {
+            List<Integer> initial = new ArrayList<>();
+            for (int i = 0; i < SIZE; i++) {
+                initial.add(random.nextInt(100));
+            }
+            return initial;
+        }
+
+        /**
+         * target 不为 null 时记录到 target（须以同一 seed 生成的初始数据创建）
+         */
+        Recorded(long seed, StepTimeline<Integer> target) {
+            Random random = new Random(seed);
+            List<Integer> initial = initial(random);
+            timeline = target != null ? target : new StepTimeline<>(initial);
+            List<Integer> tracked = timeline.track();
+
+            for (int step = 0; step < STEPS; step++) {
+                int ops = random.nextInt(4);
+                for (int k = 0; k < ops; k++) {
+                    int i = random.nextInt(SIZE);
+                    int j = random.nextInt(SIZE);
+                    if (random.nextBoolean()) {
+                        tracked.set(i, random.nextInt(100));
+                    } else {
+                        ((StepTimeline.SwappableList) tracked).swap(i, j);
+                    }
+                }
+
+                Highlight highlight = new Highlight();
+                if (random.nextInt(3) > 0) {
+                    // 常见的情况：连续几步高亮相同，时间线会共用一份编码
+                    highlight.compare(step / 7 % SIZE).sortedRange(SIZE - 1 - step / 300 % SIZE, SIZE);
+                }
+
+                List<Integer> data = tracked;
+                if (step % 97 == 0) {
+                    // 不经过工作数组、直接给出新数组的写法：时间线逐项比较记录变化
+                    data = new ArrayList<>(tracked);
+                    Collections.reverse(data);
+                }
+
+                StepDescription description = timeline.describe(StepMessage.SWAP).arg(step).arg(step + 1);
+                if (step == STEPS - 1) {
+                    timeline.addFinalStep(data, highlight, description, step, step, step);
+                } else {
+                    timeline.addStep(data, highlight, description, step, step, step);
+                }
+                snapshots.add(new ArrayList<>(tracked));
+                highlights.add(highlight);
+            }
+        }
+    }
+
+    @Test
+    void sequentialStepsMatchSnapshots() {
+        Recorded recorded = new Recorded(1);
+        StepTimeline<Integer> timeline = recorded.timeline;
+
+        assertEquals(STEPS, timeline.size());
+        assertEquals(STEPS, timeline.getTotalSteps());
+        for (int i = 0; i < STEPS; i++) {
+            StepUpdate step = timeline.getStep(i);
+            assertEquals(i + 1, step.getStep());
+            assertEquals(recorded.snapshots.get(i), step.getData(), "第" + i + "步");
+            assertHighlightEquals(recorded.highlights.get(i), step.getHighlight());
+            assertEquals(i, step.getStats().getComparisons());
+            assertEquals("交换第" + i + "个和第" + (i + 1) + "个元素", step.getDescription());
+        }
+    }
+
+    @Test
+    void randomSeeksMatchSnapshots() {
+        Recorded recorded = new Recorded(2);
+        List<Integer> order = new ArrayList<>(IntStream.range(0, STEPS).boxed().toList());
+        Collections.shuffle(order, new Random(3));
+
+        for (int index : order) {
+            assertEquals(recorded.snapshots.get(index), recorded.timeline.getStep(index).getData(), "第" + index + "步");
+        }
+        // 向后跳转（游标在目标之后）与第一步
+        for (int index = STEPS - 1; index >= 0; index -= 37) {
+            assertEquals(recorded.snapshots.get(index), recorded.timeline.getStep(index).getData());
+        }
+        assertEquals(recorded.snapshots.get(0), recorded.timeline.getStep(0).getData());
+    }
+
+    @Test
+    void deltasApplyToBaseSnapshot() {
+        Recorded recorded = new Recorded(4);
+        Random random = new Random(5);
+        int deltas = 0;
+
+        for (int index = 1; index < STEPS; index++) {
+            int[] bases = {index - 1, Math.max(0, index - 5), random.nextInt(index)};
+            for (int base : bases) {
+                StepUpdate step = recorded.timeline.getStep(index, base);
+                List<Integer> expected = recorded.snapshots.get(index);
+                if (step.getChanges() == null) {
+                    // 变化过多时退回完整快照
+                    assertNull(step.getBaseStep());
+                    assertEquals(expected, step.getData());
+                    continue;
+                }
+                deltas++;
+                assertNull(step.getData());
+                assertEquals(base + 1, step.getBaseStep());
+                assertEquals(expected, apply(recorded.snapshots.get(base), step.getChanges()),
+                        "第" + index + "步相对第" + base + "步");
+            }
+        }
+        // 每步至多 3 次写入，大部分增量消息不会退回快照
+        assertTrue(deltas > STEPS);
+    }
+
+    @Test
+    void chainedDeltasReproduceSortingRun() {
+        List<ComparisonSortingAlgorithm<Integer>> algorithms = List.of(new QuickSort<>(), new HeapSort<>());
+        for (ComparisonSortingAlgorithm<Integer> algorithm : algorithms) {
+            Random random = new Random(6);
+            List<Integer> data = new ArrayList<>();
+            for (int i = 0; i < 60; i++) {
+                data.add(random.nextInt(30));
+            }
+
+            StepTimeline<Integer> timeline = algorithm.teach(new ArrayList<>(data), Comparator.naturalOrder())
+                    .getTimeline();
+            assertNotNull(timeline);
+
+            List<Integer> replayed = castData(timeline.getStep(0));
+            for (int index = 1; index < timeline.size(); index++) {
+                StepUpdate step = timeline.getStep(index, index - 1);
+                replayed = step.getChanges() != null ? apply(replayed, step.getChanges()) : castData(step);
+                assertEquals(castData(timeline.getStep(index)), replayed,
+                        algorithm.getAlgorithmName() + " 第" + index + "步");
+            }
+
+            List<Integer> sorted = new ArrayList<>(data);
+            Collections.sort(sorted);
+            assertEquals(sorted, replayed);
+        }
+    }
+
+    @Test
+    void stopAfterTenStepsDoesNotGenerateTheRest() {
+        List<Integer> data = randomData(300, 7);
+        StepTimeline<Integer> timeline = new StepTimeline<>(data);
+        timeline.setBufferSteps(256);
+
+        // 冒泡排序 300 个元素约 9 万步，生产者领先 256 步后让出线程
+        assertNull(timeline.produce(() -> new BubbleSort<Integer>().teach(timeline, Comparator.naturalOrder())));
+        assertEquals(257, timeline.size());
+
+        for (int i = 0; i < 10; i++) {
+            assertNotNull(timeline.pollStep(i, i - 1));
+        }
+        assertFalse(timeline.claimResume());
+
+        // STOP：播放结束时取消时间线，之后不再重新提交生产者
+        timeline.cancel();
+        for (int i = 10; i < 257; i++) {
+            timeline.pollStep(i, -1);
+        }
+        assertFalse(timeline.claimResume());
+        assertTrue(timeline.isExhausted(257));
+        assertEquals(257, timeline.size());
+    }
+
+    @Test
+    void resumedProductionMatchesUnboundedRun() {
+        List<ComparisonSortingAlgorithm<Integer>> algorithms = List.of(new BubbleSort<>(), new InsertionSort<>(),
+                new ShellSort<>(), new QuickSort<>(), new ThreeWayQuickSort<>(), new HeapSort<>(), new MergeSort<>());
+        for (ComparisonSortingAlgorithm<Integer> algorithm : algorithms) {
+            List<Integer> data = randomData(80, 8);
+            StepTimeline<Integer> expected = algorithm.teach(new ArrayList<>(data), Comparator.naturalOrder())
+                    .getTimeline();
+
+            StepTimeline<Integer> timeline = new StepTimeline<>(data);
+            timeline.setBufferSteps(16);
+            int runs = consume(timeline, expected,
+                    () -> algorithm.teach(timeline, Comparator.naturalOrder()), algorithm.getAlgorithmName());
+
+            assertEquals(expected.size(), timeline.size());
+            assertTrue(runs > 2, algorithm.getAlgorithmName() + " 运行次数 " + runs);
+        }
+    }
+
+    @Test
+    void resumedProductionReplaysUntrackedSteps() {
+        StepTimeline<Integer> expected = new Recorded(9).timeline;
+
+        StepTimeline<Integer> timeline = new StepTimeline<>(Recorded.initial(new Random(9)));
+        timeline.setBufferSteps(64);
+        // Recorded 每 97 步直接给出一个新数组，重放时副本数组也要跟着更新
+        int runs = consume(timeline, expected, () -> {
+            new Recorded(9, timeline);
+            return Boolean.TRUE;
+        }, "Recorded");
+
+        assertEquals(STEPS, timeline.size());
+        assertTrue(runs > 2);
+    }
+
+    /**
+     * 按播放端的方式逐步读取：缓冲消耗过半或读到尚未生成的步骤时重新运行生产者，逐步与一次生成的时间线比较，
+     * 并检查生产者领先读取位置的步数；返回生产者运行的次数
+     */
+    private static int consume(StepTimeline<Integer> timeline, StepTimeline<Integer> expected,
+                               Supplier<?> producer, String name) {
+        Object result = timeline.produce(producer);
+        int runs = 1;
+        for (int i = 0; ; i++) {
+            StepUpdate step = timeline.pollStep(i, -1);
+            if (step == null) {
+                if (timeline.isExhausted(i)) {
+                    break;
+                }
+                assertTrue(timeline.claimResume(), name + " 第" + i + "步");
+                int before = timeline.size();
+                result = timeline.produce(producer);
+                runs++;
+                assertTrue(result != null || timeline.size() <= i + Math.max(16, before) + 2, name);
+                i--;
+                continue;
+            }
+            StepUpdate reference = expected.getStep(i);
+            assertEquals(reference.getData(), step.getData(), name + " 第" + i + "步");
+            assertEquals(reference.getDescription(), step.getDescription());
+            assertEquals(reference.getStats().getComparisons(), step.getStats().getComparisons());
+            assertEquals(reference.getStats().getSwaps(), step.getStats().getSwaps());
+            assertHighlightEquals(reference.getHighlight(), step.getHighlight());
+            if (result == null && timeline.claimResume()) {
+                result = timeline.produce(producer);
+                runs++;
+            }
+        }
+        assertNotNull(result);
+        return runs;
+    }
+
+    private static List<Integer> randomData(int size, long seed) {
+        Random random = new Random(seed);
+        List<Integer> data = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            data.add(random.nextInt(size / 2));
+        }
+        return data;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Integer> castData(StepUpdate step) {
+        return new ArrayList<>((List<Integer>) (List<?>) step.getData());
+    }
+
+    private static List<Integer> apply(List<Integer> base, List<StepUpdate.Change> changes) {
+        List<Integer> result = new ArrayList<>(base);
+        for (StepUpdate.Change change : changes) {
+            result.set(change.getIndex(), (Integer) change.getValue());
+        }
+        return result;
+    }
+
+    private static void assertHighlightEquals(Highlight expected, Highlight actual) {
+        assertArrayEquals(expected.getCompare(), actual.getCompare());
+        assertArrayEquals(expected.getSwap(), actual.getSwap());
+        assertArrayEquals(expected.getPivot(), actual.getPivot());
+        assertArrayEquals(expected.getHeap(), actual.getHeap());
+        assertArrayEquals(expected.getEqual(), actual.getEqual());
+        assertArrayEquals(expected.getSorted(), actual.getSorted());
+    }
+}
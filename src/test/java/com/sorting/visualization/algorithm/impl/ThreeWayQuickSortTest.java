@@ -0,0 +1,110 @@
+package com.sorting.visualization.algorithm.impl;
+
+import com.sorting.visualization.algorithm.SortingAlgorithm.PerformanceResult;
+import com.sorting.visualization.algorithm.SortingAlgorithm.TeachingResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 三路快速排序在有序、逆序、锯齿（先升后降）输入上的比较次数保持 O(n log n)
+ */
+class ThreeWayQuickSortTest {
+
+    private static final int SIZE = 100_000;
+
+    private static final int TEACHING_SIZE = 200;
+
+    private final ThreeWayQuickSort<Object> sorter = new ThreeWayQuickSort<>();
+
+    @Test
+    void primitiveKernelsStayWithinBound() {
+        for (Distribution distribution : Distribution.values()) {
+            int[] ints = distribution.ints(SIZE);
+            int[] expected = ints.clone();
+            Arrays.sort(expected);
+
+            PerformanceResult<Integer> intResult = sorter.performInt(ints, Integer::compare);
+
+            assertArrayEquals(expected, ints, distribution.name());
+            assertWithinBound(intResult.getComparisons(), SIZE, distribution);
+
+            double[] doubles = Arrays.stream(distribution.ints(SIZE)).asDoubleStream().toArray();
+            PerformanceResult<Double> doubleResult = sorter.performDouble(doubles, Double::compare);
+
+            assertArrayEquals(Arrays.stream(expected).asDoubleStream().toArray(), doubles, distribution.name());
+            assertWithinBound(doubleResult.getComparisons(), SIZE, distribution);
+        }
+    }
+
+    @Test
+    void listKernelStaysWithinBound() {
+        for (Distribution distribution : Distribution.values()) {
+            List<Object> data = new ArrayList<>(Arrays.stream(distribution.ints(SIZE)).boxed().toList());
+
+            PerformanceResult<Object> result = sorter.perform(data, comparator());
+
+            assertSorted(result.getSortedData(), distribution);
+            assertWithinBound(result.getComparisons(), SIZE, distribution);
+        }
+    }
+
+    @Test
+    void teachingStaysWithinBound() {
+        for (Distribution distribution : Distribution.values()) {
+            List<Object> data = new ArrayList<>(Arrays.stream(distribution.ints(TEACHING_SIZE)).boxed().toList());
+
+            TeachingResult<Object> result = sorter.teach(data, comparator());
+
+            assertSorted(result.getSortedData(), distribution);
+            assertWithinBound(result.getTotalComparisons(), TEACHING_SIZE, distribution);
+        }
+    }
+
+    /**
+     * 上限 4·n·log2(n)：退化为平方时 n = 10^5 的比较次数在 10^9 量级，远超该上限
+     */
+    private static void assertWithinBound(long comparisons, int n, Distribution distribution) {
+        long bound = (long) (4 * n * (Math.log(n) / Math.log(2)));
+        assertTrue(comparisons <= bound, distribution + ": " + comparisons + " > " + bound);
+    }
+
+    private static void assertSorted(List<Object> sorted, Distribution distribution) {
+        for (int i = 1; i < sorted.size(); i++) {
+            assertTrue((Integer) sorted.get(i - 1) <= (Integer) sorted.get(i), distribution + " 第" + i + "个元素");
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<Object> comparator() {
+        return (Comparator) Comparator.<Integer>naturalOrder();
+    }
+
+    private enum Distribution {
+        SORTED,
+        REVERSE,
+        /** 先升后降（organ pipe） */
+        ORGAN_PIPE,
+        /** 前半升序、后半降序，元素互不相同 */
+        SORTED_THEN_REVERSE;
+
+        int[] ints(int n) {
+            int[] data = new int[n];
+            for (int i = 0; i < n; i++) {
+                data[i] = switch (this) {
+                    case SORTED -> i;
+                    case REVERSE -> n - i;
+                    case ORGAN_PIPE -> Math.min(i, n - 1 - i);
+                    case SORTED_THEN_REVERSE -> i < n / 2 ? i : n + n / 2 - i;
+                };
+            }
+            return data;
+        }
+    }
+}
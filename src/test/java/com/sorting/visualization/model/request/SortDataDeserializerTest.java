@@ -0,0 +1,150 @@
+package com.sorting.visualization.model.request;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.sorting.visualization.util.JsonUtil;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 排序数据的流式读取：整数到 double 的整体转换、非有限数的拒绝与数据量上限
+ */
+class SortDataDeserializerTest {
+
+    private static final SortDataDeserializer.Limits LIMITS =
+            new SortDataDeserializer.Limits(5, 0, 150, 0, 100);
+
+    private static SortData read(String json) throws IOException {
+        return read(json, null);
+    }
+
+    private static SortData read(String json, SortDataDeserializer.Limits limits) throws IOException {
+        ObjectReader reader = JsonUtil.readerFor(SortData.class);
+        if (limits != null) {
+            reader = reader.withAttribute(SortDataDeserializer.Limits.class, limits);
+        }
+        return reader.readValue(json);
+    }
+
+    private static SortDataDeserializer.InvalidDataException readInvalid(String json,
+                                                                        SortDataDeserializer.Limits limits) {
+        return assertThrows(SortDataDeserializer.InvalidDataException.class, () -> read(json, limits));
+    }
+
+    @Test
+    void integersStayInts() throws IOException {
+        SortData data = read("[3, -1, \"7\", 2147483647, -2147483648]");
+
+        assertEquals(SortData.Kind.INTEGER, data.getKind());
+        assertArrayEquals(new int[]{3, -1, 7, Integer.MAX_VALUE, Integer.MIN_VALUE}, data.getInts());
+    }
+
+    @Test
+    void decimalUpgradesWholeArrayToDouble() throws IOException {
+        SortData data = read("[1, 2, 3.5, 4, \"-0.25\"]");
+
+        assertEquals(SortData.Kind.DOUBLE, data.getKind());
+        assertArrayEquals(new double[]{1, 2, 3.5, 4, -0.25}, data.getDoubles());
+    }
+
+    @Test
+    void integerBeyondIntRangeUpgradesToDouble() throws IOException {
+        SortData data = read("[5, 2147483648, -6]");
+
+        assertEquals(SortData.Kind.DOUBLE, data.getKind());
+        assertArrayEquals(new double[]{5, 2147483648.0, -6}, data.getDoubles());
+
+        assertEquals(SortData.Kind.DOUBLE, read("[\"9999999999\", 1]").getKind());
+    }
+
+    @Test
+    void upgradeAfterBufferGrowthKeepsEarlierInts() throws IOException {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 200; i++) {
+            json.append(i).append(',');
+        }
+        json.append("0.5]");
+
+        double[] doubles = read(json.toString()).getDoubles();
+
+        assertEquals(201, doubles.length);
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i, doubles[i]);
+        }
+        assertEquals(0.5, doubles[200]);
+    }
+
+    @Test
+    void nonFiniteNumbersAreRejected() {
+        String[] inputs = {"[1, \"NaN\"]", "[1, \"Infinity\"]", "[1.5, \"-Infinity\"]", "[1, \"1e400\"]",
+                "[1, 1e400]", "[1, -1e400]", "[1, 1" + "0".repeat(400) + "]"};
+        for (String json : inputs) {
+            SortDataDeserializer.InvalidDataException e = readInvalid(json, null);
+            assertEquals("VALIDATION_ERROR", e.getCode(), json);
+            assertTrue(e.getOriginalMessage().startsWith("第2个数据验证失败: 不是有效的数字"), e.getOriginalMessage());
+        }
+    }
+
+    @Test
+    void nonFinitePersonScoreIsRejected() {
+        SortDataDeserializer.InvalidDataException e = readInvalid(
+                "[{\"id\": 1, \"name\": \"a\", \"age\": 20, \"score\": \"NaN\"}]", null);
+
+        assertEquals("VALIDATION_ERROR", e.getCode());
+
+        e = readInvalid("[{\"id\": 1, \"name\": \"a\", \"age\": 20, \"score\": 1e400}]", null);
+
+        assertEquals("VALIDATION_ERROR", e.getCode());
+    }
+
+    @Test
+    void invalidElementsAreRejected() {
+        assertEquals("VALIDATION_ERROR", readInvalid("[1, null]", null).getCode());
+        assertEquals("VALIDATION_ERROR", readInvalid("[1, \"abc\"]", null).getCode());
+        assertEquals("VALIDATION_ERROR", readInvalid("{\"a\": 1}", null).getCode());
+    }
+
+    @Test
+    void sizeAtLimitIsAccepted() throws IOException {
+        SortData data = read("[1, 2, 3, 4, 5]", LIMITS);
+
+        assertEquals(5, data.size());
+        assertEquals(LIMITS, data.getLimits());
+    }
+
+    @Test
+    void sizeOverLimitReportsTotalCount() {
+        SortDataDeserializer.InvalidDataException e = readInvalid("[1, 2, 3, 4, 5, 6.5, [7], {\"x\": 8}, 9]", LIMITS);
+
+        assertEquals("DATA_TOO_LARGE", e.getCode());
+        assertEquals("数据量超过限制: 9 > 5", e.getOriginalMessage());
+    }
+
+    @Test
+    void personSizeOverLimitReportsTotalCount() {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 7; i++) {
+            json.append(i > 0 ? "," : "")
+                    .append("{\"id\": ").append(i).append(", \"name\": \"p\", \"age\": 20, \"score\": 60}");
+        }
+        json.append(']');
+
+        SortDataDeserializer.InvalidDataException e = readInvalid(json.toString(), LIMITS);
+
+        assertEquals("DATA_TOO_LARGE", e.getCode());
+        assertEquals("数据量超过限制: 7 > 5", e.getOriginalMessage());
+    }
+
+    @Test
+    void personRangesAreCheckedOnlyWithLimits() throws IOException {
+        String json = "[{\"id\": 1, \"name\": \"a\", \"age\": 200, \"score\": 60}]";
+
+        assertEquals(SortData.Kind.PERSON, read(json).getKind());
+        assertEquals("VALIDATION_ERROR", readInvalid(json, LIMITS).getCode());
+    }
+}
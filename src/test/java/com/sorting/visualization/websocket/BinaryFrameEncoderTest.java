@@ -0,0 +1,326 @@
+package com.sorting.visualization.websocket;
+
+import com.sorting.visualization.model.Highlight;
+import com.sorting.visualization.model.Person;
+import com.sorting.visualization.model.response.ErrorResponse;
+import com.sorting.visualization.model.response.PerformanceResult;
+import com.sorting.visualization.model.response.StepUpdate;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 二进制帧编码与解码往返一致；测试中的 {@link FrameReader} 按 frontend-vue/src/utils/frameDecoder.js 逐字段对应实现
+ */
+class BinaryFrameEncoderTest {
+
+    private static final String[] HIGHLIGHT_KEYS = {"compare", "swap", "pivot", "heap", "equal", "sorted"};
+
+    @Test
+    void fullStepRoundTrip() {
+        StepUpdate step = step(List.of(5, -3, 0, Integer.MAX_VALUE, Integer.MIN_VALUE, 130));
+        step.setIsFinal(true);
+        step.setHighlight(new Highlight().compare(1, 2).swap(4).pivot(0).sortedRange(3, 6));
+
+        StepUpdate decoded = (StepUpdate) roundTrip(step);
+
+        assertStepEquals(step, decoded);
+    }
+
+    @Test
+    void nullableFieldsKeepNegativeAndNullValues() {
+        StepUpdate step = step(List.of(1.5, -2.25, Double.MAX_VALUE, -0.0));
+        step.setRequestId(null);
+        step.setTimestamp(-1L);
+        step.setStep(-1);
+        step.setTotalSteps(null);
+        step.getStats().setComparisons(Integer.MIN_VALUE);
+        step.getStats().setSwaps(null);
+        step.getStats().setTime(Long.MAX_VALUE);
+        step.setDescription(null);
+
+        StepUpdate decoded = (StepUpdate) roundTrip(step);
+
+        assertStepEquals(step, decoded);
+        assertNull(decoded.getRequestId());
+        assertNull(decoded.getTotalSteps());
+        assertNull(decoded.getStats().getSwaps());
+        assertEquals(-1L, decoded.getTimestamp());
+        assertEquals(-1, decoded.getStep());
+    }
+
+    @Test
+    void deltaStepRoundTrip() {
+        StepUpdate step = step(null);
+        step.setBaseStep(-7);
+        step.setChanges(List.of(new StepUpdate.Change(0, -1), new StepUpdate.Change(999, 42)));
+
+        StepUpdate decoded = (StepUpdate) roundTrip(step);
+
+        assertStepEquals(step, decoded);
+        assertNull(decoded.getData());
+    }
+
+    @Test
+    void performanceResultWithPersonsRoundTrip() {
+        PerformanceResult result = new PerformanceResult();
+        result.setRequestId("perf-1");
+        result.setTimestamp(1_700_000_000_000L);
+        result.setAlgorithm("QUICK");
+        result.setDistribution(null);
+        result.setTime(-5L);
+        result.setComparisons(null);
+        result.setSwaps(0L);
+        result.setDataSize(3L);
+        result.setRuns(null);
+        result.setMergePasses(-1);
+        result.setIoBytes(1L << 40);
+        result.setSorted(false);
+        result.setSortedData(new ArrayList<>(List.of(
+                new Person(1, "张三", 20, 88.5, "a@example.com"),
+                new Person(-2, null, null, -0.5, null),
+                new Person(null, "", 0, null, "")
+        )));
+
+        assertEquals(result, roundTrip(result));
+    }
+
+    @Test
+    void emptyDataRoundTrip() {
+        PerformanceResult result = new PerformanceResult();
+        result.setRequestId("empty");
+        result.setSortedData(new ArrayList<>());
+
+        assertEquals(result, roundTrip(result));
+    }
+
+    @Test
+    void unsupportedMessagesAreNotEncoded() {
+        assertNull(BinaryFrameEncoder.encode(new ErrorResponse()));
+        assertNull(BinaryFrameEncoder.encode(step(Arrays.asList(1, 2.0))));
+        assertNull(BinaryFrameEncoder.encode(step(Arrays.asList(1, null))));
+        assertNull(BinaryFrameEncoder.encode(step(List.of("a", "b"))));
+    }
+
+    private static StepUpdate step(List<?> data) {
+        StepUpdate step = new StepUpdate();
+        step.setRequestId("请求-1");
+        step.setTimestamp(123_456_789L);
+        step.setStep(10);
+        step.setTotalSteps(200);
+        step.setData(data == null ? null : new ArrayList<>(data));
+        StepUpdate.Statistics stats = new StepUpdate.Statistics();
+        stats.setComparisons(17);
+        stats.setSwaps(4);
+        stats.setTime(321L);
+        step.setStats(stats);
+        step.setHighlight(new Highlight());
+        step.setDescription("比较第1个和第2个元素");
+        return step;
+    }
+
+    private static Object roundTrip(Object message) {
+        ByteBuffer frame = BinaryFrameEncoder.encode(message);
+        byte[] bytes = new byte[frame.remaining()];
+        frame.get(bytes);
+        return new FrameReader(bytes).decode();
+    }
+
+    private static void assertStepEquals(StepUpdate expected, StepUpdate actual) {
+        for (String key : HIGHLIGHT_KEYS) {
+            assertArrayEquals(ranges(expected.getHighlight(), key), ranges(actual.getHighlight(), key), key);
+        }
+        Highlight highlight = expected.getHighlight();
+        expected.setHighlight(null);
+        actual.setHighlight(null);
+        assertEquals(expected, actual);
+        expected.setHighlight(highlight);
+    }
+
+    private static int[] ranges(Highlight highlight, String key) {
+        return switch (key) {
+            case "compare" -> highlight.getCompare();
+            case "swap" -> highlight.getSwap();
+            case "pivot" -> highlight.getPivot();
+            case "heap" -> highlight.getHeap();
+            case "equal" -> highlight.getEqual();
+            default -> highlight.getSorted();
+        };
+    }
+
+    /**
+     * frameDecoder.js 的 Java 对照实现
+     */
+    private static final class FrameReader {
+        private final ByteBuffer buffer;
+
+        FrameReader(byte[] bytes) {
+            this.buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        Object decode() {
+            assertEquals(0x53, buffer.get(0));
+            assertEquals(2, buffer.get(1));
+            int type = buffer.get(2);
+            int elementType = buffer.get(3);
+            int flags = buffer.get(4);
+            buffer.position(8);
+            String requestId = string();
+            Long timestamp = nullable();
+
+            if (type == 1) {
+                StepUpdate step = new StepUpdate();
+                step.setRequestId(requestId);
+                step.setTimestamp(timestamp);
+                step.setStep(toInt(nullable()));
+                step.setTotalSteps(toInt(nullable()));
+                StepUpdate.Statistics stats = new StepUpdate.Statistics();
+                stats.setComparisons(toInt(nullable()));
+                stats.setSwaps(toInt(nullable()));
+                stats.setTime(nullable());
+                step.setStats(stats);
+                Highlight highlight = new Highlight();
+                for (String key : HIGHLIGHT_KEYS) {
+                    int[] ranges = ranges();
+                    for (int k = 0; ranges != null && k < ranges.length; k += 2) {
+                        switch (key) {
+                            case "compare" -> highlight.compareRange(ranges[k], ranges[k + 1]);
+                            case "swap" -> highlight.swapRange(ranges[k], ranges[k + 1]);
+                            case "pivot" -> highlight.pivot(ranges[k]);
+                            case "heap" -> highlight.heapRange(ranges[k], ranges[k + 1]);
+                            case "equal" -> highlight.equalRange(ranges[k], ranges[k + 1]);
+                            default -> highlight.sortedRange(ranges[k], ranges[k + 1]);
+                        }
+                    }
+                }
+                step.setHighlight(highlight);
+                step.setDescription(string());
+                if ((flags & 4) != 0) {
+                    step.setBaseStep(toInt(nullable()));
+                    int n = (int) varint();
+                    List<StepUpdate.Change> changes = new ArrayList<>(n);
+                    for (int i = 0; i < n; i++) {
+                        int index = (int) varint();
+                        changes.add(new StepUpdate.Change(index, element(elementType)));
+                    }
+                    step.setChanges(changes);
+                } else {
+                    step.setData(data(elementType));
+                }
+                step.setIsFinal((flags & 1) != 0);
+                assertEquals(buffer.limit(), buffer.position(), "帧末尾有多余字节");
+                return step;
+            }
+
+            assertEquals(2, type);
+            PerformanceResult result = new PerformanceResult();
+            result.setRequestId(requestId);
+            result.setTimestamp(timestamp);
+            result.setAlgorithm(string());
+            result.setDistribution(string());
+            result.setTime(nullable());
+            result.setComparisons(nullable());
+            result.setSwaps(nullable());
+            result.setDataSize(nullable());
+            result.setRuns(toInt(nullable()));
+            result.setMergePasses(toInt(nullable()));
+            result.setIoBytes(nullable());
+            result.setSortedData(data(elementType));
+            result.setSorted((flags & 2) != 0);
+            assertEquals(buffer.limit(), buffer.position(), "帧末尾有多余字节");
+            return result;
+        }
+
+        long varint() {
+            long result = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get();
+                result |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return result;
+        }
+
+        long zigzag() {
+            return unzigzag(varint());
+        }
+
+        Long nullable() {
+            long v = varint();
+            return v == 0 ? null : unzigzag(v - 1);
+        }
+
+        private static long unzigzag(long v) {
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        String string() {
+            long length = varint();
+            if (length == 0) {
+                return null;
+            }
+            byte[] bytes = new byte[(int) length - 1];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        int[] ranges() {
+            long count = varint();
+            if (count == 0) {
+                return null;
+            }
+            int[] ranges = new int[(int) count - 1];
+            int previous = 0;
+            for (int i = 0; i < ranges.length; i++) {
+                previous += (int) zigzag();
+                ranges[i] = previous;
+            }
+            return ranges;
+        }
+
+        Object element(int elementType) {
+            return switch (elementType) {
+                case 1 -> (int) zigzag();
+                case 2 -> buffer.getDouble();
+                default -> person();
+            };
+        }
+
+        Person person() {
+            int mask = buffer.get();
+            Integer id = (mask & 1) != 0 ? (int) zigzag() : null;
+            String name = (mask & 2) != 0 ? string() : null;
+            Integer age = (mask & 4) != 0 ? (int) zigzag() : null;
+            Double score = (mask & 8) != 0 ? buffer.getDouble() : null;
+            String email = (mask & 16) != 0 ? string() : null;
+            return new Person(id, name, age, score, email);
+        }
+
+        List<Object> data(int elementType) {
+            if (elementType == 0) {
+                return null;
+            }
+            int n = (int) varint();
+            List<Object> data = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                data.add(element(elementType));
+            }
+            return data;
+        }
+
+        private static Integer toInt(Long value) {
+            return value == null ? null : value.intValue();
+        }
+    }
+}
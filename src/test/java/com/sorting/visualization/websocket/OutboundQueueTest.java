@@ -0,0 +1,139 @@
+package com.sorting.visualization.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sorting.visualization.model.response.ErrorResponse;
+import com.sorting.visualization.model.response.StepUpdate;
+import com.sorting.visualization.util.JsonUtil;
+import jakarta.websocket.RemoteEndpoint;
+import jakarta.websocket.SendHandler;
+import jakarta.websocket.SendResult;
+import jakarta.websocket.Session;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 队列已满时的步骤合并：合并结果与依次应用各步一致，且不越过状态、错误等其他消息
+ */
+class OutboundQueueTest {
+
+    /** 已交给容器的消息（按发送顺序）及其完成回调，回调由测试逐条触发 */
+    private final List<String> sentTexts = new ArrayList<>();
+    private final List<SendHandler> handlers = new ArrayList<>();
+
+    private OutboundQueue queue(OutboundQueue.OverflowPolicy policy) {
+        Session session = mock(Session.class);
+        RemoteEndpoint.Async remote = mock(RemoteEndpoint.Async.class);
+        when(session.isOpen()).thenReturn(true);
+        when(session.getId()).thenReturn("s1");
+        when(session.getAsyncRemote()).thenReturn(remote);
+        doAnswer(invocation -> {
+            sentTexts.add(invocation.getArgument(0));
+            handlers.add(invocation.getArgument(1));
+            return null;
+        }).when(remote).sendText(anyString(), any(SendHandler.class));
+        return new OutboundQueue(session, 2, policy, () -> false);
+    }
+
+    @Test
+    void latestDoesNotMoveStepsAcrossOtherMessages() {
+        OutboundQueue queue = queue(OutboundQueue.OverflowPolicy.LATEST);
+
+        queue.enqueue(fullStep(0, 0, 0, 0));  // 在途
+        queue.enqueue(deltaStep(1, 0, 1));
+        queue.enqueue(deltaStep(2, 1, 2));
+        queue.enqueue(error());
+        queue.enqueue(deltaStep(3, 2, 3));     // 已满，队尾是错误消息：不越过它
+        queue.enqueue(deltaStep(4, 0, 4));     // 与第3步合并
+
+        List<JsonNode> sent = drainAll();
+
+        assertEquals(List.of("STEP_UPDATE:0", "STEP_UPDATE:1", "STEP_UPDATE:2", "ERROR", "STEP_UPDATE:4"),
+                sent.stream().map(OutboundQueueTest::label).toList());
+        JsonNode merged = sent.get(4);
+        assertEquals(2, merged.get("baseStep").asInt());
+        assertEquals("[{\"index\":2,\"value\":3},{\"index\":0,\"value\":4}]", merged.get("changes").toString());
+        assertEquals(1, queue.getCoalesced());
+    }
+
+    @Test
+    void latestMergesWholeTrailingRunOfSteps() {
+        OutboundQueue queue = queue(OutboundQueue.OverflowPolicy.LATEST);
+
+        queue.enqueue(error());                // 在途
+        queue.enqueue(error());
+        queue.enqueue(fullStep(1, 5, 5, 5));
+        queue.enqueue(deltaStep(2, 1, 6));
+        queue.enqueue(deltaStep(3, 2, 7));     // 已满：第1、2步与第3步合并为一条完整快照
+
+        List<JsonNode> sent = drainAll();
+
+        assertEquals(List.of("ERROR", "ERROR", "STEP_UPDATE:3"),
+                sent.stream().map(OutboundQueueTest::label).toList());
+        assertEquals("[5,6,7]", sent.get(2).get("data").toString());
+        assertEquals(2, queue.getCoalesced());
+    }
+
+    @Test
+    void coalesceMergesOnlyWithTail() {
+        OutboundQueue queue = queue(OutboundQueue.OverflowPolicy.COALESCE);
+
+        queue.enqueue(fullStep(0, 0, 0, 0));   // 在途
+        queue.enqueue(deltaStep(1, 0, 1));
+        queue.enqueue(deltaStep(2, 1, 2));
+        queue.enqueue(deltaStep(3, 2, 3));     // 已满：与第2步合并
+
+        List<JsonNode> sent = drainAll();
+
+        assertEquals(List.of("STEP_UPDATE:0", "STEP_UPDATE:1", "STEP_UPDATE:3"),
+                sent.stream().map(OutboundQueueTest::label).toList());
+        assertEquals(1, sent.get(2).get("baseStep").asInt());
+    }
+
+    /**
+     * 逐条完成在途发送，直到没有新的发送
+     */
+    private List<JsonNode> drainAll() {
+        for (int i = 0; i < handlers.size(); i++) {
+            handlers.get(i).onResult(new SendResult());
+        }
+        return sentTexts.stream().map(text -> JsonUtil.fromJson(text, JsonNode.class)).toList();
+    }
+
+    private static String label(JsonNode message) {
+        String type = message.get("type").asText();
+        return message.has("step") ? type + ":" + message.get("step").asInt() : type;
+    }
+
+    private static StepUpdate fullStep(int step, Object... data) {
+        StepUpdate update = new StepUpdate();
+        update.setStep(step);
+        update.setData(new ArrayList<>(List.of(data)));
+        return update;
+    }
+
+    /**
+     * 相对前一步的增量：第 index 个元素变为 value
+     */
+    private static StepUpdate deltaStep(int step, int index, Object value) {
+        StepUpdate update = new StepUpdate();
+        update.setStep(step);
+        update.setBaseStep(step - 1);
+        update.setChanges(new ArrayList<>(List.of(new StepUpdate.Change(index, value))));
+        return update;
+    }
+
+    private static ErrorResponse error() {
+        ErrorResponse error = new ErrorResponse();
+        error.setCode(ErrorResponse.ErrorCode.VALIDATION_ERROR);
+        return error;
+    }
+}